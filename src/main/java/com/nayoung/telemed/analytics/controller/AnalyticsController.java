@@ -0,0 +1,38 @@
+package com.nayoung.telemed.analytics.controller;
+
+import com.nayoung.telemed.analytics.dto.AppointmentStatsDTO;
+import com.nayoung.telemed.analytics.service.AnalyticsService;
+import com.nayoung.telemed.enums.StatsGrouping;
+import com.nayoung.telemed.res.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/analytics")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/appointments")
+    public ResponseEntity<Response<List<AppointmentStatsDTO>>> getAppointmentStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") StatsGrouping groupBy) {
+        return ResponseEntity.ok(analyticsService.getAppointmentStats(from, to, groupBy));
+    }
+
+    // reconciles the rollup rows with the appointments table, e.g. after the first deployment
+    @PostMapping("/appointments/rebuild")
+    public ResponseEntity<Response<Integer>> rebuildAppointmentStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.rebuildAppointmentStats(from, to));
+    }
+}
@@ -0,0 +1,39 @@
+package com.nayoung.telemed.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nayoung.telemed.enums.Specialization;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppointmentStatsDTO {
+
+    private LocalDate date;
+
+    // set when grouped by doctor
+    private Long doctorId;
+
+    // set when grouped by doctor or specialization
+    private Specialization specialization;
+
+    private long scheduled;
+
+    private long completed;
+
+    private long cancelled;
+
+    private long noShow;
+
+    // share of the doctors' working hours taken by appointments that kept their slot, 0 to 1
+    private Double utilization;
+}
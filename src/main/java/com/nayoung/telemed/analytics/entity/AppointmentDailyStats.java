@@ -0,0 +1,49 @@
+package com.nayoung.telemed.analytics.entity;
+
+import com.nayoung.telemed.enums.Specialization;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Number of appointments per status for one doctor on one day, maintained by the AppointmentStatsRecorder.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "appointment_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_stats_date_doctor", columnNames = {"stats_date", "doctor_id"}))
+public class AppointmentDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stats_date", nullable = false)
+    private LocalDate statsDate;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    // the doctor's specialization when the row was written
+    @Enumerated(EnumType.STRING)
+    private Specialization specialization;
+
+    @Column(nullable = false)
+    private long scheduledCount;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private long cancelledCount;
+
+    @Column(nullable = false)
+    private long noShowCount;
+}
@@ -0,0 +1,50 @@
+package com.nayoung.telemed.analytics.repo;
+
+import com.nayoung.telemed.analytics.entity.AppointmentDailyStats;
+import com.nayoung.telemed.enums.Specialization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// every query reads at most one row per doctor and day of the range, however many appointments there are
+public interface AppointmentDailyStatsRepo extends JpaRepository<AppointmentDailyStats, Long> {
+
+    @Query("SELECT s.statsDate AS statsDate, s.doctorId AS doctorId, s.specialization AS specialization, " +
+            "s.scheduledCount AS scheduled, s.completedCount AS completed, " +
+            "s.cancelledCount AS cancelled, s.noShowCount AS noShow " +
+            "FROM AppointmentDailyStats s " +
+            "WHERE s.statsDate BETWEEN :from AND :to " +
+            "ORDER BY s.statsDate, s.doctorId")
+    List<StatsRow> findDoctorStats(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT s.statsDate AS statsDate, s.specialization AS specialization, " +
+            "SUM(s.scheduledCount) AS scheduled, SUM(s.completedCount) AS completed, " +
+            "SUM(s.cancelledCount) AS cancelled, SUM(s.noShowCount) AS noShow " +
+            "FROM AppointmentDailyStats s " +
+            "WHERE s.statsDate BETWEEN :from AND :to " +
+            "GROUP BY s.statsDate, s.specialization " +
+            "ORDER BY s.statsDate, s.specialization")
+    List<StatsRow> findSpecializationStats(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT s.statsDate AS statsDate, " +
+            "SUM(s.scheduledCount) AS scheduled, SUM(s.completedCount) AS completed, " +
+            "SUM(s.cancelledCount) AS cancelled, SUM(s.noShowCount) AS noShow " +
+            "FROM AppointmentDailyStats s " +
+            "WHERE s.statsDate BETWEEN :from AND :to " +
+            "GROUP BY s.statsDate " +
+            "ORDER BY s.statsDate")
+    List<StatsRow> findDailyStats(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface StatsRow {
+        LocalDate getStatsDate();
+        Long getDoctorId();
+        Specialization getSpecialization();
+        Long getScheduled();
+        Long getCompleted();
+        Long getCancelled();
+        Long getNoShow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.nayoung.telemed.analytics.service;
+
+import com.nayoung.telemed.analytics.dto.AppointmentStatsDTO;
+import com.nayoung.telemed.enums.StatsGrouping;
+import com.nayoung.telemed.res.Response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+    Response<List<AppointmentStatsDTO>> getAppointmentStats(LocalDate from, LocalDate to, StatsGrouping groupBy);
+    Response<Integer> rebuildAppointmentStats(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,116 @@
+package com.nayoung.telemed.analytics.service;
+
+import com.nayoung.telemed.analytics.dto.AppointmentStatsDTO;
+import com.nayoung.telemed.analytics.repo.AppointmentDailyStatsRepo;
+import com.nayoung.telemed.doctor.repo.DoctorRepo;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.enums.StatsGrouping;
+import com.nayoung.telemed.exceptions.BadRequestException;
+import com.nayoung.telemed.res.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    // every booking takes a 60-minute slot
+    private static final long SLOT_MINUTES = 60;
+
+    private final AppointmentDailyStatsRepo statsRepo;
+    private final AppointmentStatsRecorder statsRecorder;
+    private final DoctorRepo doctorRepo;
+
+    @Value("${appointment.availability.day-start:08:00}")
+    private LocalTime dayStart;
+
+    @Value("${appointment.availability.day-end:18:00}")
+    private LocalTime dayEnd;
+
+    @Value("${appointment.stats.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Override
+    public Response<List<AppointmentStatsDTO>> getAppointmentStats(LocalDate from, LocalDate to, StatsGrouping groupBy) {
+        validateRange(from, to);
+
+        // utilization is measured against every doctor's working hours, including doctors without appointments
+        long workingMinutes = Duration.between(dayStart, dayEnd).toMinutes();
+
+        List<AppointmentStatsDTO> stats = switch (groupBy) {
+            case DOCTOR -> statsRepo.findDoctorStats(from, to).stream()
+                    .map(row -> toDTO(row, workingMinutes))
+                    .toList();
+            case SPECIALIZATION -> {
+                Map<Specialization, Long> doctorsBySpecialization = new EnumMap<>(Specialization.class);
+                doctorRepo.countDoctorsPerSpecialization().forEach(count ->
+                        doctorsBySpecialization.put(count.getSpecialization(), count.getDoctors()));
+                yield statsRepo.findSpecializationStats(from, to).stream()
+                        .map(row -> toDTO(row, workingMinutes * doctorsBySpecialization.getOrDefault(row.getSpecialization(), 0L)))
+                        .toList();
+            }
+            case DAY -> {
+                long doctors = doctorRepo.count();
+                yield statsRepo.findDailyStats(from, to).stream()
+                        .map(row -> toDTO(row, workingMinutes * doctors))
+                        .toList();
+            }
+        };
+
+        return success("Appointment statistics retrieved successfully", stats);
+    }
+
+    @Override
+    public Response<Integer> rebuildAppointmentStats(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return success("Appointment statistics rebuilt", statsRecorder.rebuild(from, to));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("End date must not be before the start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new BadRequestException("Date range can span at most " + maxRangeDays + " days");
+        }
+    }
+
+    private static AppointmentStatsDTO toDTO(AppointmentDailyStatsRepo.StatsRow row, long capacityMinutes) {
+        long scheduled = valueOf(row.getScheduled());
+        long completed = valueOf(row.getCompleted());
+        long noShow = valueOf(row.getNoShow());
+
+        return AppointmentStatsDTO.builder()
+                .date(row.getStatsDate())
+                .doctorId(row.getDoctorId())
+                .specialization(row.getSpecialization())
+                .scheduled(scheduled)
+                .completed(completed)
+                .cancelled(valueOf(row.getCancelled()))
+                .noShow(noShow)
+                // a no-show still held the slot, a cancellation gave it back
+                .utilization(capacityMinutes <= 0 ? null : (scheduled + completed + noShow) * SLOT_MINUTES / (double) capacityMinutes)
+                .build();
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private <T> Response<T> success(String message, T data) {
+        return Response.<T>builder()
+                .statusCode(200)
+                .message(message)
+                .data(data)
+                .build();
+    }
+}
@@ -0,0 +1,231 @@
+package com.nayoung.telemed.analytics.service;
+
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps appointment_daily_stats in step with appointment status changes. Each change adjusts an in-memory delta
+ * per doctor and day; deltas are added to the rows in batches every appointment.stats.flush-interval-ms, so a busy
+ * doctor's row is written once per flush rather than once per booking. Deltas not yet flushed are lost if the node
+ * dies, which the periodic rebuild from the appointments table corrects.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AppointmentStatsRecorder {
+
+    private static final String ADD_DELTA =
+            "UPDATE appointment_daily_stats SET scheduled_count = scheduled_count + ?, completed_count = completed_count + ?, " +
+                    "cancelled_count = cancelled_count + ?, no_show_count = no_show_count + ? " +
+                    "WHERE stats_date = ? AND doctor_id = ?";
+
+    private static final String INSERT_ROW =
+            "INSERT INTO appointment_daily_stats (stats_date, doctor_id, specialization, " +
+                    "scheduled_count, completed_count, cancelled_count, no_show_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointment.stats.rebuild.past-days:35}")
+    private int rebuildPastDays;
+
+    @Value("${appointment.stats.rebuild.future-days:60}")
+    private int rebuildFutureDays;
+
+    private final ConcurrentHashMap<StatsKey, Delta> pending = new ConcurrentHashMap<>();
+
+    // a rebuild must not interleave with a flush of deltas it already accounts for
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public void recordBooked(Appointment appointment) {
+        record(appointment, null, AppointmentStatus.SCHEDULED);
+    }
+
+    public void recordTransition(Appointment appointment, AppointmentStatus from, AppointmentStatus to) {
+        record(appointment, from, to);
+    }
+
+    public void recordTransition(Long doctorId, Specialization specialization, LocalDate date,
+                                 AppointmentStatus from, AppointmentStatus to) {
+        if (from == to) {
+            return;
+        }
+        // mutated only inside compute, so a flush removing the key never races with an update of its delta
+        pending.compute(new StatsKey(date, doctorId, specialization), (key, delta) -> {
+            Delta target = delta == null ? new Delta() : delta;
+            target.add(from, -1);
+            target.add(to, 1);
+            return target.isZero() ? null : target;
+        });
+    }
+
+    private void record(Appointment appointment, AppointmentStatus from, AppointmentStatus to) {
+        recordTransition(appointment.getDoctor().getId(), appointment.getDoctor().getSpecialization(),
+                appointment.getStartTime().toLocalDate(), from, to);
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.stats.flush-interval-ms:10000}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            flushPending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    private void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Recomputes the rows of [from, to] from the appointments table. Done by default nightly for a window
+     * around today; the aggregation reads only appointments of that window through the start time index.
+     * A change committed while the rebuild runs but recorded after it may be counted twice until the next rebuild.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        writeLock.lock();
+        try {
+            flushPending();
+
+            Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+            Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+            Integer rows = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM appointment_daily_stats WHERE stats_date BETWEEN ? AND ?",
+                        Date.valueOf(from), Date.valueOf(to));
+                return jdbcTemplate.update(
+                        "INSERT INTO appointment_daily_stats (stats_date, doctor_id, specialization, " +
+                                "scheduled_count, completed_count, cancelled_count, no_show_count) " +
+                                "SELECT CAST(a.start_time AS DATE), a.doctor_id, d.specialization, " +
+                                "SUM(CASE WHEN a.status = 'SCHEDULED' THEN 1 ELSE 0 END), " +
+                                "SUM(CASE WHEN a.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+                                "SUM(CASE WHEN a.status = 'CANCELLED' THEN 1 ELSE 0 END), " +
+                                "SUM(CASE WHEN a.status = 'NO_SHOW' THEN 1 ELSE 0 END) " +
+                                // archived appointments still count for the days they took place
+                                "FROM (SELECT doctor_id, start_time, status FROM appointments " +
+                                "WHERE start_time >= ? AND start_time < ? " +
+                                "UNION ALL SELECT doctor_id, start_time, status FROM appointments_archive " +
+                                "WHERE start_time >= ? AND start_time < ?) a " +
+                                "JOIN doctors d ON d.id = a.doctor_id " +
+                                "GROUP BY CAST(a.start_time AS DATE), a.doctor_id, d.specialization",
+                        start, end, start, end);
+            });
+
+            log.info("Rebuilt {} appointment stats rows for {} to {}", rows, from, to);
+            return rows == null ? 0 : rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${appointment.stats.rebuild.cron:0 30 3 * * *}")
+    public void rebuildRecent() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(rebuildPastDays), today.plusDays(rebuildFutureDays));
+    }
+
+    private void flushPending() {
+        List<StatsKey> keys = new ArrayList<>(pending.keySet());
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<StatsKey, Delta>> deltas = new ArrayList<>(keys.size());
+        for (StatsKey key : keys) {
+            Delta delta = pending.remove(key);
+            if (delta != null) {
+                deltas.add(Map.entry(key, delta));
+            }
+        }
+
+        // all or nothing, so deltas put back after a failure were not partly applied
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[] updated = jdbcTemplate.batchUpdate(ADD_DELTA, deltas.stream()
+                        .map(entry -> new Object[]{entry.getValue().scheduled, entry.getValue().completed,
+                                entry.getValue().cancelled, entry.getValue().noShow,
+                                Date.valueOf(entry.getKey().date()), entry.getKey().doctorId()})
+                        .toList());
+
+                // first change for this doctor and day: the row doesn't exist yet
+                for (int i = 0; i < deltas.size(); i++) {
+                    if (updated[i] == 0) {
+                        insertRow(deltas.get(i).getKey(), deltas.get(i).getValue());
+                    }
+                }
+            });
+            log.debug("Flushed {} appointment stats deltas", deltas.size());
+        } catch (Exception e) {
+            // put them back for the next flush, merged with whatever was recorded meanwhile
+            deltas.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Delta::plus));
+            log.error("Failed to flush {} appointment stats deltas, will retry", deltas.size(), e);
+        }
+    }
+
+    private void insertRow(StatsKey key, Delta delta) {
+        try {
+            jdbcTemplate.update(INSERT_ROW, Date.valueOf(key.date()), key.doctorId(),
+                    key.specialization() == null ? null : key.specialization().name(),
+                    delta.scheduled, delta.completed, delta.cancelled, delta.noShow);
+        } catch (DuplicateKeyException e) {
+            // another node inserted it in the meantime
+            jdbcTemplate.update(ADD_DELTA, delta.scheduled, delta.completed, delta.cancelled, delta.noShow,
+                    Date.valueOf(key.date()), key.doctorId());
+        }
+    }
+
+    private record StatsKey(LocalDate date, Long doctorId, Specialization specialization) {
+    }
+
+    private static final class Delta {
+
+        private long scheduled;
+        private long completed;
+        private long cancelled;
+        private long noShow;
+
+        private void add(AppointmentStatus status, int amount) {
+            if (status == null) {
+                return;
+            }
+            switch (status) {
+                case SCHEDULED -> scheduled += amount;
+                case COMPLETED -> completed += amount;
+                case CANCELLED -> cancelled += amount;
+                case NO_SHOW -> noShow += amount;
+            }
+        }
+
+        private boolean isZero() {
+            return scheduled == 0 && completed == 0 && cancelled == 0 && noShow == 0;
+        }
+
+        private Delta plus(Delta other) {
+            scheduled += other.scheduled;
+            completed += other.completed;
+            cancelled += other.cancelled;
+            noShow += other.noShow;
+            return this;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.nayoung.telemed.appointment.controller;
 
 import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.dto.AppointmentSeriesDTO;
+import com.nayoung.telemed.appointment.dto.AvailableSlotDTO;
 import com.nayoung.telemed.appointment.service.AppointmentService;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.res.CursorPage;
 import com.nayoung.telemed.res.Response;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,9 +29,28 @@ public class AppointmentController {
         return ResponseEntity.ok(appointmentService.bookAppointment(appointmentDTO));
     }
 
+    @PostMapping("/series")
+    public ResponseEntity<Response<List<AppointmentDTO>>> bookAppointmentSeries(@RequestBody @Valid AppointmentSeriesDTO seriesDTO) {
+        return ResponseEntity.ok(appointmentService.bookAppointmentSeries(seriesDTO));
+    }
+
     @GetMapping
-    public ResponseEntity<Response<List<AppointmentDTO>>> getMyAppointments() {
-        return ResponseEntity.ok(appointmentService.getMyAppointments());
+    public ResponseEntity<Response<CursorPage<AppointmentDTO>>> getMyAppointments(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(appointmentService.getMyAppointments(cursor, size, status, from, to));
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<Response<List<AvailableSlotDTO>>> findAvailableSlots(
+            @RequestParam Specialization specialization,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "5") int count) {
+        return ResponseEntity.ok(appointmentService.findAvailableSlots(specialization, from, to, count));
     }
 
     @PutMapping("/cancel/{appointmentId}")
@@ -0,0 +1,40 @@
+package com.nayoung.telemed.appointment.controller;
+
+import com.nayoung.telemed.appointment.dto.WaitlistEntryDTO;
+import com.nayoung.telemed.appointment.service.WaitlistService;
+import com.nayoung.telemed.res.Response;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/waitlist")
+@PreAuthorize("hasAuthority('PATIENT')")
+public class WaitlistController {
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<Response<WaitlistEntryDTO>> joinWaitlist(@RequestBody @Valid WaitlistEntryDTO waitlistEntryDTO) {
+        return ResponseEntity.ok(waitlistService.joinWaitlist(waitlistEntryDTO));
+    }
+
+    @GetMapping
+    public ResponseEntity<Response<List<WaitlistEntryDTO>>> getMyWaitlistEntries() {
+        return ResponseEntity.ok(waitlistService.getMyWaitlistEntries());
+    }
+
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<Response<?>> leaveWaitlist(@PathVariable Long entryId) {
+        return ResponseEntity.ok(waitlistService.leaveWaitlist(entryId));
+    }
+
+    @PostMapping("/{entryId}/accept")
+    public ResponseEntity<Response<?>> acceptOffer(@PathVariable Long entryId) {
+        return ResponseEntity.ok(waitlistService.acceptOffer(entryId));
+    }
+}
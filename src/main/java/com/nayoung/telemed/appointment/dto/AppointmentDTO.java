@@ -41,6 +41,8 @@ public class AppointmentDTO {
 
     private AppointmentStatus status;
 
+    private String seriesId;
+
     private DoctorDTO doctor;
 
     private PatientDTO patient;
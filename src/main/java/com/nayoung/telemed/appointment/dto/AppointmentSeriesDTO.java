@@ -0,0 +1,44 @@
+package com.nayoung.telemed.appointment.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nayoung.telemed.enums.RecurrenceFrequency;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppointmentSeriesDTO {
+
+    @NotNull(message = "Doctor ID is required for booking an appointment series")
+    private Long doctorId;
+
+    @NotNull(message = "Start time of the first appointment is required")
+    @Future(message = "Appointment must be scheduled for a future date and time")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "Frequency is required")
+    private RecurrenceFrequency frequency;
+
+    // either the number of appointments or the last date of the series
+    @Positive(message = "Occurrences must be positive")
+    private Integer occurrences;
+
+    private LocalDate endDate;
+
+    private String purposeOfConsultation;
+
+    private String initialSymptoms;
+}
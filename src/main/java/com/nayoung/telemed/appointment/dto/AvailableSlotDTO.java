@@ -0,0 +1,29 @@
+package com.nayoung.telemed.appointment.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailableSlotDTO {
+
+    private Long doctorId;
+
+    private String doctorFirstName;
+
+    private String doctorLastName;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+}
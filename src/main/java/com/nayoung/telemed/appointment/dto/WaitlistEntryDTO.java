@@ -0,0 +1,52 @@
+package com.nayoung.telemed.appointment.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.enums.WaitlistStatus;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitlistEntryDTO {
+
+    private Long id;
+
+    // wait for this doctor, or for any doctor of the specialization
+    private Long doctorId;
+
+    private Specialization specialization;
+
+    @NotNull(message = "First acceptable date is required")
+    @FutureOrPresent(message = "First acceptable date cannot be in the past")
+    private LocalDate fromDate;
+
+    @NotNull(message = "Last acceptable date is required")
+    private LocalDate toDate;
+
+    private String purposeOfConsultation;
+
+    private String initialSymptoms;
+
+    private WaitlistStatus status;
+
+    private Long offeredDoctorId;
+
+    private LocalDateTime offeredStartTime;
+
+    private LocalDateTime offerExpiresAt;
+
+    private LocalDateTime createdAt;
+}
@@ -2,7 +2,6 @@ package com.nayoung.telemed.appointment.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.nayoung.telemed.consultation.entity.Consultation;
 import com.nayoung.telemed.doctor.entity.Doctor;
 import com.nayoung.telemed.enums.AppointmentStatus;
 import com.nayoung.telemed.patient.entity.Patient;
@@ -19,7 +18,16 @@ import java.time.LocalDateTime;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "appointments")
+@Table(name = "appointments",
+        indexes = {
+                @Index(name = "idx_appointment_doctor_status_start", columnList = "doctor_id, status, start_time"),
+                // keyset pagination of getMyAppointments walks these newest first
+                @Index(name = "idx_appointment_doctor_id", columnList = "doctor_id, id"),
+                @Index(name = "idx_appointment_patient_id", columnList = "patient_id, id"),
+                @Index(name = "idx_appointment_series", columnList = "series_id"),
+                // rolling window scans of the reminder scheduler
+                @Index(name = "idx_appointment_status_start", columnList = "status, start_time")
+        })
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Appointment {
@@ -42,6 +50,14 @@ public class Appointment {
     @Enumerated(EnumType.STRING)
     private AppointmentStatus status;
 
+    // shared by all appointments booked together as a recurring series
+    @Column(name = "series_id", length = 36)
+    private String seriesId;
+
+    // bit i set once the reminder for appointment.reminder.offsets-minutes[i] was claimed by a node
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int remindersSent;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
@@ -50,6 +66,6 @@ public class Appointment {
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
-    @OneToOne(mappedBy = "appointment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Consultation consultation;
+    // no inverse consultation mapping: a mappedBy one-to-one can't be lazy, it would cost a query per appointment.
+    // look consultations up through ConsultationRepo
 }
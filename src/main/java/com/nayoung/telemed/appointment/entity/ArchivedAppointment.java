@@ -0,0 +1,77 @@
+package com.nayoung.telemed.appointment.entity;
+
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A finished appointment moved out of the appointments table by the AppointmentArchiver. Keeps its original id,
+ * so listings can merge hot and archived rows in id order. Rows are written and removed with plain SQL only.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "appointments_archive",
+        indexes = {
+                @Index(name = "idx_appointment_archive_doctor_id", columnList = "doctor_id, id"),
+                @Index(name = "idx_appointment_archive_patient_id", columnList = "patient_id, id"),
+                @Index(name = "idx_appointment_archive_start", columnList = "start_time")
+        })
+public class ArchivedAppointment {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private String meetingLink;
+
+    private String purposeOfConsultation;
+
+    private String initialSymptoms;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentStatus status;
+
+    @Column(name = "series_id", length = 36)
+    private String seriesId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // detached copy for the mappers, never saved
+    public Appointment toAppointment() {
+        return Appointment.builder()
+                .id(id)
+                .startTime(startTime)
+                .endTime(endTime)
+                .meetingLink(meetingLink)
+                .purposeOfConsultation(purposeOfConsultation)
+                .initialSymptoms(initialSymptoms)
+                .status(status)
+                .seriesId(seriesId)
+                .doctor(doctor)
+                .patient(patient)
+                .build();
+    }
+}
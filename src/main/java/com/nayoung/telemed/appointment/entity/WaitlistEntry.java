@@ -0,0 +1,78 @@
+package com.nayoung.telemed.appointment.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.enums.WaitlistStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A patient waiting for a slot with one doctor, or with any doctor of a specialization, between two dates.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "waitlist_entries",
+        indexes = {
+                // index reloads read the WAITING entries, the expiry sweep the lapsed offers
+                @Index(name = "idx_waitlist_status_to_date", columnList = "status, to_date"),
+                @Index(name = "idx_waitlist_status_offer_expires", columnList = "status, offer_expires_at"),
+                @Index(name = "idx_waitlist_patient_status", columnList = "patient_id, status")
+        })
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    // either a doctor or a specialization is set
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+
+    @Enumerated(EnumType.STRING)
+    private Specialization specialization;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    private String purposeOfConsultation;
+
+    private String initialSymptoms;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private WaitlistStatus status;
+
+    // the slot on offer while OFFERED
+    @Column(name = "offered_doctor_id")
+    private Long offeredDoctorId;
+
+    private LocalDateTime offeredStartTime;
+
+    @Column(name = "offer_expires_at")
+    private LocalDateTime offerExpiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,32 @@
+package com.nayoung.telemed.appointment.mapper;
+
+import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.doctor.mapper.DoctorMapper;
+import com.nayoung.telemed.patient.mapper.PatientMapper;
+
+// maps doctor and patient (with their users), never the consultation
+public final class AppointmentMapper {
+
+    private AppointmentMapper() {
+    }
+
+    public static AppointmentDTO toDTO(Appointment appointment) {
+        if (appointment == null) {
+            return null;
+        }
+        return AppointmentDTO.builder()
+                .id(appointment.getId())
+                .doctorId(appointment.getDoctor() == null ? null : appointment.getDoctor().getId()) // id of a proxy, no load
+                .purposeOfConsultation(appointment.getPurposeOfConsultation())
+                .initialSymptoms(appointment.getInitialSymptoms())
+                .startTime(appointment.getStartTime())
+                .endTime(appointment.getEndTime())
+                .meetingLink(appointment.getMeetingLink())
+                .status(appointment.getStatus())
+                .seriesId(appointment.getSeriesId())
+                .doctor(DoctorMapper.toDTO(appointment.getDoctor()))
+                .patient(PatientMapper.toDTO(appointment.getPatient()))
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.nayoung.telemed.appointment.mapper;
+
+import com.nayoung.telemed.appointment.dto.WaitlistEntryDTO;
+import com.nayoung.telemed.appointment.entity.WaitlistEntry;
+
+public final class WaitlistMapper {
+
+    private WaitlistMapper() {
+    }
+
+    public static WaitlistEntryDTO toDTO(WaitlistEntry entry) {
+        if (entry == null) {
+            return null;
+        }
+        return WaitlistEntryDTO.builder()
+                .id(entry.getId())
+                .doctorId(entry.getDoctor() == null ? null : entry.getDoctor().getId()) // id of a proxy, no load
+                .specialization(entry.getSpecialization())
+                .fromDate(entry.getFromDate())
+                .toDate(entry.getToDate())
+                .purposeOfConsultation(entry.getPurposeOfConsultation())
+                .initialSymptoms(entry.getInitialSymptoms())
+                .status(entry.getStatus())
+                .offeredDoctorId(entry.getOfferedDoctorId())
+                .offeredStartTime(entry.getOfferedStartTime())
+                .offerExpiresAt(entry.getOfferExpiresAt())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
@@ -1,20 +1,74 @@
 package com.nayoung.telemed.appointment.repo;
 
 import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AppointmentRepo extends JpaRepository<Appointment, Long> {
 
-    // fetch appointment(s) of the doctor
-    List<Appointment> findByDoctor_User_IdOrderByIdDesc(Long userId);
+    // cancellation and completion check ownership against both users, notify them and bump their schedule versions
+    @EntityGraph(attributePaths = {"doctor.user", "patient.user"})
+    Optional<Appointment> findWithParticipantsById(Long id);
 
-    // fetch appointment(s) of the patient
-    List<Appointment> findByPatient_User_IdOrderByIdDesc(Long userId);
+    // who may read the consultation notes of an appointment, without loading it
+    @Query("SELECT d.user.id AS doctorUserId, p.user.id AS patientUserId " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p WHERE a.id = :id")
+    Optional<Participants> findParticipantsById(@Param("id") Long id);
+
+    // a doctor reads the history of patients they have seen
+    boolean existsByDoctorIdAndPatientId(Long doctorId, Long patientId);
+
+    // keyset page of the doctor's appointments, newest first. associations are fetched in the same query
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.doctor d JOIN FETCH d.user " +
+            "JOIN FETCH a.patient p JOIN FETCH p.user " +
+            "WHERE d.user.id = :userId " +
+            "AND (:cursor IS NULL OR a.id < :cursor) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:from IS NULL OR a.startTime >= :from) " +
+            "AND (:to IS NULL OR a.startTime < :to) " +
+            "ORDER BY a.id DESC")
+    List<Appointment> findDoctorAppointmentsPage(
+            @Param("userId") Long userId,
+            @Param("cursor") Long cursor,
+            @Param("status") AppointmentStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
+    // keyset page of the patient's appointments, newest first
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.doctor d JOIN FETCH d.user " +
+            "JOIN FETCH a.patient p JOIN FETCH p.user " +
+            "WHERE p.user.id = :userId " +
+            "AND (:cursor IS NULL OR a.id < :cursor) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:from IS NULL OR a.startTime >= :from) " +
+            "AND (:to IS NULL OR a.startTime < :to) " +
+            "ORDER BY a.id DESC")
+    List<Appointment> findPatientAppointmentsPage(
+            @Param("userId") Long userId,
+            @Param("cursor") Long cursor,
+            @Param("status") AppointmentStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
 
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.doctor.id = :doctorId " +
@@ -28,4 +82,127 @@ public interface AppointmentRepo extends JpaRepository<Appointment, Long> {
             @Param("newStartTime")LocalDateTime newStartTime,
             @Param("newEndTime") LocalDateTime newEndTime
     );
+
+    // same check as findConflictingAppointments without materializing entities
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId " +
+            "AND a.status = 'SCHEDULED' " +
+            "AND a.startTime < :newEndTime AND a.endTime > :newStartTime")
+    boolean existsConflictingAppointment(
+            @Param("doctorId") Long doctorId,
+            @Param("newStartTime") LocalDateTime newStartTime,
+            @Param("newEndTime") LocalDateTime newEndTime
+    );
+
+    // scheduled appointments overlapping [from, to), one range scan for a whole booking series or one day of the
+    // in-memory schedule index
+    @Query("SELECT a.id AS id, a.startTime AS startTime, a.endTime AS endTime FROM Appointment a " +
+            "WHERE a.doctor.id = :doctorId " +
+            "AND a.status = 'SCHEDULED' " +
+            "AND a.startTime < :to AND a.endTime > :from")
+    List<AppointmentSlot> findScheduledSlotsBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    List<Appointment> findBySeriesIdOrderByStartTime(String seriesId);
+
+    // SCHEDULED appointments that started before the cutoff, oldest first, for the no-show sweeper
+    @Query("SELECT a.id AS id, a.doctor.id AS doctorId, a.doctor.specialization AS specialization, a.startTime AS startTime, " +
+            "a.doctor.user.id AS doctorUserId, a.patient.user.id AS patientUserId " +
+            "FROM Appointment a " +
+            "WHERE a.status = 'SCHEDULED' " +
+            "AND a.startTime < :cutoff " +
+            "ORDER BY a.startTime")
+    List<PastDueAppointment> findPastDue(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // row locks until commit: the ids returned are exactly the ones a status update in the same transaction changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.id FROM Appointment a WHERE a.id IN :ids AND a.status = :status")
+    List<Long> lockIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") AppointmentStatus status);
+
+    // finished appointments that started before the cutoff, for the archiver
+    @Query("SELECT a.id FROM Appointment a " +
+            "WHERE a.status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW') " +
+            "AND a.startTime < :cutoff " +
+            "ORDER BY a.startTime")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // only one of two concurrent transitions out of the same status sees 1
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = :to WHERE a.id = :id AND a.status = :from")
+    int updateStatus(
+            @Param("id") Long id,
+            @Param("from") AppointmentStatus from,
+            @Param("to") AppointmentStatus to
+    );
+
+    // conditional like updateStatus, so a completion racing the no-show sweep only succeeds if it wins
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = 'COMPLETED', a.endTime = :endTime WHERE a.id = :id AND a.status = 'SCHEDULED'")
+    int markCompleted(@Param("id") Long id, @Param("endTime") LocalDateTime endTime);
+
+    // re-checks the status, an appointment completed since the id scan is left alone
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = :to WHERE a.id IN :ids AND a.status = :from")
+    int updateStatusByIdIn(
+            @Param("ids") List<Long> ids,
+            @Param("from") AppointmentStatus from,
+            @Param("to") AppointmentStatus to
+    );
+
+    // next window of the reminder scheduler
+    @Query("SELECT a.id AS id, a.startTime AS startTime, a.remindersSent AS remindersSent FROM Appointment a " +
+            "WHERE a.status = 'SCHEDULED' " +
+            "AND a.startTime >= :from AND a.startTime < :to")
+    List<ReminderCandidate> findReminderCandidates(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @EntityGraph(attributePaths = {"doctor.user", "patient.user"})
+    List<Appointment> findWithParticipantsByIdIn(Collection<Long> ids);
+
+    // loads the availability index of a whole specialization in one range scan
+    @Query("SELECT a.id AS id, a.doctor.id AS doctorId, a.startTime AS startTime, a.endTime AS endTime " +
+            "FROM Appointment a " +
+            "WHERE a.doctor.specialization = :specialization " +
+            "AND a.status = 'SCHEDULED' " +
+            "AND a.startTime > :from AND a.startTime < :to")
+    List<DoctorAppointmentSlot> findScheduledSlotsBySpecialization(
+            @Param("specialization") Specialization specialization,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    interface AppointmentSlot {
+        Long getId();
+        LocalDateTime getStartTime();
+        LocalDateTime getEndTime();
+    }
+
+    interface ReminderCandidate {
+        Long getId();
+        LocalDateTime getStartTime();
+        int getRemindersSent();
+    }
+
+    interface DoctorAppointmentSlot extends AppointmentSlot {
+        Long getDoctorId();
+    }
+
+    interface Participants {
+        Long getDoctorUserId();
+        Long getPatientUserId();
+    }
+
+    interface PastDueAppointment {
+        Long getId();
+        Long getDoctorId();
+        Specialization getSpecialization();
+        LocalDateTime getStartTime();
+        Long getDoctorUserId();
+        Long getPatientUserId();
+    }
 }
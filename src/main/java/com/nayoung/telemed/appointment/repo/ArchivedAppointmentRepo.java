@@ -0,0 +1,58 @@
+package com.nayoung.telemed.appointment.repo;
+
+import com.nayoung.telemed.appointment.entity.ArchivedAppointment;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// same keyset pages as AppointmentRepo, merged with them by AppointmentServiceImpl
+public interface ArchivedAppointmentRepo extends JpaRepository<ArchivedAppointment, Long> {
+
+    @Query("SELECT d.user.id AS doctorUserId, p.user.id AS patientUserId " +
+            "FROM ArchivedAppointment a JOIN a.doctor d JOIN a.patient p WHERE a.id = :id")
+    Optional<AppointmentRepo.Participants> findParticipantsById(@Param("id") Long id);
+
+    boolean existsByDoctorIdAndPatientId(Long doctorId, Long patientId);
+
+    @Query("SELECT a FROM ArchivedAppointment a " +
+            "JOIN FETCH a.doctor d JOIN FETCH d.user " +
+            "JOIN FETCH a.patient p JOIN FETCH p.user " +
+            "WHERE d.user.id = :userId " +
+            "AND (:cursor IS NULL OR a.id < :cursor) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:from IS NULL OR a.startTime >= :from) " +
+            "AND (:to IS NULL OR a.startTime < :to) " +
+            "ORDER BY a.id DESC")
+    List<ArchivedAppointment> findDoctorAppointmentsPage(
+            @Param("userId") Long userId,
+            @Param("cursor") Long cursor,
+            @Param("status") AppointmentStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
+    @Query("SELECT a FROM ArchivedAppointment a " +
+            "JOIN FETCH a.doctor d JOIN FETCH d.user " +
+            "JOIN FETCH a.patient p JOIN FETCH p.user " +
+            "WHERE p.user.id = :userId " +
+            "AND (:cursor IS NULL OR a.id < :cursor) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:from IS NULL OR a.startTime >= :from) " +
+            "AND (:to IS NULL OR a.startTime < :to) " +
+            "ORDER BY a.id DESC")
+    List<ArchivedAppointment> findPatientAppointmentsPage(
+            @Param("userId") Long userId,
+            @Param("cursor") Long cursor,
+            @Param("status") AppointmentStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,91 @@
+package com.nayoung.telemed.appointment.repo;
+
+import com.nayoung.telemed.appointment.entity.WaitlistEntry;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.enums.WaitlistStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepo extends JpaRepository<WaitlistEntry, Long> {
+
+    @Query("SELECT w.id AS id, w.doctor.id AS doctorId, w.specialization AS specialization, " +
+            "w.fromDate AS fromDate, w.toDate AS toDate " +
+            "FROM WaitlistEntry w " +
+            "WHERE w.status = 'WAITING' AND w.toDate >= :today")
+    List<WaitingCandidate> findWaitingCandidates(@Param("today") LocalDate today);
+
+    @Query("SELECT w.id AS id, w.offeredDoctorId AS doctorId, d.specialization AS specialization, " +
+            "w.offeredStartTime AS startTime " +
+            "FROM WaitlistEntry w JOIN Doctor d ON d.id = w.offeredDoctorId " +
+            "WHERE w.status = 'OFFERED' AND w.offerExpiresAt <= :now")
+    List<LapsedOffer> findLapsedOffers(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = "patient.user")
+    Optional<WaitlistEntry> findWithPatientById(Long id);
+
+    @EntityGraph(attributePaths = "patient")
+    List<WaitlistEntry> findByPatientIdAndStatusInOrderByIdDesc(Long patientId, Collection<WaitlistStatus> statuses);
+
+    long countByPatientIdAndStatusIn(Long patientId, Collection<WaitlistStatus> statuses);
+
+    // only a WAITING entry can be offered, so of two nodes matching the same entry one wins
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = 'OFFERED', w.offeredDoctorId = :doctorId, " +
+            "w.offeredStartTime = :startTime, w.offerExpiresAt = :expiresAt " +
+            "WHERE w.id = :id AND w.status = 'WAITING'")
+    int offer(
+            @Param("id") Long id,
+            @Param("doctorId") Long doctorId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = 'BOOKED' " +
+            "WHERE w.id = :id AND w.status = 'OFFERED' AND w.offerExpiresAt > :now")
+    int acceptOffer(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED' " +
+            "WHERE w.id = :id AND w.status = 'OFFERED' AND w.offerExpiresAt <= :now")
+    int expireOffer(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = :to WHERE w.id = :id AND w.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") WaitlistStatus from, @Param("to") WaitlistStatus to);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED' WHERE w.status = 'WAITING' AND w.toDate < :today")
+    int expireWaitingBefore(@Param("today") LocalDate today);
+
+    interface WaitingCandidate {
+        Long getId();
+        Long getDoctorId();
+        Specialization getSpecialization();
+        LocalDate getFromDate();
+        LocalDate getToDate();
+    }
+
+    interface LapsedOffer {
+        Long getId();
+        Long getDoctorId();
+        Specialization getSpecialization();
+        LocalDateTime getStartTime();
+    }
+}
@@ -0,0 +1,100 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves finished appointments older than appointment.archive.horizon-days, with their consultation notes, to the
+ * appointments_archive and consultations_archive tables. The appointments table then holds recent and upcoming
+ * appointments only, which keeps the conflict checks and listings working on a small, cached index.
+ * Each chunk is copied and deleted in one short transaction; reads that need history merge both tables.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AppointmentArchiver {
+
+    private static final String ARCHIVE_APPOINTMENTS =
+            "INSERT INTO appointments_archive (id, start_time, end_time, meeting_link, purpose_of_consultation, " +
+                    "initial_symptoms, status, series_id, doctor_id, patient_id, archived_at) " +
+                    "SELECT id, start_time, end_time, meeting_link, purpose_of_consultation, " +
+                    "initial_symptoms, status, series_id, doctor_id, patient_id, :archivedAt " +
+                    "FROM appointments WHERE id IN (:ids) AND status <> 'SCHEDULED'";
+
+    private static final String ARCHIVE_CONSULTATIONS =
+            "INSERT INTO consultations_archive (id, consultation_date, subjective_notes, objective_findings, " +
+                    "assessment, assessment_snippet, plan, note_format, appointment_id) " +
+                    "SELECT id, consultation_date, subjective_notes, objective_findings, assessment, assessment_snippet, " +
+                    "plan, note_format, appointment_id " +
+                    "FROM consultations WHERE appointment_id IN (:ids)";
+
+    private final AppointmentRepo appointmentRepo;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointment.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointment.archive.horizon-days:365}")
+    private long horizonDays;
+
+    @Value("${appointment.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${appointment.archive.max-chunks:200}")
+    private int maxChunksPerRun;
+
+    @Scheduled(cron = "${appointment.archive.cron:0 0 4 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(horizonDays);
+        int archived = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = appointmentRepo.findArchivableIds(cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            archived += archiveChunk(ids);
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} appointments that started before {}", archived, cutoff);
+        }
+    }
+
+    private int archiveChunk(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+
+        Integer moved = transactionTemplate.execute(status -> {
+            // children after their parents on insert, before them on delete
+            int appointments = namedParameterJdbcTemplate.update(ARCHIVE_APPOINTMENTS, params);
+            namedParameterJdbcTemplate.update(ARCHIVE_CONSULTATIONS, params);
+            namedParameterJdbcTemplate.update("DELETE FROM consultations WHERE appointment_id IN (:ids)", params);
+            namedParameterJdbcTemplate.update("DELETE FROM appointments WHERE id IN (:ids) AND status <> 'SCHEDULED'", params);
+            return appointments;
+        });
+        return moved == null ? 0 : moved;
+    }
+}
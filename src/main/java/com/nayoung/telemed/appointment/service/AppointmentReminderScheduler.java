@@ -0,0 +1,251 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.notification.dto.NotificationDTO;
+import com.nayoung.telemed.notification.service.NotificationOutbox;
+import com.nayoung.telemed.users.entity.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends reminders ahead of SCHEDULED appointments (24h and 1h by default).
+ * Appointments are loaded in rolling windows by start time and their reminders kept in a timing wheel, so
+ * firing costs nothing per pending reminder. Bookings and cancellations on this node update the wheel directly;
+ * each reminder is claimed with a conditional update, so another node or a cancellation made elsewhere never
+ * leads to a duplicate or stale email. The emails are written to the notification outbox in the claim's
+ * transaction: a claimed reminder is never lost to a crash before it is sent, and a batch whose transaction
+ * fails goes back into the wheel to be tried again.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AppointmentReminderScheduler {
+
+    private static final int WHEEL_LEVELS = 4;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMM dd, yyyy 'at' hh:mm a");
+
+    private final AppointmentRepo appointmentRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointment.reminder.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointment.reminder.offsets-minutes:1440,60}")
+    private int[] offsetsMinutes;
+
+    @Value("${appointment.reminder.window-minutes:360}")
+    private long windowMinutes;
+
+    @Value("${appointment.reminder.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${appointment.reminder.batch-size:200}")
+    private int batchSize;
+
+    @Value("${appointment.reminder.retry-ms:30000}")
+    private long retryMillis;
+
+    private final ConcurrentHashMap<Long, TimingWheel.Entry<Reminder>[]> entriesByAppointment = new ConcurrentHashMap<>();
+
+    private TimingWheel<Reminder> wheel;
+    private volatile LocalDateTime loadedUntil;
+
+    @PostConstruct
+    private void init() {
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_LEVELS, System.currentTimeMillis());
+        this.loadedUntil = LocalDateTime.now();
+    }
+
+    // appointments starting before loadedUntil are in the wheel already, later ones are picked up by the next load
+    public void schedule(Appointment appointment) {
+        if (enabled && appointment.getStartTime().isBefore(loadedUntil)) {
+            scheduleReminders(appointment.getId(), appointment.getStartTime(), appointment.getRemindersSent());
+        }
+    }
+
+    public void cancel(Long appointmentId) {
+        TimingWheel.Entry<Reminder>[] entries = entriesByAppointment.remove(appointmentId);
+        if (entries != null) {
+            Arrays.stream(entries).filter(Objects::nonNull).forEach(wheel::cancel);
+        }
+    }
+
+    public int pendingReminders() {
+        return wheel.size();
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.reminder.load-interval-ms:300000}")
+    public void loadNextWindow() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = loadedUntil.isAfter(now) ? loadedUntil : now;
+        LocalDateTime until = now.plusMinutes(Arrays.stream(offsetsMinutes).max().orElse(0) + windowMinutes);
+        if (!until.isAfter(from)) {
+            return;
+        }
+
+        // moved forward before the scan: a booking committed meanwhile is scheduled by its own node, duplicates are ignored
+        loadedUntil = until;
+
+        List<AppointmentRepo.ReminderCandidate> candidates = appointmentRepo.findReminderCandidates(from, until);
+        candidates.forEach(candidate ->
+                scheduleReminders(candidate.getId(), candidate.getStartTime(), candidate.getRemindersSent()));
+
+        log.debug("Loaded {} appointments starting before {} for reminders, {} reminders pending",
+                candidates.size(), until, wheel.size());
+    }
+
+    @Scheduled(fixedRateString = "${appointment.reminder.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<Reminder> due = wheel.advanceTo(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            dispatch(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+    }
+
+    private void scheduleReminders(Long appointmentId, LocalDateTime startTime, int remindersSent) {
+        long now = System.currentTimeMillis();
+        long startMillis = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        entriesByAppointment.computeIfAbsent(appointmentId, id -> {
+            @SuppressWarnings("unchecked")
+            TimingWheel.Entry<Reminder>[] entries = new TimingWheel.Entry[offsetsMinutes.length];
+            boolean any = false;
+
+            for (int i = 0; i < offsetsMinutes.length; i++) {
+                long fireAt = startMillis - offsetsMinutes[i] * 60_000L;
+                if ((remindersSent & (1 << i)) != 0 || fireAt <= now || fireAt - now > wheel.capacityMillis()) {
+                    continue;
+                }
+                entries[i] = wheel.schedule(fireAt, new Reminder(id, i));
+                any |= entries[i] != null;
+            }
+            return any ? entries : null;
+        });
+    }
+
+    // returns the number of reminders claimed; the fired entries stay in the cancellation map until their batch commits
+    int dispatch(List<Reminder> reminders) {
+        int queued;
+        try {
+            queued = transactionTemplate.execute(status -> claimAndQueue(reminders));
+        } catch (RuntimeException e) {
+            log.error("Failed to dispatch {} appointment reminders, retrying in {} ms", reminders.size(), retryMillis, e);
+            reminders.forEach(reminder -> release(reminder, true));
+            return 0;
+        }
+        reminders.forEach(reminder -> release(reminder, false));
+        if (queued > 0) {
+            log.info("Queued {} appointment reminders", queued);
+        }
+        return queued;
+    }
+
+    // the claims commit with their outbox rows
+    private int claimAndQueue(List<Reminder> reminders) {
+
+        // claim first: only rows still SCHEDULED and not yet reminded for this offset are updated.
+        // plain arithmetic on the bit instead of | and &, which not every database has
+        List<Object[]> claims = reminders.stream()
+                .map(reminder -> new Object[]{1 << reminder.offsetIndex(), reminder.appointmentId(), 1 << reminder.offsetIndex()})
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE appointments SET reminders_sent = reminders_sent + ? " +
+                        "WHERE id = ? AND status = 'SCHEDULED' AND MOD(FLOOR(reminders_sent / ?), 2) = 0",
+                claims);
+
+        // an appointment can have several offsets due in one batch
+        Map<Long, List<Integer>> claimedOffsets = new HashMap<>();
+        int claimed = 0;
+        for (int i = 0; i < reminders.size(); i++) {
+            if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                claimedOffsets.computeIfAbsent(reminders.get(i).appointmentId(), id -> new ArrayList<>())
+                        .add(reminders.get(i).offsetIndex());
+                claimed++;
+            }
+        }
+        if (claimedOffsets.isEmpty()) {
+            return 0;
+        }
+
+        // one query for the whole batch, both users included
+        for (Appointment appointment : appointmentRepo.findWithParticipantsByIdIn(claimedOffsets.keySet())) {
+            User patientUser = appointment.getPatient().getUser();
+            User doctorUser = appointment.getDoctor().getUser();
+
+            for (int offsetIndex : claimedOffsets.get(appointment.getId())) {
+                int offsetMinutes = offsetsMinutes[offsetIndex];
+                notificationOutbox.enqueue(reminderEmail(appointment, offsetMinutes, patientUser, "Doctor", "Dr. " + doctorUser.getName()), patientUser);
+                notificationOutbox.enqueue(reminderEmail(appointment, offsetMinutes, doctorUser, "Patient", patientUser.getName()), doctorUser);
+            }
+        }
+        return claimed;
+    }
+
+    // the fired entry is gone from the wheel: schedule it again, or drop it from the cancellation map.
+    // an appointment cancelled meanwhile is no longer in the map and is not retried.
+    // retries go at least a tick out: the wheel drops anything due within the current tick
+    private void release(Reminder reminder, boolean retry) {
+        long retryAt = System.currentTimeMillis() + Math.max(retryMillis, tickMillis);
+        entriesByAppointment.computeIfPresent(reminder.appointmentId(), (id, entries) -> {
+            entries[reminder.offsetIndex()] = retry ? wheel.schedule(retryAt, reminder) : null;
+            return Arrays.stream(entries).allMatch(Objects::isNull) ? null : entries;
+        });
+    }
+
+    private NotificationDTO reminderEmail(Appointment appointment, int offsetMinutes, User recipient,
+                                          String counterpartLabel, String counterpartName) {
+        Map<String, Object> vars = new HashMap<>();
+
+        vars.put("recipientName", recipient.getName());
+        vars.put("counterpartLabel", counterpartLabel);
+        vars.put("counterpartName", counterpartName);
+        vars.put("appointmentTime", appointment.getStartTime().format(FORMATTER));
+        vars.put("timeUntil", describe(offsetMinutes));
+        vars.put("meetingLink", appointment.getMeetingLink());
+
+        return NotificationDTO.builder()
+                .recipient(recipient.getEmail())
+                .subject("CareBridge: Your Appointment Starts in " + describe(offsetMinutes))
+                .templateName("appointment-reminder")
+                .templateVariables(vars)
+                .build();
+    }
+
+    private static String describe(int minutes) {
+        if (minutes % 60 != 0) {
+            return minutes + " minutes";
+        }
+        int hours = minutes / 60;
+        return hours == 1 ? "1 hour" : hours + " hours";
+    }
+
+    record Reminder(Long appointmentId, int offsetIndex) {
+    }
+}
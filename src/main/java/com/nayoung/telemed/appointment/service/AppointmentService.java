@@ -1,13 +1,21 @@
 package com.nayoung.telemed.appointment.service;
 
 import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.dto.AppointmentSeriesDTO;
+import com.nayoung.telemed.appointment.dto.AvailableSlotDTO;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.res.CursorPage;
 import com.nayoung.telemed.res.Response;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface AppointmentService {
     Response<AppointmentDTO> bookAppointment(AppointmentDTO appointmentDTO);
-    Response<List<AppointmentDTO>> getMyAppointments();
+    Response<List<AppointmentDTO>> bookAppointmentSeries(AppointmentSeriesDTO seriesDTO);
+    Response<CursorPage<AppointmentDTO>> getMyAppointments(Long cursor, Integer size, AppointmentStatus status, LocalDate from, LocalDate to);
     Response<?> cancelAppointment(Long appointmentId);
     Response<?> completeAppointment(Long appointmentId);
+    Response<List<AvailableSlotDTO>> findAvailableSlots(Specialization specialization, LocalDate from, LocalDate to, int count);
 }
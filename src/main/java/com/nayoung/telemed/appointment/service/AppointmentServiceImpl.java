@@ -1,31 +1,49 @@
 package com.nayoung.telemed.appointment.service;
 
+import com.nayoung.telemed.analytics.service.AppointmentStatsRecorder;
 import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.dto.AppointmentSeriesDTO;
+import com.nayoung.telemed.appointment.dto.AvailableSlotDTO;
 import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.entity.ArchivedAppointment;
+import com.nayoung.telemed.appointment.mapper.AppointmentMapper;
 import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.repo.ArchivedAppointmentRepo;
+import com.nayoung.telemed.calendar.service.ScheduleVersions;
 import com.nayoung.telemed.doctor.entity.Doctor;
 import com.nayoung.telemed.doctor.repo.DoctorRepo;
 import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
 import com.nayoung.telemed.exceptions.BadRequestException;
 import com.nayoung.telemed.exceptions.NotFoundException;
 import com.nayoung.telemed.notification.dto.NotificationDTO;
-import com.nayoung.telemed.notification.service.NotificationService;
+import com.nayoung.telemed.notification.service.NotificationOutbox;
 import com.nayoung.telemed.patient.entity.Patient;
 import com.nayoung.telemed.patient.repo.PatientRepo;
+import com.nayoung.telemed.res.CursorPage;
 import com.nayoung.telemed.res.Response;
+import com.nayoung.telemed.role.service.RoleRegistry;
 import com.nayoung.telemed.users.entity.User;
 import com.nayoung.telemed.users.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -33,11 +51,45 @@ import java.util.UUID;
 public class AppointmentServiceImpl implements AppointmentService{
 
     private final AppointmentRepo appointmentRepo;
+    private final ArchivedAppointmentRepo archivedAppointmentRepo;
     private final PatientRepo patientRepo;
     private final DoctorRepo doctorRepo;
     private final UserService userService;
-    private final NotificationService notificationService;
-    private final ModelMapper modelMapper;
+    private final NotificationOutbox notificationOutbox;
+    private final RoleRegistry roleRegistry;
+    private final DoctorScheduleIndex doctorScheduleIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final AppointmentReminderScheduler reminderScheduler;
+    private final WaitlistMatcher waitlistMatcher;
+    private final AppointmentStatsRecorder statsRecorder;
+    private final ScheduleVersions scheduleVersions;
+    private final BookingLocks bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${appointment.series.max-occurrences:26}")
+    private int maxSeriesOccurrences;
+
+    @Value("${appointment.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${appointment.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${appointment.availability.slot-step-minutes:30}")
+    private int slotStepMinutes;
+
+    @Value("${appointment.availability.day-start:08:00}")
+    private LocalTime dayStart;
+
+    @Value("${appointment.availability.day-end:18:00}")
+    private LocalTime dayEnd;
+
+    @Value("${appointment.availability.max-count:50}")
+    private int maxCount;
+
+    @Value("${appointment.archive.horizon-days:365}")
+    private long archiveHorizonDays;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMM dd, yyyy 'at' hh:mm a");
 
@@ -50,7 +102,7 @@ public class AppointmentServiceImpl implements AppointmentService{
                 .orElseThrow(() -> new NotFoundException("Patient profile required for booking"));
 
         // 2. get the target doctor
-        Doctor doctor = doctorRepo.findById(appointmentDTO.getDoctorId())
+        Doctor doctor = doctorRepo.findWithUserById(appointmentDTO.getDoctorId())
                 .orElseThrow(() -> new NotFoundException("Doctor not found"));
 
         // VALIDATION LOGIC
@@ -67,25 +119,18 @@ public class AppointmentServiceImpl implements AppointmentService{
         LocalDateTime checkStart = startTime.minusMinutes(60);
 
         // check for existing appointments whose END TIME overlaps with the proposed start time
-        // or whose start time overlaps with the proposed end time
-        List<Appointment> conflicts = appointmentRepo.findConflictingAppointments(
-                doctor.getId(),
-                checkStart,
-                endTime
-        );
-
-        if (!conflicts.isEmpty()) {
-            throw new BadRequestException("Doctor is not available at the requested time. Please check their schedule.");
+        // or whose start time overlaps with the proposed end time.
+        // fast path: a slot the in-memory index knows is taken is rejected without the doctor's lock or a transaction,
+        // once one query confirms it was not cancelled on another node
+        if (doctorScheduleIndex.hasConflict(doctor.getId(), checkStart, endTime)) {
+            if (appointmentRepo.existsConflictingAppointment(doctor.getId(), checkStart, endTime)) {
+                throw new BadRequestException("Doctor is not available at the requested time. Please check their schedule.");
+            }
+            doctorScheduleIndex.invalidate(doctor.getId());
         }
 
-        // 4a. generate a unique, random string for the room name
-        String uuid = UUID.randomUUID().toString().replace("-", "");
-        String uniqueRoomName = "carebridge-" + uuid.substring(0, 10);
-
-        // 4b. use the public Jitsi Meet domain with unique room name
-        String meetingLink = "https://meet.jit.si/" + uniqueRoomName;
-
-        log.info("Generated Jitsi meeting link: {}", meetingLink);
+        // 4. generate a unique Jitsi meeting link
+        String meetingLink = generateMeetingLink();
 
         // 5, build and save appointment
         Appointment appointment = Appointment.builder()
@@ -99,50 +144,181 @@ public class AppointmentServiceImpl implements AppointmentService{
                 .patient(patient)
                 .build();
 
-        Appointment savedAppointment = appointmentRepo.save(appointment);
-
-        sendAppointmentConfirmation(savedAppointment);
+        // 6. re-check and save while holding the doctor's lock, so two concurrent bookings can't both pass the check.
+        // only bookings for the same doctor wait on each other
+        Appointment savedAppointment = bookingLocks.withDoctorLock(doctor.getId(), () -> {
+            Appointment saved = transactionTemplate.execute(status -> {
+                doctorRepo.findWithLockById(doctor.getId()); // row lock until commit, guards against other nodes
+
+                // the index misses other nodes' bookings, so the database decides every booking it let through
+                if (appointmentRepo.existsConflictingAppointment(doctor.getId(), checkStart, endTime)) {
+                    doctorScheduleIndex.invalidate(doctor.getId()); // booked on another node, index is stale
+                    throw new BadRequestException("Doctor is not available at the requested time. Please check their schedule.");
+                }
+                Appointment booked = appointmentRepo.save(appointment);
+                sendAppointmentConfirmation(booked); // outbox rows commit together with the appointment
+                return booked;
+            });
+            doctorScheduleIndex.add(saved);
+            availabilityIndex.add(saved);
+            statsRecorder.recordBooked(saved);
+            reminderScheduler.schedule(saved);
+            return saved;
+        });
+        scheduleVersions.bump(doctor.getUser().getId(), user.getId());
 
         return success("Appointment booked successfully", null);
     }
 
     @Override
-    public Response<List<AppointmentDTO>> getMyAppointments() {
+    public Response<List<AppointmentDTO>> bookAppointmentSeries(AppointmentSeriesDTO seriesDTO) {
+        User user = userService.getCurrentUser();
+
+        Patient patient = patientRepo.findByUser(user)
+                .orElseThrow(() -> new NotFoundException("Patient profile required for booking"));
+
+        Doctor doctor = doctorRepo.findWithUserById(seriesDTO.getDoctorId())
+                .orElseThrow(() -> new NotFoundException("Doctor not found"));
+
+        List<LocalDateTime> startTimes = seriesStartTimes(seriesDTO);
+
+        if (startTimes.getFirst().isBefore(LocalDateTime.now().plusHours(1))) {
+            throw new BadRequestException("Appointments must be booked at least 1 hour in advance");
+        }
+
+        // same one-hour break rule and fast path as bookAppointment
+        LocalDateTime indexedConflict = startTimes.stream()
+                .filter(startTime -> doctorScheduleIndex.hasConflict(doctor.getId(), startTime.minusMinutes(60), startTime.plusMinutes(60)))
+                .findFirst()
+                .orElse(null);
+        if (indexedConflict != null) {
+            if (appointmentRepo.existsConflictingAppointment(doctor.getId(), indexedConflict.minusMinutes(60), indexedConflict.plusMinutes(60))) {
+                throw seriesConflict(indexedConflict);
+            }
+            doctorScheduleIndex.invalidate(doctor.getId());
+        }
+
+        String seriesId = UUID.randomUUID().toString();
+        String meetingLink = generateMeetingLink(); // one room for the whole series
+
+        List<Appointment> savedAppointments = bookingLocks.withDoctorLock(doctor.getId(), () -> {
+            List<Appointment> saved = transactionTemplate.execute(status -> {
+                doctorRepo.findWithLockById(doctor.getId());
+
+                // one range scan over the whole series, each occurrence is then checked in memory
+                DoctorSchedule booked = new DoctorSchedule(System.currentTimeMillis());
+                appointmentRepo.findScheduledSlotsBetween(doctor.getId(),
+                                startTimes.getFirst().minusMinutes(60), startTimes.getLast().plusMinutes(60))
+                        .forEach(slot -> booked.add(slot.getId(), slot.getStartTime(), slot.getEndTime()));
+
+                LocalDateTime conflictingStart = startTimes.stream()
+                        .filter(startTime -> booked.hasConflict(startTime.minusMinutes(60), startTime.plusMinutes(60)))
+                        .findFirst()
+                        .orElse(null);
+                if (conflictingStart != null) {
+                    doctorScheduleIndex.invalidate(doctor.getId()); // booked on another node, index is stale
+                    throw seriesConflict(conflictingStart);
+                }
+
+                insertSeries(seriesId, seriesDTO, startTimes, meetingLink, doctor, patient);
+                List<Appointment> series = appointmentRepo.findBySeriesIdOrderByStartTime(seriesId);
+                sendSeriesConfirmation(series);
+                return series;
+            });
+            saved.forEach(appointment -> {
+                doctorScheduleIndex.add(appointment);
+                availabilityIndex.add(appointment);
+                statsRecorder.recordBooked(appointment);
+                reminderScheduler.schedule(appointment);
+            });
+            return saved;
+        });
+        scheduleVersions.bump(doctor.getUser().getId(), user.getId());
+
+        List<AppointmentDTO> appointmentDTOList = savedAppointments.stream()
+                .map(AppointmentMapper::toDTO)
+                .toList();
+
+        return success("Appointment series booked successfully", appointmentDTOList);
+    }
+
+    @Override
+    public Response<CursorPage<AppointmentDTO>> getMyAppointments(Long cursor, Integer size, AppointmentStatus status,
+                                                                  LocalDate from, LocalDate to) {
 
         User user = userService.getCurrentUser();
         Long userId = user.getId();
+
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        LocalDateTime fromTime = from == null ? null : from.atStartOfDay();
+        LocalDateTime toTime = to == null ? null : to.plusDays(1).atStartOfDay();
+
+        // one extra row tells whether another page follows, without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
         List<Appointment> appointments;
 
         // 1. Check if the user is doctor or patient
-        boolean isDoctor = user.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("DOCTOR"));
+        boolean isDoctor = roleRegistry.hasRole(user, RoleRegistry.DOCTOR);
 
         if (isDoctor) {
             // Check for doctor profile existence (required to throw the correct exception)
-            doctorRepo.findByUser(user)
-                    .orElseThrow(() -> new NotFoundException("Doctor profile not found"));
-            // Fetch appointments of the doctor efficiently
-            appointments = appointmentRepo.findByDoctor_User_IdOrderByIdDesc(userId);
+            if (!doctorRepo.existsByUser(user)) {
+                throw new NotFoundException("Doctor profile not found");
+            }
+            appointments = appointmentRepo.findDoctorAppointmentsPage(userId, cursor, status, fromTime, toTime, limit);
         } else {
             // Check for patient profile existence
-            patientRepo.findByUser(user)
-                    .orElseThrow(() -> new NotFoundException("Patient profile not found"));
-            // Fetch appointments using the User ID to navigate patient relationship
-            appointments = appointmentRepo.findByPatient_User_IdOrderByIdDesc(userId);
+            if (!patientRepo.existsByUser(user)) {
+                throw new NotFoundException("Patient profile not found");
+            }
+            appointments = appointmentRepo.findPatientAppointmentsPage(userId, cursor, status, fromTime, toTime, limit);
+        }
+
+        // archived appointments are finished and older than the horizon, skip the archive when none can match
+        boolean archiveMayMatch = status != AppointmentStatus.SCHEDULED
+                && (fromTime == null || fromTime.isBefore(LocalDateTime.now().minusDays(archiveHorizonDays)));
+        if (archiveMayMatch) {
+            List<ArchivedAppointment> archived = isDoctor
+                    ? archivedAppointmentRepo.findDoctorAppointmentsPage(userId, cursor, status, fromTime, toTime, limit)
+                    : archivedAppointmentRepo.findPatientAppointmentsPage(userId, cursor, status, fromTime, toTime, limit);
+            if (!archived.isEmpty()) {
+                // both pages are newest first by id, the merged page keeps the same cursor semantics
+                appointments = Stream.concat(appointments.stream(), archived.stream().map(ArchivedAppointment::toAppointment))
+                        .sorted(Comparator.comparing(Appointment::getId).reversed())
+                        .limit(pageSize + 1)
+                        .toList();
+            }
         }
 
-        // 2. Convert the list of entities to DTOs in a single step
+        boolean hasNext = appointments.size() > pageSize;
+        if (hasNext) {
+            appointments = appointments.subList(0, pageSize);
+        }
+
+        // 2. Convert the page of entities to DTOs, doctor, patient and their users are already loaded
         List<AppointmentDTO> appointmentDTOList = appointments.stream()
-                .map(appointment -> modelMapper.map(appointment, AppointmentDTO.class))
+                .map(AppointmentMapper::toDTO)
                 .toList();
 
-        return success("Appointments retrieved successfully.", appointmentDTOList);
+        CursorPage<AppointmentDTO> page = CursorPage.<AppointmentDTO>builder()
+                .content(appointmentDTOList)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? appointments.getLast().getId() : null)
+                .build();
+
+        return success("Appointments retrieved successfully.", page);
     }
 
     @Override
     public Response<?> cancelAppointment(Long appointmentId) {
         User user = userService.getCurrentUser();
-        Appointment appointment = appointmentRepo.findById(appointmentId)
+        Appointment appointment = appointmentRepo.findWithParticipantsById(appointmentId)
                 .orElseThrow(() -> new NotFoundException("Appointment not found."));
 
         // Add security check: only the patient or doctor involved can cancel
@@ -152,12 +328,23 @@ public class AppointmentServiceImpl implements AppointmentService{
             throw new BadRequestException("You do not have permission to cancel this appointment.");
         }
 
-        // Update appointment status
+        // Update appointment status and queue the notifications in one transaction. The update is conditional,
+        // so of two concurrent or repeated cancellations only one does the follow-up work below
+        transactionTemplate.executeWithoutResult(status -> {
+            if (appointmentRepo.updateStatus(appointmentId, AppointmentStatus.SCHEDULED, AppointmentStatus.CANCELLED) == 0) {
+                throw new BadRequestException("Only scheduled appointments can be cancelled.");
+            }
+            sendAppointmentCancellation(appointment, user);
+        });
         appointment.setStatus(AppointmentStatus.CANCELLED);
-        Appointment savedAppointment = appointmentRepo.save(appointment);
+        doctorScheduleIndex.remove(appointment);
+        availabilityIndex.remove(appointment);
+        statsRecorder.recordTransition(appointment, AppointmentStatus.SCHEDULED, AppointmentStatus.CANCELLED);
+        reminderScheduler.cancel(appointment.getId());
+        bumpScheduleVersions(appointment);
 
-        // Send notification to the other party (doctor/patient)
-        sendAppointmentCancellation(savedAppointment, user);
+        // the freed slot goes to the first matching patient on the waitlist
+        waitlistMatcher.slotFreed(appointment);
 
         return success("Appointment cancelled successfully.", null);
     }
@@ -169,7 +356,7 @@ public class AppointmentServiceImpl implements AppointmentService{
         User currentUser = userService.getCurrentUser();
 
         // 1. Fetch the appointment
-        Appointment appointment = appointmentRepo.findById(appointmentId)
+        Appointment appointment = appointmentRepo.findWithParticipantsById(appointmentId)
                 .orElseThrow(() -> new NotFoundException("Appointment not found with ID: " + appointmentId));
 
         // Security check 1: ensure the current user is the doctor assigned to this appointment
@@ -177,15 +364,167 @@ public class AppointmentServiceImpl implements AppointmentService{
             throw new BadRequestException("Only the assigned doctor can mark this appointment as completed");
         }
 
-        // 2. Update appointment status and end time
+        // 2. Update appointment status and end time, only if nothing else (a cancellation, the no-show sweep) moved it first
+        if (appointmentRepo.markCompleted(appointmentId, LocalDateTime.now()) == 0) {
+            throw new BadRequestException("Only scheduled appointments can be marked as completed");
+        }
         appointment.setStatus(AppointmentStatus.COMPLETED);
-        appointment.setEndTime(LocalDateTime.now());
 
-        appointmentRepo.save(appointment);
+        doctorScheduleIndex.remove(appointment);
+        availabilityIndex.remove(appointment);
+        reminderScheduler.cancel(appointment.getId());
+        statsRecorder.recordTransition(appointment, AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED);
+        bumpScheduleVersions(appointment);
 
         return success("Appointment successfully marked as completed. You may proceed to create the consultation notes.", null);
     }
 
+    @Override
+    public Response<List<AvailableSlotDTO>> findAvailableSlots(Specialization specialization, LocalDate from, LocalDate to, int count) {
+        if (count < 1 || count > maxCount) {
+            throw new BadRequestException("Count must be between 1 and " + maxCount);
+        }
+        if (to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        if (to.isAfter(LocalDate.now().plusDays(availabilityIndex.getHorizonDays()))) {
+            throw new BadRequestException("Availability can only be searched " + availabilityIndex.getHorizonDays() + " days ahead");
+        }
+
+        // same rule as bookAppointment: at least 1 hour in advance
+        LocalDateTime earliestStart = LocalDateTime.now().plusHours(1);
+        if (from.atStartOfDay().isAfter(earliestStart)) {
+            earliestStart = from.atStartOfDay();
+        }
+
+        List<AvailableSlotDTO> slots = availabilityIndex.findAvailableSlots(
+                specialization, earliestStart, to.plusDays(1).atStartOfDay(), dayStart, dayEnd, slotStepMinutes, count);
+
+        return success("Available slots retrieved successfully.", slots);
+    }
+
+    private List<LocalDateTime> seriesStartTimes(AppointmentSeriesDTO seriesDTO) {
+        if ((seriesDTO.getOccurrences() == null) == (seriesDTO.getEndDate() == null)) {
+            throw new BadRequestException("Provide either the number of occurrences or an end date for the series");
+        }
+
+        int intervalWeeks = seriesDTO.getFrequency().getIntervalWeeks();
+        List<LocalDateTime> startTimes = new ArrayList<>();
+
+        for (LocalDateTime startTime = seriesDTO.getStartTime(); ; startTime = startTime.plusWeeks(intervalWeeks)) {
+            boolean done = seriesDTO.getOccurrences() != null
+                    ? startTimes.size() >= seriesDTO.getOccurrences()
+                    : startTime.toLocalDate().isAfter(seriesDTO.getEndDate());
+            if (done) {
+                break;
+            }
+            if (startTimes.size() >= maxSeriesOccurrences) {
+                throw new BadRequestException("A series can contain at most " + maxSeriesOccurrences + " appointments");
+            }
+            startTimes.add(startTime);
+        }
+
+        if (startTimes.isEmpty()) {
+            throw new BadRequestException("End date must not be before the first appointment");
+        }
+        return startTimes;
+    }
+
+    private void bumpScheduleVersions(Appointment appointment) {
+        scheduleVersions.bump(appointment.getDoctor().getUser().getId(), appointment.getPatient().getUser().getId());
+    }
+
+    private BadRequestException seriesConflict(LocalDateTime startTime) {
+        return new BadRequestException("Doctor is not available on " + startTime.format(FORMATTER)
+                + ". Please check their schedule.");
+    }
+
+    // identity ids rule out Hibernate insert batching, so the series goes in as one JDBC batch
+    private void insertSeries(String seriesId, AppointmentSeriesDTO seriesDTO, List<LocalDateTime> startTimes,
+                              String meetingLink, Doctor doctor, Patient patient) {
+        List<Object[]> rows = new ArrayList<>(startTimes.size());
+        for (LocalDateTime startTime : startTimes) {
+            rows.add(new Object[]{
+                    startTime,
+                    startTime.plusMinutes(60),
+                    meetingLink,
+                    seriesDTO.getPurposeOfConsultation(),
+                    seriesDTO.getInitialSymptoms(),
+                    AppointmentStatus.SCHEDULED.name(),
+                    doctor.getId(),
+                    patient.getId(),
+                    seriesId
+            });
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO appointments (start_time, end_time, meeting_link, purpose_of_consultation, initial_symptoms, " +
+                        "status, doctor_id, patient_id, series_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    private String generateMeetingLink() {
+        // generate a unique, random string for the room name
+        String uuid = UUID.randomUUID().toString().replace("-", "");
+        String uniqueRoomName = "carebridge-" + uuid.substring(0, 10);
+
+        // use the public Jitsi Meet domain with unique room name
+        String meetingLink = "https://meet.jit.si/" + uniqueRoomName;
+
+        log.info("Generated Jitsi meeting link: {}", meetingLink);
+        return meetingLink;
+    }
+
+    // one email per party listing every appointment of the series
+    private void sendSeriesConfirmation(List<Appointment> appointments) {
+        Appointment first = appointments.getFirst();
+        User patientUser = first.getPatient().getUser();
+        User doctorUser = first.getDoctor().getUser();
+
+        List<String> appointmentTimes = appointments.stream()
+                .map(appointment -> appointment.getStartTime().format(FORMATTER))
+                .toList();
+
+        Map<String, Object> patientVars = new HashMap<>();
+
+        patientVars.put("patientName", patientUser.getName());
+        patientVars.put("doctorName", doctorUser.getName());
+        patientVars.put("appointmentTimes", appointmentTimes);
+        patientVars.put("isVirtual", true);
+        patientVars.put("meetingLink", first.getMeetingLink());
+        patientVars.put("purposeOfConsultation", first.getPurposeOfConsultation());
+
+        NotificationDTO patientNotification = NotificationDTO.builder()
+                .recipient(patientUser.getEmail())
+                .subject("CareBridge: Your Appointment Series is Confirmed")
+                .templateName("patient-appointment-series")
+                .templateVariables(patientVars)
+                .build();
+
+        notificationOutbox.enqueue(patientNotification, patientUser);
+        log.info("Queued series confirmation email for patient: {}", patientUser.getEmail());
+
+        Map<String, Object> doctorVars = new HashMap<>();
+
+        doctorVars.put("doctorName", doctorUser.getName());
+        doctorVars.put("patientFullName", patientUser.getName());
+        doctorVars.put("appointmentTimes", appointmentTimes);
+        doctorVars.put("isVirtual", true);
+        doctorVars.put("meetingLink", first.getMeetingLink());
+        doctorVars.put("initialSymptoms", first.getInitialSymptoms());
+        doctorVars.put("purposeOfConsultation", first.getPurposeOfConsultation());
+
+        NotificationDTO doctorNotification = NotificationDTO.builder()
+                .recipient(doctorUser.getEmail())
+                .subject("CareBridge: Your Appointment Series is Booked")
+                .templateName("doctor-appointment-series")
+                .templateVariables(doctorVars)
+                .build();
+
+        notificationOutbox.enqueue(doctorNotification, doctorUser);
+        log.info("Queued series confirmation email for doctor: {}", doctorUser.getEmail());
+    }
+
     private void sendAppointmentConfirmation(Appointment appointment) {
 
         // 1. prepare patient notification
@@ -208,9 +547,9 @@ public class AppointmentServiceImpl implements AppointmentService{
                 .templateVariables(patientVars)
                 .build();
 
-        // dispatch patient email using the low-level service
-        notificationService.sendEmail(patientNotification, patientUser);
-        log.info("Dispatched confirmation email for patient: {}", patientUser.getEmail());
+        // queue patient email in the outbox
+        notificationOutbox.enqueue(patientNotification, patientUser);
+        log.info("Queued confirmation email for patient: {}", patientUser.getEmail());
 
         // 2. prepare doctor notification
         User doctorUser = appointment.getDoctor().getUser();
@@ -232,9 +571,9 @@ public class AppointmentServiceImpl implements AppointmentService{
                 .templateVariables(doctorVars)
                 .build();
 
-        // dispatch doctor email using the low-level service
-        notificationService.sendEmail(doctorNotification, doctorUser);
-        log.info("Dispatched confirmation email for doctor: {}", doctorUser.getEmail());
+        // queue doctor email in the outbox
+        notificationOutbox.enqueue(doctorNotification, doctorUser);
+        log.info("Queued confirmation email for doctor: {}", doctorUser.getEmail());
     }
 
     private void sendAppointmentCancellation(Appointment appointment, User cancellingUser) {
@@ -259,7 +598,7 @@ public class AppointmentServiceImpl implements AppointmentService{
         baseVars.put("doctorName", appointment.getDoctor().getLastName());
         baseVars.put("patientFullName", patientUser.getName());
 
-        // 1. Dispatch email to patient
+        // 1. Queue email to patient
         Map<String, Object> patientVars = new HashMap<>(baseVars);
         patientVars.put("recipientName", patientUser.getName());
 
@@ -270,10 +609,10 @@ public class AppointmentServiceImpl implements AppointmentService{
                 .templateVariables(patientVars)
                 .build();
 
-        notificationService.sendEmail(patientNotification, patientUser);
-        log.info("Dispatched cancellation email to patient: {}", patientUser.getEmail());
+        notificationOutbox.enqueue(patientNotification, patientUser);
+        log.info("Queued cancellation email to patient: {}", patientUser.getEmail());
 
-        // 2. Dispatch email to doctor
+        // 2. Queue email to doctor
         Map<String, Object> doctorVars = new HashMap<>(baseVars);
         doctorVars.put("recipientName", doctorUser.getName());
 
@@ -284,9 +623,9 @@ public class AppointmentServiceImpl implements AppointmentService{
                 .templateVariables(doctorVars)
                 .build();
 
-        // dispatch doctor email using the low-level service
-        notificationService.sendEmail(doctorNotification, doctorUser);
-        log.info("Dispatched cancellation email to doctor: {}", doctorUser.getEmail());
+        // queue doctor email in the outbox
+        notificationOutbox.enqueue(doctorNotification, doctorUser);
+        log.info("Queued cancellation email to doctor: {}", doctorUser.getEmail());
     }
 
     private <T> Response<T> success(String message, T data) {
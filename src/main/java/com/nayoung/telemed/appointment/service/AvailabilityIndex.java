@@ -0,0 +1,253 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.appointment.dto.AvailableSlotDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.doctor.repo.DoctorRepo;
+import com.nayoung.telemed.enums.Specialization;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-doctor, per-day minute bitmaps of SCHEDULED appointments, grouped by specialization, for the
+ * "next free slots" search. A specialization is loaded with one query on first use and reloaded after a TTL;
+ * bookings, cancellations and completions on this node update it in place.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AvailabilityIndex {
+
+    private static final int SLOT_MINUTES = 60;
+    private static final int BUFFER_MINUTES = 60; // same one-hour break rule as bookAppointment
+
+    private final AppointmentRepo appointmentRepo;
+    private final DoctorRepo doctorRepo;
+
+    private final ConcurrentHashMap<Specialization, SpecializationSchedule> specializations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, DoctorDays> doctors = new ConcurrentHashMap<>();
+
+    @Value("${appointment.availability.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${appointment.availability.horizon-days:60}")
+    private int horizonDays;
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    /**
+     * Earliest free slots across all doctors of the specialization, ordered by start time then doctor.
+     * Candidate start times are every stepMinutes between dayStart and dayEnd of each day in the window.
+     */
+    public List<AvailableSlotDTO> findAvailableSlots(Specialization specialization,
+                                                     LocalDateTime earliestStart,
+                                                     LocalDateTime windowEnd,
+                                                     LocalTime dayStart,
+                                                     LocalTime dayEnd,
+                                                     int stepMinutes,
+                                                     int count) {
+        SpecializationSchedule schedule = scheduleFor(specialization);
+        List<AvailableSlotDTO> slots = new ArrayList<>(count);
+
+        for (LocalDate day = earliestStart.toLocalDate(); !day.isAfter(windowEnd.toLocalDate()); day = day.plusDays(1)) {
+            for (LocalDateTime start = day.atTime(dayStart);
+                 !start.plusMinutes(SLOT_MINUTES).toLocalTime().isAfter(dayEnd) && start.toLocalDate().equals(day);
+                 start = start.plusMinutes(stepMinutes)) {
+
+                if (start.isBefore(earliestStart)) {
+                    continue;
+                }
+                if (!start.isBefore(windowEnd)) {
+                    return slots;
+                }
+
+                for (DoctorSummary doctor : schedule.doctors()) {
+                    DoctorDays days = doctors.get(doctor.id());
+                    if (days == null || days.isFree(start.minusMinutes(BUFFER_MINUTES), start.plusMinutes(SLOT_MINUTES))) {
+                        slots.add(AvailableSlotDTO.builder()
+                                .doctorId(doctor.id())
+                                .doctorFirstName(doctor.firstName())
+                                .doctorLastName(doctor.lastName())
+                                .startTime(start)
+                                .endTime(start.plusMinutes(SLOT_MINUTES))
+                                .build());
+                        if (slots.size() >= count) {
+                            return slots;
+                        }
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    public void add(Appointment appointment) {
+        DoctorDays days = doctors.get(appointment.getDoctor().getId());
+        if (days != null) { // not loaded yet, the next load reads it from the database
+            days.occupy(appointment.getId(), appointment.getStartTime(), endOf(appointment.getStartTime(), appointment.getEndTime()));
+        }
+    }
+
+    public void remove(Appointment appointment) {
+        remove(appointment.getDoctor().getId(), appointment.getId());
+    }
+
+    public void remove(Long doctorId, Long appointmentId) {
+        DoctorDays days = doctors.get(doctorId);
+        if (days != null) {
+            days.release(appointmentId);
+        }
+    }
+
+    // a doctor joined the specialization, it is reloaded on the next search
+    public void invalidate(Specialization specialization) {
+        SpecializationSchedule schedule = specializations.remove(specialization);
+        if (schedule != null) {
+            schedule.doctors().forEach(doctor -> doctors.remove(doctor.id()));
+        }
+    }
+
+    // doctors left or changed name or specialization
+    public void invalidateAll() {
+        specializations.clear();
+        doctors.clear();
+    }
+
+    private SpecializationSchedule scheduleFor(Specialization specialization) {
+        long now = System.currentTimeMillis();
+        SpecializationSchedule schedule = specializations.get(specialization);
+
+        if (schedule == null || now - schedule.loadedAtMillis() > ttlMillis) {
+            SpecializationSchedule previous = schedule;
+            schedule = load(specialization, now);
+            specializations.put(specialization, schedule);
+            if (previous != null) {
+                pruneLeftDoctors(previous, schedule);
+            }
+        }
+        return schedule;
+    }
+
+    private SpecializationSchedule load(Specialization specialization, long now) {
+        List<DoctorSummary> summaries = doctorRepo.findBySpecialization(specialization).stream()
+                .map(doctor -> new DoctorSummary(doctor.getId(), doctor.getFirstName(), doctor.getLastName()))
+                .sorted(Comparator.comparing(DoctorSummary::id))
+                .toList();
+
+        Map<Long, DoctorDays> loaded = new HashMap<>();
+        summaries.forEach(doctor -> loaded.put(doctor.id(), new DoctorDays()));
+
+        // one range scan for the whole specialization instead of one query per doctor
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        appointmentRepo.findScheduledSlotsBySpecialization(specialization, from, from.plusDays(horizonDays + 2L))
+                .forEach(slot -> {
+                    DoctorDays days = loaded.get(slot.getDoctorId());
+                    if (days != null) {
+                        days.occupy(slot.getId(), slot.getStartTime(), endOf(slot.getStartTime(), slot.getEndTime()));
+                    }
+                });
+
+        doctors.putAll(loaded);
+        log.debug("Loaded availability of {} doctors for {}", summaries.size(), specialization);
+        return new SpecializationSchedule(summaries, now);
+    }
+
+    // doctors that are no longer in the specialization would otherwise stay in the index for good
+    private void pruneLeftDoctors(SpecializationSchedule previous, SpecializationSchedule current) {
+        Set<Long> remaining = current.doctors().stream().map(DoctorSummary::id).collect(Collectors.toSet());
+        previous.doctors().stream()
+                .map(DoctorSummary::id)
+                .filter(id -> !remaining.contains(id))
+                .forEach(doctors::remove);
+    }
+
+    private LocalDateTime endOf(LocalDateTime startTime, LocalDateTime endTime) {
+        return endTime != null ? endTime : startTime.plusMinutes(SLOT_MINUTES);
+    }
+
+    private record DoctorSummary(Long id, String firstName, String lastName) {
+    }
+
+    private record SpecializationSchedule(List<DoctorSummary> doctors, long loadedAtMillis) {
+    }
+
+    private static class DoctorDays {
+
+        private final Map<LocalDate, DayBitmap> days = new HashMap<>();
+        private final Map<Long, List<LocalDate>> daysByAppointment = new HashMap<>();
+
+        synchronized void occupy(Long appointmentId, LocalDateTime start, LocalDateTime end) {
+            forEachDay(start, end, (day, fromMinute, toMinute) -> {
+                days.computeIfAbsent(day, d -> new DayBitmap()).occupy(appointmentId, fromMinute, toMinute);
+                daysByAppointment.computeIfAbsent(appointmentId, id -> new ArrayList<>(1)).add(day);
+            });
+        }
+
+        // by id: completion rewrites endTime, so the original range is not known any more
+        synchronized void release(Long appointmentId) {
+            List<LocalDate> occupiedDays = daysByAppointment.remove(appointmentId);
+            if (occupiedDays == null) {
+                return;
+            }
+            for (LocalDate day : occupiedDays) {
+                DayBitmap bitmap = days.get(day);
+                if (bitmap != null) {
+                    bitmap.release(appointmentId);
+                    if (bitmap.isEmpty()) {
+                        days.remove(day);
+                    }
+                }
+            }
+        }
+
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+            boolean[] free = {true};
+            forEachDay(start, end, (day, fromMinute, toMinute) -> {
+                DayBitmap bitmap = days.get(day);
+                if (free[0] && bitmap != null && !bitmap.isFree(fromMinute, toMinute)) {
+                    free[0] = false;
+                }
+            });
+            return free[0];
+        }
+
+        // splits [start, end) into per-day minute ranges
+        private static void forEachDay(LocalDateTime start, LocalDateTime end, DayRangeConsumer consumer) {
+            LocalDateTime cursor = start;
+            while (cursor.isBefore(end)) {
+                LocalDate day = cursor.toLocalDate();
+                LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+                LocalDateTime rangeEnd = end.isBefore(dayEnd) ? end : dayEnd;
+
+                int fromMinute = cursor.getHour() * 60 + cursor.getMinute();
+                int toMinute = rangeEnd.equals(dayEnd)
+                        ? DayBitmap.MINUTES_PER_DAY
+                        : rangeEnd.getHour() * 60 + rangeEnd.getMinute() + (rangeEnd.getSecond() > 0 || rangeEnd.getNano() > 0 ? 1 : 0);
+
+                consumer.accept(day, fromMinute, toMinute);
+                cursor = rangeEnd;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface DayRangeConsumer {
+        void accept(LocalDate day, int fromMinute, int toMinute);
+    }
+}
@@ -0,0 +1,59 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.exceptions.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-doctor locks: bookings for the same doctor run one at a time on this node, bookings for different
+ * doctors almost never share a stripe. Across nodes the doctor row lock taken inside the booking transaction
+ * does the same job.
+ */
+@Component
+@Slf4j
+public class BookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public BookingLocks(@Value("${appointment.booking.lock-stripes:256}") int stripeCount,
+                        @Value("${appointment.booking.lock-timeout-ms:5000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T withDoctorLock(Long doctorId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(doctorId);
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for booking lock", e);
+        }
+        if (!acquired) {
+            log.warn("Timed out waiting for booking lock of doctor {}", doctorId);
+            throw new ServiceUnavailableException("Too many bookings for this doctor right now, please try again", 1);
+        }
+
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long doctorId) {
+        int hash = Long.hashCode(doctorId);
+        hash ^= (hash >>> 16); // spread sequential ids
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
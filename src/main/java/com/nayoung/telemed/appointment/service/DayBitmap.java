@@ -0,0 +1,61 @@
+package com.nayoung.telemed.appointment.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minute-level occupancy of one doctor on one day: 1440 bits in 23 longs.
+ * The appointments behind the bits are kept too, so removing one rebuilds the bitmap without touching
+ * the minutes of any other appointment.
+ */
+class DayBitmap {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final long[] bits = new long[(MINUTES_PER_DAY + 63) / 64];
+    private final Map<Long, int[]> intervals = new HashMap<>();
+
+    // [fromMinute, toMinute) of the day
+    void occupy(Long appointmentId, int fromMinute, int toMinute) {
+        intervals.put(appointmentId, new int[]{fromMinute, toMinute});
+        setRange(fromMinute, toMinute);
+    }
+
+    void release(Long appointmentId) {
+        if (intervals.remove(appointmentId) == null) {
+            return;
+        }
+        Arrays.fill(bits, 0L);
+        intervals.values().forEach(interval -> setRange(interval[0], interval[1]));
+    }
+
+    boolean isFree(int fromMinute, int toMinute) {
+        for (int minute = fromMinute; minute < toMinute; ) {
+            int word = minute >>> 6;
+            int offset = minute & 63;
+            int span = Math.min(64 - offset, toMinute - minute);
+            long mask = span == 64 ? -1L : ((1L << span) - 1) << offset;
+            if ((bits[word] & mask) != 0) {
+                return false;
+            }
+            minute += span;
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    private void setRange(int fromMinute, int toMinute) {
+        for (int minute = Math.max(0, fromMinute); minute < Math.min(MINUTES_PER_DAY, toMinute); ) {
+            int word = minute >>> 6;
+            int offset = minute & 63;
+            int span = Math.min(64 - offset, Math.min(MINUTES_PER_DAY, toMinute) - minute);
+            long mask = span == 64 ? -1L : ((1L << span) - 1) << offset;
+            bits[word] |= mask;
+            minute += span;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nayoung.telemed.appointment.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Scheduled appointments of one doctor, sorted by start time.
+ * An overlap probe only looks at slots starting within [start - longest slot, end), so it costs O(log n).
+ */
+class DoctorSchedule {
+
+    private static final Comparator<Slot> ORDER = Comparator
+            .comparing(Slot::start)
+            .thenComparing(Slot::appointmentId);
+
+    private final TreeSet<Slot> slots = new TreeSet<>(ORDER);
+    private final Map<Long, Slot> slotsById = new HashMap<>();
+    private final long loadedAtMillis;
+
+    private Duration longestSlot = Duration.ZERO;
+
+    DoctorSchedule(long loadedAtMillis) {
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    // same predicate as AppointmentRepo.findConflictingAppointments: existing.start < end && existing.end > start
+    synchronized boolean hasConflict(LocalDateTime start, LocalDateTime end) {
+        NavigableSet<Slot> candidates = slots.subSet(
+                new Slot(Long.MIN_VALUE, start.minus(longestSlot), start), true,
+                new Slot(Long.MIN_VALUE, end, end), false);
+
+        for (Slot slot : candidates) {
+            if (slot.end().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void add(Long appointmentId, LocalDateTime start, LocalDateTime end) {
+        remove(appointmentId);
+
+        Slot slot = new Slot(appointmentId, start, end);
+        slots.add(slot);
+        slotsById.put(appointmentId, slot);
+
+        Duration duration = Duration.between(start, end);
+        if (duration.compareTo(longestSlot) > 0) {
+            longestSlot = duration;
+        }
+    }
+
+    synchronized void remove(Long appointmentId) {
+        Slot slot = slotsById.remove(appointmentId);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+    }
+
+    // slots that ended can never conflict with a new booking
+    synchronized void pruneEndedBefore(LocalDateTime time) {
+        while (!slots.isEmpty() && !slots.first().start().plus(longestSlot).isAfter(time)) {
+            Slot slot = slots.pollFirst();
+            slotsById.remove(slot.appointmentId());
+        }
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    boolean isOlderThan(long ttlMillis, long nowMillis) {
+        return nowMillis - loadedAtMillis > ttlMillis;
+    }
+
+    record Slot(Long appointmentId, LocalDateTime start, LocalDateTime end) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of SCHEDULED appointments per doctor and day, the fast path of the booking conflict check.
+ * A day is loaded from the database with one range scan on first use, so a cold probe costs about what the
+ * conflict query costs however long the doctor's schedule is, and is kept up to date on book, cancel and complete.
+ * It only sees changes made on this node: a conflict found here is confirmed with one query before the booking is
+ * rejected, and a booking it lets through is decided by the database check under the doctor's lock.
+ * Days are reloaded after a TTL or dropped when either check disagrees with the index.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DoctorScheduleIndex {
+
+    private static final int SLOT_MINUTES = 60;
+
+    private final AppointmentRepo appointmentRepo;
+
+    private final ConcurrentHashMap<Long, Map<LocalDate, DoctorSchedule>> schedules = new ConcurrentHashMap<>();
+
+    @Value("${appointment.index.ttl-ms:300000}")
+    private long ttlMillis;
+
+    // an appointment overlapping [start, end) overlaps it on one of the days it touches, and is loaded for that day
+    public boolean hasConflict(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        Map<LocalDate, DoctorSchedule> days = daysOf(doctorId);
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            if (scheduleFor(doctorId, days, day).hasConflict(start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(Appointment appointment) {
+        Map<LocalDate, DoctorSchedule> days = schedules.get(appointment.getDoctor().getId());
+        if (days == null) { // not loaded yet, the next load reads it from the database
+            return;
+        }
+        LocalDateTime start = appointment.getStartTime();
+        LocalDateTime end = endOf(start, appointment.getEndTime());
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            DoctorSchedule schedule = days.get(day);
+            if (schedule != null) {
+                schedule.add(appointment.getId(), start, end);
+            }
+        }
+    }
+
+    public void remove(Appointment appointment) {
+        remove(appointment.getDoctor().getId(), appointment.getId());
+    }
+
+    public void remove(Long doctorId, Long appointmentId) {
+        Map<LocalDate, DoctorSchedule> days = schedules.get(doctorId);
+        if (days != null) {
+            days.values().forEach(schedule -> schedule.remove(appointmentId));
+        }
+    }
+
+    public void invalidate(Long doctorId) {
+        schedules.remove(doctorId);
+    }
+
+    private Map<LocalDate, DoctorSchedule> daysOf(Long doctorId) {
+        Map<LocalDate, DoctorSchedule> days = schedules.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>());
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(day -> day.isBefore(today.minusDays(1))); // past days take no bookings
+        return days;
+    }
+
+    private DoctorSchedule scheduleFor(Long doctorId, Map<LocalDate, DoctorSchedule> days, LocalDate day) {
+        long now = System.currentTimeMillis();
+        DoctorSchedule schedule = days.get(day);
+
+        if (schedule == null || schedule.isOlderThan(ttlMillis, now)) {
+            schedule = load(doctorId, day, now);
+            days.put(day, schedule);
+        }
+        return schedule;
+    }
+
+    private DoctorSchedule load(Long doctorId, LocalDate day, long now) {
+        DoctorSchedule schedule = new DoctorSchedule(now);
+
+        appointmentRepo.findScheduledSlotsBetween(doctorId, day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                .forEach(slot -> schedule.add(slot.getId(), slot.getStartTime(), endOf(slot.getStartTime(), slot.getEndTime())));
+
+        log.debug("Loaded {} scheduled appointments of doctor {} on {} into the index", schedule.size(), doctorId, day);
+        return schedule;
+    }
+
+    private LocalDateTime endOf(LocalDateTime startTime, LocalDateTime endTime) {
+        return endTime != null ? endTime : startTime.plusMinutes(SLOT_MINUTES);
+    }
+}
@@ -0,0 +1,102 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.analytics.service.AppointmentStatsRecorder;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.calendar.service.ScheduleVersions;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Moves SCHEDULED appointments that were never completed to NO_SHOW once their grace period is over.
+ * Works in bounded chunks, each its own short transaction, so the SCHEDULED set the conflict checks
+ * scan stays limited to upcoming appointments without long-held row locks. The rows of a chunk are locked before
+ * the update, so the transition work (indexes, reminders, stats, calendar versions) runs for exactly the
+ * appointments that changed: one completed or cancelled since the scan is left alone.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NoShowSweeper {
+
+    private final AppointmentRepo appointmentRepo;
+    private final AppointmentStatsRecorder statsRecorder;
+    private final DoctorScheduleIndex doctorScheduleIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final AppointmentReminderScheduler reminderScheduler;
+    private final ScheduleVersions scheduleVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    // how long after the start a doctor still has to complete the appointment
+    @Value("${appointment.no-show.grace-minutes:120}")
+    private long graceMinutes;
+
+    @Value("${appointment.no-show.sweep.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${appointment.no-show.sweep.max-chunks:100}")
+    private int maxChunksPerRun;
+
+    @Scheduled(fixedDelayString = "${appointment.no-show.sweep.interval-ms:600000}")
+    public void markNoShows() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(graceMinutes);
+        int marked = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<AppointmentRepo.PastDueAppointment> pastDue = appointmentRepo.findPastDue(cutoff, PageRequest.of(0, chunkSize));
+            if (pastDue.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = pastDue.stream().map(AppointmentRepo.PastDueAppointment::getId).toList();
+            Set<Long> updatedIds = transactionTemplate.execute(status -> {
+                List<Long> locked = appointmentRepo.lockIdsByIdInAndStatus(ids, AppointmentStatus.SCHEDULED);
+                if (!locked.isEmpty()) {
+                    appointmentRepo.updateStatusByIdIn(locked, AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW);
+                }
+                return new HashSet<>(locked);
+            });
+            List<AppointmentRepo.PastDueAppointment> noShows = pastDue.stream()
+                    .filter(appointment -> updatedIds.contains(appointment.getId()))
+                    .toList();
+            afterNoShow(noShows);
+            marked += noShows.size();
+
+            if (pastDue.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (marked > 0) {
+            log.info("Marked {} past-due appointments as no-show", marked);
+        }
+    }
+
+    // same follow-up as cancelAppointment and completeAppointment, for a whole chunk
+    private void afterNoShow(List<AppointmentRepo.PastDueAppointment> noShows) {
+        if (noShows.isEmpty()) {
+            return;
+        }
+        for (AppointmentRepo.PastDueAppointment appointment : noShows) {
+            doctorScheduleIndex.remove(appointment.getDoctorId(), appointment.getId());
+            availabilityIndex.remove(appointment.getDoctorId(), appointment.getId());
+            reminderScheduler.cancel(appointment.getId());
+            statsRecorder.recordTransition(appointment.getDoctorId(), appointment.getSpecialization(),
+                    appointment.getStartTime().toLocalDate(), AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW);
+        }
+        scheduleVersions.bump(noShows.stream()
+                .flatMap(appointment -> Stream.of(appointment.getDoctorUserId(), appointment.getPatientUserId()))
+                .toArray(Long[]::new));
+    }
+}
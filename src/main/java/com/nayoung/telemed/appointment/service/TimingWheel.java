@@ -0,0 +1,189 @@
+package com.nayoung.telemed.appointment.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel: level i has WHEEL_SIZE slots of WHEEL_SIZE^i ticks each.
+ * An entry goes to the lowest level whose current rotation still reaches its tick, and moves down a level
+ * each time the clock enters its slot. Scheduling and cancelling are O(1), advancing touches one slot per tick
+ * plus the entries cascading down, independent of how many entries are pending.
+ */
+class TimingWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final long tickMillis;
+    private final Slot<T>[][] levels;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int levelCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = new Slot[levelCount][WHEEL_SIZE];
+        for (Slot<T>[] level : levels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                level[i] = new Slot<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // latest expiration this wheel can hold, relative to its clock
+    long capacityMillis() {
+        return ((1L << (WHEEL_BITS * levels.length)) - 1) * tickMillis;
+    }
+
+    /**
+     * Returns the entry to cancel it with, or null when the expiration is already due at the current tick.
+     */
+    Entry<T> schedule(long expirationMillis, T payload) {
+        lock.lock();
+        try {
+            long expirationTick = expirationMillis / tickMillis;
+            if (expirationTick <= currentTick) {
+                return null;
+            }
+            Entry<T> entry = new Entry<>(expirationTick, payload);
+            place(entry);
+            size++;
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean cancel(Entry<T> entry) {
+        lock.lock();
+        try {
+            if (entry.slot == null) {
+                return false; // already fired or cancelled
+            }
+            entry.unlink();
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // moves the clock forward and returns the payloads that became due, in expiration order
+    List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        lock.lock();
+        try {
+            long targetTick = nowMillis / tickMillis;
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                expire(levels[0][(int) (currentTick & WHEEL_MASK)], due);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lowest level where the entry is less than one rotation ahead of the clock
+    private void place(Entry<T> entry) {
+        for (int level = 0; level < levels.length; level++) {
+            int shift = WHEEL_BITS * level;
+            if ((entry.expirationTick >>> shift) - (currentTick >>> shift) < WHEEL_SIZE) {
+                levels[level][(int) ((entry.expirationTick >>> shift) & WHEEL_MASK)].add(entry);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Expiration is beyond the wheel capacity of " + capacityMillis() + " ms");
+    }
+
+    // when the clock enters a new slot of a higher level, that slot's entries move to lower levels
+    private void cascade() {
+        for (int level = levels.length - 1; level > 0; level--) {
+            int shift = WHEEL_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+            Slot<T> slot = levels[level][(int) ((currentTick >>> shift) & WHEEL_MASK)];
+            for (Entry<T> entry = slot.poll(); entry != null; entry = slot.poll()) {
+                place(entry);
+            }
+        }
+    }
+
+    private void expire(Slot<T> slot, List<T> due) {
+        for (Entry<T> entry = slot.poll(); entry != null; entry = slot.poll()) {
+            due.add(entry.payload);
+            size--;
+        }
+    }
+
+    static final class Entry<T> {
+
+        private final long expirationTick;
+        private final T payload;
+
+        private Entry<T> prev;
+        private Entry<T> next;
+        private Slot<T> slot;
+
+        private Entry(long expirationTick, T payload) {
+            this.expirationTick = expirationTick;
+            this.payload = payload;
+        }
+
+        T payload() {
+            return payload;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+            slot = null;
+        }
+    }
+
+    // circular doubly linked list with a sentinel, so an entry unlinks itself without a search
+    private static final class Slot<T> {
+
+        private final Entry<T> head = new Entry<>(0, null);
+
+        private Slot() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        private void add(Entry<T> entry) {
+            entry.slot = this;
+            entry.prev = head.prev;
+            entry.next = head;
+            head.prev.next = entry;
+            head.prev = entry;
+        }
+
+        private Entry<T> poll() {
+            Entry<T> first = head.next;
+            if (first == head) {
+                return null;
+            }
+            first.unlink();
+            return first;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.enums.Specialization;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Waiting entries bucketed per doctor (or specialization) and day, each bucket ordered by entry id, so first come
+ * first served. An entry is added to every day of its window; the best candidate for a freed slot is the head of
+ * at most two buckets, found in O(log n) however many patients wait.
+ */
+class WaitlistIndex {
+
+    private static final Comparator<Candidate> BY_ARRIVAL = Comparator.comparing(Candidate::entryId);
+
+    private final ConcurrentHashMap<Long, Candidate> candidatesById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BucketKey, NavigableSet<Candidate>> buckets = new ConcurrentHashMap<>();
+
+    void add(Candidate candidate) {
+        if (candidatesById.putIfAbsent(candidate.entryId(), candidate) != null) {
+            return;
+        }
+        for (LocalDate day = candidate.fromDate(); !day.isAfter(candidate.toDate()); day = day.plusDays(1)) {
+            // compute keeps adding and dropping an emptied bucket atomic per key
+            buckets.compute(keyOf(candidate, day), (key, bucket) -> {
+                NavigableSet<Candidate> target = bucket == null ? new ConcurrentSkipListSet<>(BY_ARRIVAL) : bucket;
+                target.add(candidate);
+                return target;
+            });
+        }
+    }
+
+    boolean remove(Long entryId) {
+        Candidate candidate = candidatesById.remove(entryId);
+        if (candidate == null) {
+            return false;
+        }
+        for (LocalDate day = candidate.fromDate(); !day.isAfter(candidate.toDate()); day = day.plusDays(1)) {
+            buckets.computeIfPresent(keyOf(candidate, day), (key, bucket) -> {
+                bucket.remove(candidate);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+        return true;
+    }
+
+    // earliest waiting entry for this doctor or for the doctor's specialization on that day, null when none
+    Candidate best(Long doctorId, Specialization specialization, LocalDate day) {
+        Candidate forDoctor = head(new BucketKey(doctorId, null, day));
+        Candidate forSpecialization = specialization == null ? null : head(new BucketKey(null, specialization, day));
+        if (forDoctor == null || forSpecialization == null) {
+            return forDoctor == null ? forSpecialization : forDoctor;
+        }
+        return BY_ARRIVAL.compare(forDoctor, forSpecialization) <= 0 ? forDoctor : forSpecialization;
+    }
+
+    int size() {
+        return candidatesById.size();
+    }
+
+    private Candidate head(BucketKey key) {
+        NavigableSet<Candidate> bucket = buckets.get(key);
+        if (bucket == null) {
+            return null;
+        }
+        Iterator<Candidate> iterator = bucket.iterator(); // weakly consistent, unlike first() it can't throw when emptied meanwhile
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static BucketKey keyOf(Candidate candidate, LocalDate day) {
+        return candidate.doctorId() != null
+                ? new BucketKey(candidate.doctorId(), null, day)
+                : new BucketKey(null, candidate.specialization(), day);
+    }
+
+    record Candidate(Long entryId, Long doctorId, Specialization specialization, LocalDate fromDate, LocalDate toDate) {
+    }
+
+    private record BucketKey(Long doctorId, Specialization specialization, LocalDate day) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.entity.WaitlistEntry;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.repo.WaitlistEntryRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.doctor.repo.DoctorRepo;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.notification.dto.NotificationDTO;
+import com.nayoung.telemed.notification.service.NotificationOutbox;
+import com.nayoung.telemed.users.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offers slots freed by cancellations to the waitlist. The best candidate comes from an in-memory WaitlistIndex;
+ * the offer itself is a conditional update, so an entry matched on two nodes is offered once. An offer is open for
+ * appointment.waitlist.offer-minutes; when it lapses the entry expires and the slot goes to the next candidate.
+ * An offer does not hold the slot: a regular booking can still take it, and accepting then fails and puts the entry
+ * back on the waitlist. The index is rebuilt from the database periodically, which also picks up entries joined on
+ * other nodes.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WaitlistMatcher {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMM dd, yyyy 'at' hh:mm a");
+    private static final int MAX_STALE_CANDIDATES = 20;
+
+    private final WaitlistEntryRepo waitlistEntryRepo;
+    private final AppointmentRepo appointmentRepo;
+    private final DoctorRepo doctorRepo;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointment.waitlist.offer-minutes:30}")
+    private long offerMinutes;
+
+    @Value("${appointment.waitlist.offer-link:http://localhost:4200/waitlist}")
+    private String offerLink;
+
+    @Value("${appointment.waitlist.sweep.chunk-size:200}")
+    private int chunkSize;
+
+    private volatile WaitlistIndex index = new WaitlistIndex();
+
+    public void add(WaitlistEntry entry) {
+        index.add(new WaitlistIndex.Candidate(entry.getId(),
+                entry.getDoctor() == null ? null : entry.getDoctor().getId(),
+                entry.getSpecialization(), entry.getFromDate(), entry.getToDate()));
+    }
+
+    public void remove(Long entryId) {
+        index.remove(entryId);
+    }
+
+    public int waitingEntries() {
+        return index.size();
+    }
+
+    public void slotFreed(Appointment appointment) {
+        Doctor doctor = appointment.getDoctor();
+        offerSlot(doctor.getId(), doctor.getSpecialization(), appointment.getStartTime());
+    }
+
+    // the slot of a declined or cancelled offer goes to the next candidate
+    public void offerDeclined(WaitlistEntry entry) {
+        doctorRepo.findById(entry.getOfferedDoctorId()).ifPresent(doctor ->
+                offerSlot(doctor.getId(), doctor.getSpecialization(), entry.getOfferedStartTime()));
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.waitlist.reload-interval-ms:300000}")
+    public void reload() {
+        WaitlistIndex reloaded = new WaitlistIndex();
+        waitlistEntryRepo.findWaitingCandidates(LocalDate.now()).forEach(candidate ->
+                reloaded.add(new WaitlistIndex.Candidate(candidate.getId(), candidate.getDoctorId(),
+                        candidate.getSpecialization(), candidate.getFromDate(), candidate.getToDate())));
+        // an entry joined during the scan may be missing until the next reload
+        index = reloaded;
+        log.debug("Loaded {} waitlist entries", reloaded.size());
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.waitlist.sweep.interval-ms:60000}")
+    public void expireOffers() {
+        LocalDateTime now = LocalDateTime.now();
+        waitlistEntryRepo.expireWaitingBefore(now.toLocalDate());
+
+        List<WaitlistEntryRepo.LapsedOffer> lapsed;
+        do {
+            lapsed = waitlistEntryRepo.findLapsedOffers(now, PageRequest.of(0, chunkSize));
+            for (WaitlistEntryRepo.LapsedOffer offer : lapsed) {
+                // whoever expires the offer passes the slot on, so it moves once even with several nodes sweeping
+                if (waitlistEntryRepo.expireOffer(offer.getId(), now) > 0) {
+                    log.info("Waitlist offer {} lapsed, offering the slot to the next patient", offer.getId());
+                    offerSlot(offer.getDoctorId(), offer.getSpecialization(), offer.getStartTime());
+                }
+            }
+        } while (lapsed.size() == chunkSize);
+    }
+
+    private void offerSlot(Long doctorId, Specialization specialization, LocalDateTime startTime) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // same rules as a booking: an hour's notice and an hour's break around other appointments
+            LocalDateTime expiresAt = now.plusMinutes(offerMinutes);
+            if (expiresAt.isAfter(startTime.minusHours(1))) {
+                expiresAt = startTime.minusHours(1);
+            }
+            if (!expiresAt.isAfter(now)
+                    || appointmentRepo.existsConflictingAppointment(doctorId, startTime.minusMinutes(60), startTime.plusMinutes(60))) {
+                return;
+            }
+
+            for (int attempt = 0; attempt < MAX_STALE_CANDIDATES; attempt++) {
+                WaitlistIndex.Candidate candidate = index.best(doctorId, specialization, startTime.toLocalDate());
+                if (candidate == null) {
+                    return;
+                }
+                index.remove(candidate.entryId());
+
+                if (offer(candidate.entryId(), doctorId, startTime, expiresAt)) {
+                    return;
+                }
+                // cancelled, expired or offered elsewhere since the last reload
+            }
+        } catch (Exception e) {
+            log.error("Failed to offer the slot of doctor {} at {} to the waitlist", doctorId, startTime, e);
+        }
+    }
+
+    private boolean offer(Long entryId, Long doctorId, LocalDateTime startTime, LocalDateTime expiresAt) {
+        Boolean offered = transactionTemplate.execute(status -> {
+            if (waitlistEntryRepo.offer(entryId, doctorId, startTime, expiresAt) == 0) {
+                return false;
+            }
+            WaitlistEntry entry = waitlistEntryRepo.findWithPatientById(entryId).orElseThrow();
+            Doctor doctor = doctorRepo.findWithUserById(doctorId).orElseThrow();
+            sendOffer(entry.getPatient().getUser(), doctor.getUser(), startTime, expiresAt);
+            return true;
+        });
+        if (Boolean.TRUE.equals(offered)) {
+            log.info("Offered the slot of doctor {} at {} to waitlist entry {}", doctorId, startTime, entryId);
+        }
+        return Boolean.TRUE.equals(offered);
+    }
+
+    private void sendOffer(User patientUser, User doctorUser, LocalDateTime startTime, LocalDateTime expiresAt) {
+        Map<String, Object> vars = new HashMap<>();
+
+        vars.put("patientName", patientUser.getName());
+        vars.put("doctorName", doctorUser.getName());
+        vars.put("appointmentTime", startTime.format(FORMATTER));
+        vars.put("offerExpiresAt", expiresAt.format(FORMATTER));
+        vars.put("offerLink", offerLink);
+
+        NotificationDTO notification = NotificationDTO.builder()
+                .recipient(patientUser.getEmail())
+                .subject("CareBridge: An Appointment Slot Is Available")
+                .templateName("waitlist-offer")
+                .templateVariables(vars)
+                .build();
+
+        notificationOutbox.enqueue(notification, patientUser);
+    }
+}
@@ -0,0 +1,13 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.appointment.dto.WaitlistEntryDTO;
+import com.nayoung.telemed.res.Response;
+
+import java.util.List;
+
+public interface WaitlistService {
+    Response<WaitlistEntryDTO> joinWaitlist(WaitlistEntryDTO waitlistEntryDTO);
+    Response<List<WaitlistEntryDTO>> getMyWaitlistEntries();
+    Response<?> leaveWaitlist(Long entryId);
+    Response<?> acceptOffer(Long entryId);
+}
@@ -0,0 +1,172 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.dto.WaitlistEntryDTO;
+import com.nayoung.telemed.appointment.entity.WaitlistEntry;
+import com.nayoung.telemed.appointment.mapper.WaitlistMapper;
+import com.nayoung.telemed.appointment.repo.WaitlistEntryRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.doctor.repo.DoctorRepo;
+import com.nayoung.telemed.enums.WaitlistStatus;
+import com.nayoung.telemed.exceptions.BadRequestException;
+import com.nayoung.telemed.exceptions.NotFoundException;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.patient.repo.PatientRepo;
+import com.nayoung.telemed.res.Response;
+import com.nayoung.telemed.users.entity.User;
+import com.nayoung.telemed.users.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Set<WaitlistStatus> ACTIVE = EnumSet.of(WaitlistStatus.WAITING, WaitlistStatus.OFFERED);
+
+    private final WaitlistEntryRepo waitlistEntryRepo;
+    private final PatientRepo patientRepo;
+    private final DoctorRepo doctorRepo;
+    private final UserService userService;
+    private final AppointmentService appointmentService;
+    private final WaitlistMatcher waitlistMatcher;
+
+    // every day of the window is indexed, so the window is bounded
+    @Value("${appointment.waitlist.max-window-days:30}")
+    private int maxWindowDays;
+
+    @Value("${appointment.waitlist.max-active-entries:5}")
+    private int maxActiveEntries;
+
+    @Override
+    public Response<WaitlistEntryDTO> joinWaitlist(WaitlistEntryDTO waitlistEntryDTO) {
+        Patient patient = currentPatient();
+
+        if ((waitlistEntryDTO.getDoctorId() == null) == (waitlistEntryDTO.getSpecialization() == null)) {
+            throw new BadRequestException("Provide either a doctor or a specialization to wait for");
+        }
+        if (waitlistEntryDTO.getToDate().isBefore(waitlistEntryDTO.getFromDate())) {
+            throw new BadRequestException("Last acceptable date must not be before the first");
+        }
+        if (ChronoUnit.DAYS.between(waitlistEntryDTO.getFromDate(), waitlistEntryDTO.getToDate()) >= maxWindowDays) {
+            throw new BadRequestException("A waitlist window can span at most " + maxWindowDays + " days");
+        }
+        if (waitlistEntryRepo.countByPatientIdAndStatusIn(patient.getId(), ACTIVE) >= maxActiveEntries) {
+            throw new BadRequestException("You can be on at most " + maxActiveEntries + " waitlists at a time");
+        }
+
+        Doctor doctor = null;
+        if (waitlistEntryDTO.getDoctorId() != null) {
+            doctor = doctorRepo.findById(waitlistEntryDTO.getDoctorId())
+                    .orElseThrow(() -> new NotFoundException("Doctor not found"));
+        }
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .specialization(waitlistEntryDTO.getSpecialization())
+                .fromDate(waitlistEntryDTO.getFromDate())
+                .toDate(waitlistEntryDTO.getToDate())
+                .purposeOfConsultation(waitlistEntryDTO.getPurposeOfConsultation())
+                .initialSymptoms(waitlistEntryDTO.getInitialSymptoms())
+                .status(WaitlistStatus.WAITING)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        WaitlistEntry savedEntry = waitlistEntryRepo.save(entry);
+        waitlistMatcher.add(savedEntry);
+
+        return success("You have joined the waitlist", WaitlistMapper.toDTO(savedEntry));
+    }
+
+    @Override
+    public Response<List<WaitlistEntryDTO>> getMyWaitlistEntries() {
+        Patient patient = currentPatient();
+
+        List<WaitlistEntryDTO> entries = waitlistEntryRepo.findByPatientIdAndStatusInOrderByIdDesc(patient.getId(), ACTIVE)
+                .stream()
+                .map(WaitlistMapper::toDTO)
+                .toList();
+
+        return success("Waitlist entries retrieved successfully", entries);
+    }
+
+    @Override
+    public Response<?> leaveWaitlist(Long entryId) {
+        WaitlistEntry entry = ownEntry(entryId);
+
+        if (waitlistEntryRepo.updateStatus(entryId, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED) > 0) {
+            waitlistMatcher.remove(entryId);
+        } else if (waitlistEntryRepo.updateStatus(entryId, WaitlistStatus.OFFERED, WaitlistStatus.CANCELLED) > 0) {
+            waitlistMatcher.offerDeclined(entry); // don't hold the slot until the offer lapses
+        } else {
+            throw new BadRequestException("This waitlist entry is no longer active");
+        }
+
+        return success("You have left the waitlist", null);
+    }
+
+    @Override
+    public Response<?> acceptOffer(Long entryId) {
+        WaitlistEntry entry = ownEntry(entryId);
+
+        if (waitlistEntryRepo.acceptOffer(entryId, LocalDateTime.now()) == 0) {
+            throw new BadRequestException("There is no open offer for this waitlist entry");
+        }
+
+        AppointmentDTO appointmentDTO = AppointmentDTO.builder()
+                .doctorId(entry.getOfferedDoctorId())
+                .startTime(entry.getOfferedStartTime())
+                .purposeOfConsultation(entry.getPurposeOfConsultation())
+                .initialSymptoms(entry.getInitialSymptoms())
+                .build();
+
+        // the regular booking path: conflict check under the doctor's lock, confirmation emails, indexes
+        try {
+            appointmentService.bookAppointment(appointmentDTO);
+        } catch (RuntimeException e) {
+            // not booked: back on the waitlist, and the slot goes to the next candidate if it is still free.
+            // passed on before re-adding the entry, so it is not offered the same slot again
+            waitlistEntryRepo.updateStatus(entryId, WaitlistStatus.BOOKED, WaitlistStatus.WAITING);
+            waitlistMatcher.offerDeclined(entry);
+            waitlistMatcher.add(entry);
+            throw e;
+        }
+
+        return success("Appointment booked from the waitlist", null);
+    }
+
+    private WaitlistEntry ownEntry(Long entryId) {
+        Patient patient = currentPatient();
+        WaitlistEntry entry = waitlistEntryRepo.findById(entryId)
+                .orElseThrow(() -> new NotFoundException("Waitlist entry not found"));
+
+        if (!entry.getPatient().getId().equals(patient.getId())) {
+            throw new BadRequestException("You do not have permission to manage this waitlist entry");
+        }
+        return entry;
+    }
+
+    private Patient currentPatient() {
+        User user = userService.getCurrentUser();
+        return patientRepo.findByUser(user)
+                .orElseThrow(() -> new NotFoundException("Patient profile required for the waitlist"));
+    }
+
+    private <T> Response<T> success(String message, T data) {
+        return Response.<T>builder()
+                .statusCode(200)
+                .message(message)
+                .data(data)
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.nayoung.telemed.cache;
+
+public record CacheStats(String name, long hits, long misses, long evictions, int size, int maxSize) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,118 @@
+package com.nayoung.telemed.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, expiry-aware in-memory cache.
+ * Every entry carries its own expiry instant. When the cache is full, one thread sweeps expired entries first
+ * and then drops arbitrary entries down to a low watermark, so eviction cost is amortized over many puts.
+ */
+@Slf4j
+public class ExpiringCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final int lowWatermark;
+    private final ConcurrentHashMap<K, Entry<V>> entries;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(String name, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.lowWatermark = Math.max(1, maxSize - Math.max(1, maxSize / 10)); // evict ~10% per sweep
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return; // never cache something that is already stale
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict();
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, hits.sum(), misses.sum(), evictions.sum(), entries.size(), maxSize);
+    }
+
+    private void evict() {
+        // only one thread sweeps; the others proceed and may overshoot the bound briefly
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            long removed = 0;
+
+            // 1. drop expired entries first
+            for (Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                if (it.next().getValue().isExpired(now)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+
+            // 2. still full, drop live entries until we are back under the low watermark
+            for (Iterator<K> it = entries.keySet().iterator(); entries.size() > lowWatermark && it.hasNext(); ) {
+                it.next();
+                it.remove();
+                removed++;
+            }
+
+            evictions.add(removed);
+            log.debug("Evicted {} entries from cache '{}': {}", removed, name, stats());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.nayoung.telemed.calendar.controller;
+
+import com.nayoung.telemed.calendar.service.CalendarService;
+import com.nayoung.telemed.calendar.service.ScheduleVersions;
+import com.nayoung.telemed.exceptions.NotFoundException;
+import com.nayoung.telemed.res.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/calendar")
+public class CalendarController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarService calendarService;
+
+    @PostMapping("/feed-token")
+    public ResponseEntity<Response<String>> rotateFeedToken() {
+        return ResponseEntity.ok(calendarService.rotateFeedToken());
+    }
+
+    // public: calendar apps can't send a JWT, the unguessable token in the URL is the credential
+    @GetMapping("/feed/{token}.ics")
+    public ResponseEntity<StreamingResponseBody> getFeed(@PathVariable String token, WebRequest webRequest) {
+        ScheduleVersions.FeedVersion feed = calendarService.findFeed(token)
+                .orElseThrow(() -> new NotFoundException("Calendar feed not found"));
+
+        // sets 304 and the validators on the response when the client's copy is current
+        if (webRequest.checkNotModified(feed.etag(), feed.lastModifiedMillis())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(outputStream -> calendarService.writeFeed(feed.userId(), outputStream));
+    }
+}
@@ -0,0 +1,13 @@
+package com.nayoung.telemed.calendar.service;
+
+import com.nayoung.telemed.res.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+public interface CalendarService {
+    Response<String> rotateFeedToken();
+    Optional<ScheduleVersions.FeedVersion> findFeed(String token);
+    void writeFeed(Long userId, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,176 @@
+package com.nayoung.telemed.calendar.service;
+
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.res.Response;
+import com.nayoung.telemed.users.entity.User;
+import com.nayoung.telemed.users.repo.UserRepo;
+import com.nayoung.telemed.users.service.UserService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarServiceImpl implements CalendarService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final String FEED_QUERY =
+            "SELECT a.id, a.start_time, a.end_time, a.status, a.meeting_link, a.purpose_of_consultation, " +
+                    "d.first_name AS doctor_first_name, d.last_name AS doctor_last_name, " +
+                    "p.first_name AS patient_first_name, p.last_name AS patient_last_name " +
+                    "FROM appointments a JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id " +
+                    "WHERE a.status <> 'CANCELLED' AND a.start_time >= ? AND ";
+
+    private static final RowMapper<FeedEntry> FEED_ENTRY = (rs, rowNum) -> {
+        Timestamp endTime = rs.getTimestamp("end_time");
+        return new FeedEntry(
+                rs.getLong("id"),
+                rs.getTimestamp("start_time").toLocalDateTime(),
+                endTime == null ? null : endTime.toLocalDateTime(),
+                AppointmentStatus.valueOf(rs.getString("status")),
+                rs.getString("meeting_link"),
+                rs.getString("purpose_of_consultation"),
+                rs.getString("doctor_first_name") + " " + rs.getString("doctor_last_name"),
+                rs.getString("patient_first_name") + " " + rs.getString("patient_last_name"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepo userRepo;
+    private final UserService userService;
+    private final ScheduleVersions scheduleVersions;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${calendar.feed.base-url}")
+    private String feedBaseUrl;
+
+    @Value("${calendar.feed.past-days:30}")
+    private int pastDays;
+
+    @Value("${calendar.feed.refresh-minutes:15}")
+    private int refreshMinutes;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream the rows one at a time, other drivers take a positive fetch size
+    @Value("${calendar.feed.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    // only the feed streams, every other query keeps the driver's default fetching
+    private JdbcTemplate feedJdbcTemplate;
+
+    @PostConstruct
+    private void init() {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.feedJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.feedJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public Response<String> rotateFeedToken() {
+        User user = userService.getCurrentUser();
+
+        // the old URL stops working as soon as the new token is stored
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        userRepo.updateCalendarToken(user.getId(), token);
+        scheduleVersions.forget(user.getId());
+        log.info("Rotated calendar feed token for user {}", user.getId());
+
+        return Response.<String>builder()
+                .statusCode(200)
+                .message("Calendar feed URL created. Subscribe to it from your calendar app.")
+                .data(feedBaseUrl + token + ".ics")
+                .build();
+    }
+
+    @Override
+    public Optional<ScheduleVersions.FeedVersion> findFeed(String token) {
+        return scheduleVersions.findByToken(token);
+    }
+
+    // rows go from the database cursor straight to the response, nothing is collected
+    @Override
+    public void writeFeed(Long userId, OutputStream outputStream) throws IOException {
+        ICalendarWriter calendar = new ICalendarWriter(
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+        LocalDateTime from = LocalDateTime.now().minusDays(pastDays);
+        LocalDateTime stamp = LocalDateTime.now();
+
+        calendar.property("BEGIN", "VCALENDAR");
+        calendar.property("VERSION", "2.0");
+        calendar.property("PRODID", "-//CareBridge//Telemed EMR//EN");
+        calendar.property("CALSCALE", "GREGORIAN");
+        calendar.text("X-WR-CALNAME", "CareBridge Appointments");
+        // how often clients poll, kept below calendar.feed.version-ttl-ms so most polls are answered from the cache
+        calendar.property("REFRESH-INTERVAL;VALUE=DURATION", "PT" + refreshMinutes + "M");
+        calendar.property("X-PUBLISHED-TTL", "PT" + refreshMinutes + "M");
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<FeedEntry> asDoctor = feedJdbcTemplate.queryForStream(
+                        FEED_QUERY + "d.user_id = ?", FEED_ENTRY, from, userId)) {
+                    asDoctor.forEach(entry -> writeEvent(calendar, entry, stamp, "Consultation with " + entry.patientName()));
+                }
+                try (Stream<FeedEntry> asPatient = feedJdbcTemplate.queryForStream(
+                        FEED_QUERY + "p.user_id = ?", FEED_ENTRY, from, userId)) {
+                    asPatient.forEach(entry -> writeEvent(calendar, entry, stamp, "Consultation with Dr. " + entry.doctorName()));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away mid-stream
+        }
+
+        calendar.property("END", "VCALENDAR");
+        calendar.flush();
+    }
+
+    private void writeEvent(ICalendarWriter calendar, FeedEntry entry, LocalDateTime stamp, String summary) {
+        try {
+            calendar.property("BEGIN", "VEVENT");
+            calendar.property("UID", "appointment-" + entry.id() + "@carebridge");
+            calendar.time("DTSTAMP", stamp);
+            calendar.time("DTSTART", entry.startTime());
+            calendar.time("DTEND", entry.endTime() != null ? entry.endTime() : entry.startTime().plusMinutes(60));
+            calendar.text("SUMMARY", summary);
+            calendar.text("DESCRIPTION", entry.purposeOfConsultation());
+            calendar.text("LOCATION", entry.meetingLink());
+            calendar.property("URL", entry.meetingLink());
+            // a completed appointment did take place, one nobody came to is shown as called off
+            calendar.property("STATUS", switch (entry.status()) {
+                case SCHEDULED, COMPLETED -> "CONFIRMED";
+                case CANCELLED, NO_SHOW -> "CANCELLED";
+            });
+            calendar.property("END", "VEVENT");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record FeedEntry(Long id, LocalDateTime startTime, LocalDateTime endTime, AppointmentStatus status,
+                             String meetingLink, String purposeOfConsultation, String doctorName, String patientName) {
+    }
+}
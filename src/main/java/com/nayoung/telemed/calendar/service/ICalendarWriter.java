@@ -0,0 +1,80 @@
+package com.nayoung.telemed.calendar.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Minimal RFC 5545 writer: CRLF line endings, text escaping and folding of lines longer than 75 octets.
+ * Times are written in UTC, so no VTIMEZONE block is needed.
+ */
+class ICalendarWriter {
+
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer writer;
+
+    ICalendarWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void property(String name, String value) throws IOException {
+        if (value != null) {
+            line(name + ":" + value);
+        }
+    }
+
+    void text(String name, String value) throws IOException {
+        if (value != null && !value.isBlank()) {
+            line(name + ":" + escape(value));
+        }
+    }
+
+    void time(String name, LocalDateTime value) throws IOException {
+        if (value != null) {
+            line(name + ":" + value.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT));
+        }
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int length = utf8Length(codePoint);
+            if (octets + length > MAX_LINE_OCTETS) {
+                writer.write("\r\n "); // continuation lines start with a space, which counts towards the limit
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,87 @@
+package com.nayoung.telemed.calendar.service;
+
+import com.nayoung.telemed.cache.ExpiringCache;
+import com.nayoung.telemed.users.repo.UserRepo;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Per-user schedule version behind the calendar feed's ETag and Last-Modified.
+ * The version lives in the users table and is cached by feed token, so a poll that ends in 304 touches no database.
+ * Changes made on this node drop the cached entry right away, changes made elsewhere show up after the TTL.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleVersions {
+
+    private final UserRepo userRepo;
+
+    // longer than the feed's refresh interval, or every poll would miss the cache
+    @Value("${calendar.feed.version-ttl-ms:3600000}")
+    private long ttlMillis;
+
+    @Value("${calendar.feed.cache-max-size:10000}")
+    private int maxSize;
+
+    private ExpiringCache<String, FeedVersion> versionsByToken;
+    private ExpiringCache<Long, String> tokensByUser;
+
+    @PostConstruct
+    private void init() {
+        this.versionsByToken = new ExpiringCache<>("calendar-feed-versions", maxSize);
+        this.tokensByUser = new ExpiringCache<>("calendar-feed-tokens", maxSize);
+    }
+
+    public Optional<FeedVersion> findByToken(String token) {
+        FeedVersion cached = versionsByToken.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<FeedVersion> loaded = userRepo.findScheduleVersionByCalendarToken(token)
+                .map(version -> new FeedVersion(
+                        version.getId(),
+                        version.getScheduleVersion(),
+                        version.getScheduleUpdatedAt() == null
+                                ? -1
+                                : version.getScheduleUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+
+        loaded.ifPresent(version -> {
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            versionsByToken.put(token, version, expiresAt);
+            tokensByUser.put(version.userId(), token, expiresAt);
+        });
+        return loaded;
+    }
+
+    public void bump(Long... userIds) {
+        List<Long> ids = List.of(userIds).stream().filter(Objects::nonNull).distinct().toList();
+        userRepo.bumpScheduleVersion(ids, LocalDateTime.now());
+        ids.forEach(this::forget);
+    }
+
+    // drops the cached version of the user's feed, e.g. after the token was rotated
+    public void forget(Long userId) {
+        String token = tokensByUser.get(userId);
+        if (token != null) {
+            versionsByToken.invalidate(token);
+            tokensByUser.invalidate(userId);
+        }
+    }
+
+    // lastModifiedMillis is -1 while the schedule has never changed
+    public record FeedVersion(Long userId, long version, long lastModifiedMillis) {
+
+        public String etag() {
+            return "\"" + userId + "-" + version + "\"";
+        }
+    }
+}
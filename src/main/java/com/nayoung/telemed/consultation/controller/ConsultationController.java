@@ -0,0 +1,62 @@
+package com.nayoung.telemed.consultation.controller;
+
+import com.nayoung.telemed.consultation.dto.ConsultationDTO;
+import com.nayoung.telemed.consultation.dto.ConsultationSummaryDTO;
+import com.nayoung.telemed.consultation.service.ConsultationService;
+import com.nayoung.telemed.enums.ConsultationNoteField;
+import com.nayoung.telemed.res.CursorPage;
+import com.nayoung.telemed.res.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/consultations")
+public class ConsultationController {
+    private final ConsultationService consultationService;
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('DOCTOR')")
+    public ResponseEntity<Response<ConsultationDTO>> createConsultation(@RequestBody ConsultationDTO consultationDTO) {
+        return ResponseEntity.ok(consultationService.createConsultation(consultationDTO));
+    }
+
+    // full SOAP notes of one consultation
+    @GetMapping("/appointment/{appointmentId}")
+    @PreAuthorize("hasAnyAuthority('DOCTOR', 'PATIENT', 'ADMIN')")
+    public ResponseEntity<Response<ConsultationDTO>> getConsultationByAppointmentId(@PathVariable Long appointmentId) {
+        return ResponseEntity.ok(consultationService.getConsultationByAppointmentId(appointmentId));
+    }
+
+    // summaries only, newest first; without patientId the current patient's history
+    @GetMapping("/history")
+    @PreAuthorize("hasAnyAuthority('DOCTOR', 'PATIENT', 'ADMIN')")
+    public ResponseEntity<Response<CursorPage<ConsultationSummaryDTO>>> getConsultationHistory(
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(consultationService.getConsultationHistoryByPatientId(patientId, cursor, size));
+    }
+
+    // ranked full-text search of the notes the caller may see, optionally within one SOAP section
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyAuthority('DOCTOR', 'PATIENT')")
+    public ResponseEntity<Response<List<ConsultationSummaryDTO>>> searchConsultations(
+            @RequestParam String q,
+            @RequestParam(required = false) ConsultationNoteField field,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(consultationService.searchConsultations(q, field, patientId, size));
+    }
+
+    // the index is local to each node, this rebuilds the one that receives the request
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<?>> rebuildSearchIndex() {
+        return ResponseEntity.ok(consultationService.rebuildSearchIndex());
+    }
+}
@@ -0,0 +1,35 @@
+package com.nayoung.telemed.consultation.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// one line of a patient's consultation history, the full notes are fetched by appointment id
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConsultationSummaryDTO {
+
+    private Long id;
+
+    private Long appointmentId;
+
+    private LocalDate consultationDate;
+
+    private Long doctorId;
+
+    private String doctorName;
+
+    private String assessmentSnippet;
+
+    // relevance of a search hit, absent in the history
+    private Double score;
+}
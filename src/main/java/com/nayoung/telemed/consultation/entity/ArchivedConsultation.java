@@ -0,0 +1,69 @@
+package com.nayoung.telemed.consultation.entity;
+
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.entity.ArchivedAppointment;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consultation notes of an archived appointment, moved together with it.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "consultations_archive",
+        indexes = @Index(name = "idx_consultation_archive_note_format", columnList = "note_format, id"))
+public class ArchivedConsultation {
+
+    @Id
+    private Long id;
+
+    private LocalDateTime consultationDate;
+
+    @Lob
+    @Convert(converter = CompressedNoteConverter.class)
+    private String subjectiveNotes;
+
+    @Lob
+    @Convert(converter = CompressedNoteConverter.class)
+    private String objectiveFindings;
+
+    @Lob
+    @Convert(converter = CompressedNoteConverter.class)
+    private String assessment;
+
+    @Column(length = Consultation.ASSESSMENT_SNIPPET_LENGTH)
+    private String assessmentSnippet;
+
+    @Lob
+    @Convert(converter = CompressedNoteConverter.class)
+    private String plan;
+
+    private Integer noteFormat;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "appointment_id", unique = true, nullable = false)
+    private ArchivedAppointment appointment;
+
+    // detached copy for the mapper, never saved
+    public Consultation toConsultation() {
+        return Consultation.builder()
+                .id(id)
+                .consultationDate(consultationDate)
+                .subjectiveNotes(subjectiveNotes)
+                .objectiveFindings(objectiveFindings)
+                .assessment(assessment)
+                .assessmentSnippet(assessmentSnippet)
+                .plan(plan)
+                .noteFormat(noteFormat)
+                .appointment(Appointment.builder().id(appointment.getId()).build())
+                .build();
+    }
+}
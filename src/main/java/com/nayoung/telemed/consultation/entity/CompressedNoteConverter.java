@@ -0,0 +1,19 @@
+package com.nayoung.telemed.consultation.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// stores consultation note text through NoteCodec; values without its marker are read as they are
+@Converter
+public class CompressedNoteConverter implements AttributeConverter<String, String> {
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return NoteCodec.encode(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return NoteCodec.decode(dbData);
+    }
+}
@@ -16,11 +16,14 @@ import java.time.LocalDateTime;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "consultations")
+@Table(name = "consultations",
+        indexes = @Index(name = "idx_consultation_note_format", columnList = "note_format, id"))
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Consultation {
 
+    public static final int ASSESSMENT_SNIPPET_LENGTH = 160;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,18 +31,36 @@ public class Consultation {
     private LocalDateTime consultationDate;
 
     @Lob
+    @Convert(converter = CompressedNoteConverter.class)
     private String subjectiveNotes;
 
     @Lob
+    @Convert(converter = CompressedNoteConverter.class)
     private String objectiveFindings;
 
     @Lob
+    @Convert(converter = CompressedNoteConverter.class)
     private String assessment;
 
+    // start of the assessment for history listings, which then don't read the LOB columns
+    @Column(length = Consultation.ASSESSMENT_SNIPPET_LENGTH)
+    private String assessmentSnippet;
+
     @Lob
+    @Convert(converter = CompressedNoteConverter.class)
     private String plan;
 
+    // NoteCodec.FORMAT the notes were written with, null on rows from before compression
+    private Integer noteFormat;
+
     @OneToOne
     @JoinColumn(name = "appointment_id", unique = true, nullable = false)
     private Appointment appointment;
+
+    @PrePersist
+    private void recordNoteFormat() {
+        if (noteFormat == null) {
+            noteFormat = NoteCodec.FORMAT;
+        }
+    }
 }
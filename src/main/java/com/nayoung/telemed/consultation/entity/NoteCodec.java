@@ -0,0 +1,115 @@
+package com.nayoung.telemed.consultation.entity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of consultation note text for storage. A compressed value is the MARKER followed by the Base64 of
+ * the UTF-8 length and the raw DEFLATE stream, primed with a preset dictionary of common clinical phrasing, so
+ * even a short note compresses. Base64 keeps the value valid text, the columns stay text columns.
+ * Anything without the marker is plain text, which is how rows written before compression read.
+ * <p>
+ * FORMAT is recorded per row in note_format. The dictionary of a format must never change once rows use it:
+ * a new dictionary is a new format with its own marker, and decode keeps reading the old ones.
+ */
+public final class NoteCodec {
+
+    public static final int FORMAT = 1;
+
+    static final String MARKER = "~z1:";
+
+    // below this the marker and Base64 overhead outweigh what deflate saves
+    private static final int MIN_COMPRESS_LENGTH = 48;
+
+    private static final byte[] DICTIONARY = loadDictionary("/consultation/note-dictionary-v1.txt");
+
+    // notes are written once and read often: inflate speed does not depend on the level, so the default level is used.
+    // Deflater and Inflater hold native buffers, one of each is reused per thread
+    private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private NoteCodec() {
+    }
+
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(MARKER);
+    }
+
+    public static String encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        // plain text that happens to start with the marker is always compressed, so the marker stays unambiguous
+        boolean looksCompressed = isCompressed(text);
+        if (text.length() < MIN_COMPRESS_LENGTH && !looksCompressed) {
+            return text;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        String compressed = compress(utf8);
+        // incompressible text is kept as it is, it reads the same either way
+        return compressed.length() < utf8.length || looksCompressed ? compressed : text;
+    }
+
+    public static String decode(String stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        byte[] packed = Base64.getDecoder().decode(stored.substring(MARKER.length()));
+        int length = ByteBuffer.wrap(packed).getInt();
+        byte[] utf8 = new byte[length];
+
+        Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        // a raw stream does not ask for its dictionary, it is set up front
+        inflater.setDictionary(DICTIONARY);
+        inflater.setInput(packed, Integer.BYTES, packed.length - Integer.BYTES);
+        try {
+            int read = inflater.inflate(utf8);
+            if (read != length || !inflater.finished()) {
+                throw new IllegalStateException("Corrupt compressed consultation note");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed consultation note", e);
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static String compress(byte[] utf8) {
+        // deflate never grows input by more than a few bytes per 16 KB block
+        byte[] packed = new byte[Integer.BYTES + utf8.length + utf8.length / 1000 + 64];
+        ByteBuffer.wrap(packed).putInt(utf8.length);
+
+        Deflater deflater = DEFLATERS.get();
+        deflater.reset();
+        deflater.setDictionary(DICTIONARY);
+        deflater.setInput(utf8);
+        deflater.finish();
+        int size = Integer.BYTES;
+        while (!deflater.finished()) {
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, packed.length * 2);
+            }
+            size += deflater.deflate(packed, size, packed.length - size);
+        }
+        return MARKER + Base64.getEncoder().encodeToString(Arrays.copyOf(packed, size));
+    }
+
+    private static byte[] loadDictionary(String resource) {
+        try (InputStream in = NoteCodec.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing consultation note dictionary " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.nayoung.telemed.consultation.mapper;
+
+import com.nayoung.telemed.consultation.dto.ConsultationDTO;
+import com.nayoung.telemed.consultation.dto.ConsultationSummaryDTO;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+
+// only the appointment id is read, the appointment itself is not traversed
+public final class ConsultationMapper {
+
+    private ConsultationMapper() {
+    }
+
+    public static ConsultationDTO toDTO(Consultation consultation) {
+        if (consultation == null) {
+            return null;
+        }
+        return ConsultationDTO.builder()
+                .id(consultation.getId())
+                .appointmentId(consultation.getAppointment() == null ? null : consultation.getAppointment().getId())
+                .consultationDate(consultation.getConsultationDate() == null ? null : consultation.getConsultationDate().toLocalDate())
+                .subjectiveNotes(consultation.getSubjectiveNotes())
+                .objectiveFindings(consultation.getObjectiveFindings())
+                .assessment(consultation.getAssessment())
+                .plan(consultation.getPlan())
+                .build();
+    }
+
+    public static ConsultationSummaryDTO toSummaryDTO(ConsultationRepo.ConsultationSummary summary) {
+        return ConsultationSummaryDTO.builder()
+                .id(summary.getId())
+                .appointmentId(summary.getAppointmentId())
+                .consultationDate(summary.getConsultationDate() == null ? null : summary.getConsultationDate().toLocalDate())
+                .doctorId(summary.getDoctorId())
+                .doctorName(summary.getDoctorFirstName() + " " + summary.getDoctorLastName())
+                .assessmentSnippet(summary.getAssessmentSnippet())
+                .build();
+    }
+
+    // start of the assessment, whitespace collapsed and cut at a word boundary where possible
+    public static String assessmentSnippet(String assessment) {
+        if (assessment == null || assessment.isBlank()) {
+            return null;
+        }
+        String collapsed = assessment.strip().replaceAll("\\s+", " ");
+        int maxLength = Consultation.ASSESSMENT_SNIPPET_LENGTH;
+        if (collapsed.length() <= maxLength) {
+            return collapsed;
+        }
+        int end = collapsed.lastIndexOf(' ', maxLength - 1);
+        if (end < maxLength / 2) {
+            end = maxLength - 1;
+        }
+        return collapsed.substring(0, end) + "…";
+    }
+}
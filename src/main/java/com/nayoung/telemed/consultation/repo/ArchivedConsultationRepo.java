@@ -0,0 +1,49 @@
+package com.nayoung.telemed.consultation.repo;
+
+import com.nayoung.telemed.consultation.entity.ArchivedConsultation;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedConsultationRepo extends JpaRepository<ArchivedConsultation, Long> {
+
+    Optional<ArchivedConsultation> findByAppointmentId(Long appointmentId);
+
+    // same page as ConsultationRepo.findHistoryPage, merged with it by id
+    @Query("SELECT c.id AS id, a.id AS appointmentId, c.consultationDate AS consultationDate, " +
+            "d.id AS doctorId, d.firstName AS doctorFirstName, d.lastName AS doctorLastName, " +
+            "COALESCE(c.assessmentSnippet, SUBSTRING(CAST(c.assessment AS String), 1, " + Consultation.ASSESSMENT_SNIPPET_LENGTH + ")) AS assessmentSnippet " +
+            "FROM ArchivedConsultation c JOIN c.appointment a JOIN a.doctor d " +
+            "WHERE a.patient.id = :patientId " +
+            "AND (:doctorId IS NULL OR d.id = :doctorId) " +
+            "AND (:cursor IS NULL OR c.id < :cursor) " +
+            "ORDER BY c.id DESC")
+    List<ConsultationRepo.ConsultationSummary> findHistoryPage(
+            @Param("patientId") Long patientId,
+            @Param("doctorId") Long doctorId,
+            @Param("cursor") Long cursor,
+            Pageable pageable
+    );
+
+    @Query("SELECT c.id AS id, a.id AS appointmentId, c.consultationDate AS consultationDate, " +
+            "d.id AS doctorId, d.firstName AS doctorFirstName, d.lastName AS doctorLastName, " +
+            "COALESCE(c.assessmentSnippet, SUBSTRING(CAST(c.assessment AS String), 1, " + Consultation.ASSESSMENT_SNIPPET_LENGTH + ")) AS assessmentSnippet " +
+            "FROM ArchivedConsultation c JOIN c.appointment a JOIN a.doctor d " +
+            "WHERE c.id IN :ids")
+    List<ConsultationRepo.ConsultationSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // archived notes stay searchable, the search index rebuild reads them too
+    @Query("SELECT c.id AS id, a.doctor.id AS doctorId, a.patient.id AS patientId, " +
+            "c.subjectiveNotes AS subjectiveNotes, c.objectiveFindings AS objectiveFindings, " +
+            "c.assessment AS assessment, c.plan AS plan " +
+            "FROM ArchivedConsultation c JOIN c.appointment a " +
+            "WHERE c.id > :afterId " +
+            "ORDER BY c.id")
+    List<ConsultationRepo.IndexedNoteRow> findIndexedNotesAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
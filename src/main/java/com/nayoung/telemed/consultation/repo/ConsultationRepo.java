@@ -1,8 +1,13 @@
 package com.nayoung.telemed.consultation.repo;
 
 import com.nayoung.telemed.consultation.entity.Consultation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +15,71 @@ public interface ConsultationRepo extends JpaRepository<Consultation, Long> {
 
     Optional<Consultation> findByAppointmentId(Long appointmentId);
 
-    List<Consultation> findByAppointmentPatientIdOrderByConsultationDateDesc(Long patientId);
+    // keyset page of a patient's history, newest first, without touching the note LOBs.
+    // a doctor id limits it to the notes that doctor wrote.
+    // rows written before the snippet column existed fall back to the start of the assessment
+    @Query("SELECT c.id AS id, a.id AS appointmentId, c.consultationDate AS consultationDate, " +
+            "d.id AS doctorId, d.firstName AS doctorFirstName, d.lastName AS doctorLastName, " +
+            "COALESCE(c.assessmentSnippet, SUBSTRING(CAST(c.assessment AS String), 1, " + Consultation.ASSESSMENT_SNIPPET_LENGTH + ")) AS assessmentSnippet " +
+            "FROM Consultation c JOIN c.appointment a JOIN a.doctor d " +
+            "WHERE a.patient.id = :patientId " +
+            "AND (:doctorId IS NULL OR d.id = :doctorId) " +
+            "AND (:cursor IS NULL OR c.id < :cursor) " +
+            "ORDER BY c.id DESC")
+    List<ConsultationSummary> findHistoryPage(
+            @Param("patientId") Long patientId,
+            @Param("doctorId") Long doctorId,
+            @Param("cursor") Long cursor,
+            Pageable pageable
+    );
+
+    // the hits of a note search, in no particular order
+    @Query("SELECT c.id AS id, a.id AS appointmentId, c.consultationDate AS consultationDate, " +
+            "d.id AS doctorId, d.firstName AS doctorFirstName, d.lastName AS doctorLastName, " +
+            "COALESCE(c.assessmentSnippet, SUBSTRING(CAST(c.assessment AS String), 1, " + Consultation.ASSESSMENT_SNIPPET_LENGTH + ")) AS assessmentSnippet " +
+            "FROM Consultation c JOIN c.appointment a JOIN a.doctor d " +
+            "WHERE c.id IN :ids")
+    List<ConsultationSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    boolean existsByAppointmentId(Long appointmentId);
+
+    // keyset scan for rebuilding the search index
+    @Query("SELECT c.id AS id, a.doctor.id AS doctorId, a.patient.id AS patientId, " +
+            "c.subjectiveNotes AS subjectiveNotes, c.objectiveFindings AS objectiveFindings, " +
+            "c.assessment AS assessment, c.plan AS plan " +
+            "FROM Consultation c JOIN c.appointment a " +
+            "WHERE c.id > :afterId " +
+            "ORDER BY c.id")
+    List<IndexedNoteRow> findIndexedNotesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id AS id, a.doctor.id AS doctorId, a.patient.id AS patientId, " +
+            "c.subjectiveNotes AS subjectiveNotes, c.objectiveFindings AS objectiveFindings, " +
+            "c.assessment AS assessment, c.plan AS plan " +
+            "FROM Consultation c JOIN c.appointment a " +
+            "WHERE c.id IN :ids")
+    List<IndexedNoteRow> findIndexedNotesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ids only, the search index catch-up loads the notes it is missing
+    @Query("SELECT c.id FROM Consultation c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface ConsultationSummary {
+        Long getId();
+        Long getAppointmentId();
+        LocalDateTime getConsultationDate();
+        Long getDoctorId();
+        String getDoctorFirstName();
+        String getDoctorLastName();
+        String getAssessmentSnippet();
+    }
+
+    interface IndexedNoteRow {
+        Long getId();
+        Long getDoctorId();
+        Long getPatientId();
+        String getSubjectiveNotes();
+        String getObjectiveFindings();
+        String getAssessment();
+        String getPlan();
+    }
 }
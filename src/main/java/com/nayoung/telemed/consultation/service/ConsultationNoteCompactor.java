@@ -0,0 +1,123 @@
+package com.nayoung.telemed.consultation.service;
+
+import com.nayoung.telemed.consultation.entity.NoteCodec;
+import com.nayoung.telemed.consultation.mapper.ConsultationMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Compresses consultation notes written before NoteCodec, in the consultations and consultations_archive tables.
+ * Pending rows are the ones without a note_format; they are read and rewritten as stored, without the converter,
+ * in chunks of consultation.compression.migration.chunk-size, each chunk updated in one short transaction.
+ * Missing assessment snippets are filled in on the way, so history listings never fall back to cutting one out of
+ * a compressed assessment. Notes are not edited once written, so a chunk cannot overwrite a concurrent change;
+ * a row the archiver moved meanwhile is left for the next run.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ConsultationNoteCompactor {
+
+    private static final List<String> TABLES = List.of("consultations", "consultations_archive");
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${consultation.compression.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${consultation.compression.migration.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${consultation.compression.migration.max-chunks:50}")
+    private int maxChunksPerRun;
+
+    private record StoredNotes(long id, String subjectiveNotes, String objectiveFindings,
+                               String assessment, String plan, String assessmentSnippet) {
+    }
+
+    @Scheduled(fixedDelayString = "${consultation.compression.migration.interval-ms:600000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        for (String table : TABLES) {
+            compactTable(table);
+        }
+    }
+
+    private void compactTable(String table) {
+        long afterId = 0;
+        int compacted = 0;
+        long charsBefore = 0;
+        long charsAfter = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<StoredNotes> rows = namedParameterJdbcTemplate.query(
+                    "SELECT id, subjective_notes, objective_findings, assessment, plan, assessment_snippet FROM " + table +
+                            " WHERE note_format IS NULL AND id > :afterId ORDER BY id LIMIT :limit",
+                    new MapSqlParameterSource().addValue("afterId", afterId).addValue("limit", chunkSize),
+                    (rs, rowNum) -> new StoredNotes(rs.getLong("id"), rs.getString("subjective_notes"),
+                            rs.getString("objective_findings"), rs.getString("assessment"),
+                            rs.getString("plan"), rs.getString("assessment_snippet")));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            MapSqlParameterSource[] updates = new MapSqlParameterSource[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                StoredNotes row = rows.get(i);
+                String assessment = NoteCodec.decode(row.assessment());
+                MapSqlParameterSource update = new MapSqlParameterSource()
+                        .addValue("id", row.id())
+                        .addValue("subjectiveNotes", recompress(row.subjectiveNotes()))
+                        .addValue("objectiveFindings", recompress(row.objectiveFindings()))
+                        .addValue("assessment", recompress(row.assessment()))
+                        .addValue("plan", recompress(row.plan()))
+                        .addValue("snippet", row.assessmentSnippet() != null
+                                ? row.assessmentSnippet() : ConsultationMapper.assessmentSnippet(assessment))
+                        .addValue("format", NoteCodec.FORMAT);
+                updates[i] = update;
+
+                for (String column : List.of("subjectiveNotes", "objectiveFindings", "assessment", "plan")) {
+                    charsAfter += length((String) update.getValue(column));
+                }
+                charsBefore += length(row.subjectiveNotes()) + length(row.objectiveFindings())
+                        + length(row.assessment()) + length(row.plan());
+            }
+
+            transactionTemplate.executeWithoutResult(status -> namedParameterJdbcTemplate.batchUpdate(
+                    "UPDATE " + table + " SET subjective_notes = :subjectiveNotes, objective_findings = :objectiveFindings, " +
+                            "assessment = :assessment, plan = :plan, assessment_snippet = :snippet, note_format = :format " +
+                            "WHERE id = :id AND note_format IS NULL",
+                    updates));
+            compacted += rows.size();
+
+            if (rows.size() < chunkSize) {
+                break;
+            }
+            afterId = rows.getLast().id();
+        }
+
+        if (compacted > 0) {
+            log.info("Compressed the notes of {} rows in {}: {} -> {} characters",
+                    compacted, table, charsBefore, charsAfter);
+        }
+    }
+
+    private static String recompress(String stored) {
+        return NoteCodec.encode(NoteCodec.decode(stored));
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,617 @@
+package com.nayoung.telemed.consultation.service;
+
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.repo.ArchivedConsultationRepo;
+import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+import com.nayoung.telemed.enums.ConsultationNoteField;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Full-text index over the SOAP notes, kept on local disk in consultation.search.index-dir, which has to be set and
+ * is readable by the service's own user only.
+ * New notes go into a heap SegmentBuffer once their transaction commits and are written out as an immutable,
+ * memory-mapped SegmentFile every consultation.search.flush-interval-ms or after consultation.search.flush-docs
+ * notes; small segments are merged so at most consultation.search.max-segments stay open. Queries match all of
+ * their terms, optionally within one SOAP section, and are ranked with BM25. Every document carries the doctor and
+ * patient of its appointment, so results are filtered to what the caller may see while the postings are walked.
+ * <p>
+ * Each node keeps its own index. The same maintenance run that flushes also catches up with notes written on other
+ * nodes or lost from the buffer in a crash; a missing or unreadable index is rebuilt from the database, archived
+ * notes included, and until then searches see what has been indexed so far. All disk work runs on one thread.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ConsultationSearchIndex {
+
+    public record Hit(long consultationId, double score) {
+    }
+
+    private static final String MANIFEST = "segments";
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ConsultationRepo consultationRepo;
+    private final ArchivedConsultationRepo archivedConsultationRepo;
+
+    // no default: the shared temporary directory is no place for patient notes
+    @Value("${consultation.search.index-dir}")
+    private String indexDir;
+
+    @Value("${consultation.search.flush-interval-ms:60000}")
+    private long flushIntervalMillis;
+
+    @Value("${consultation.search.flush-docs:5000}")
+    private int flushDocs;
+
+    @Value("${consultation.search.max-segments:10}")
+    private int maxSegments;
+
+    @Value("${consultation.search.max-segment-mb:1024}")
+    private long maxSegmentMegabytes;
+
+    @Value("${consultation.search.catch-up.chunk-size:500}")
+    private int chunkSize;
+
+    // ids may commit out of order, the catch-up looks this far below the highest indexed id
+    @Value("${consultation.search.catch-up.overlap:1000}")
+    private int catchUpOverlap;
+
+    // guards everything below; searches share it, adds and segment swaps take it exclusively
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<SegmentFile> segments = List.of();
+    private SegmentBuffer buffer = new SegmentBuffer();
+    private SegmentBuffer flushing; // being written out, still searched until its file is open
+    private IdBitmap indexedIds = new IdBitmap();
+    private long maxIndexedId;
+
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+
+    private Path directory;
+    private long nextSegmentNumber;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    private void init() throws IOException {
+        if (indexDir.isBlank()) {
+            throw new IllegalStateException("consultation.search.index-dir must name the directory of the search index");
+        }
+        this.directory = Path.of(indexDir);
+        SegmentFile.createPrivateDirectory(directory);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "consultation-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> run("open", this::open));
+        executor.scheduleWithFixedDelay(() -> run("maintenance", this::maintain),
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void shutdown() throws InterruptedException {
+        // write out the buffer, so a restart does not have to catch up on it
+        executor.execute(() -> run("flush", this::flush));
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // indexes the note once the caller's transaction commits, or right away outside one
+    public void indexAfterCommit(Consultation consultation) {
+        Appointment appointment = consultation.getAppointment();
+        IndexedNote note = new IndexedNote(consultation.getId(),
+                appointment.getDoctor().getId(), appointment.getPatient().getId(),
+                consultation.getSubjectiveNotes(), consultation.getObjectiveFindings(),
+                consultation.getAssessment(), consultation.getPlan());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(note);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(note);
+            }
+        });
+    }
+
+    /**
+     * Consultations containing every term of the query, best first. A null doctorId or patientId leaves that
+     * side unrestricted, a null field searches all SOAP sections.
+     */
+    public List<Hit> search(String query, Long doctorId, Long patientId, ConsultationNoteField field, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(NoteTokenizer.tokenize(query)));
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        int fieldBit = field == null ? SegmentBuffer.FIELD_MASK : 1 << field.ordinal();
+        PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score)
+                .thenComparingLong(Hit::consultationId));
+
+        lock.readLock().lock();
+        try {
+            List<IndexSegment> parts = new ArrayList<>(segments);
+            if (flushing != null) {
+                parts.add(flushing);
+            }
+            parts.add(buffer);
+
+            long docCount = 0;
+            long totalLength = 0;
+            for (IndexSegment part : parts) {
+                docCount += part.docCount();
+                totalLength += part.totalLength();
+            }
+            if (docCount == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / docCount);
+
+            double[] idf = new double[terms.size()];
+            for (int t = 0; t < terms.size(); t++) {
+                long docFreq = 0;
+                for (IndexSegment part : parts) {
+                    IndexSegment.PostingCursor cursor = part.postings(terms.get(t));
+                    docFreq += cursor == null ? 0 : cursor.docFreq();
+                }
+                if (docFreq == 0) {
+                    return List.of(); // every term has to match
+                }
+                idf[t] = Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+            }
+
+            for (IndexSegment part : parts) {
+                searchSegment(part, terms, idf, averageLength, doctorId, patientId, fieldBit, limit, top);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(top.comparator().reversed());
+        return hits;
+    }
+
+    private static void searchSegment(IndexSegment part, List<String> terms, double[] idf, double averageLength,
+                                      Long doctorId, Long patientId, int fieldBit, int limit, PriorityQueue<Hit> top) {
+        int n = terms.size();
+        IndexSegment.PostingCursor[] cursors = new IndexSegment.PostingCursor[n];
+        double[] weights = new double[n];
+        for (int t = 0; t < n; t++) {
+            cursors[t] = part.postings(terms.get(t));
+            if (cursors[t] == null) {
+                return;
+            }
+            weights[t] = idf[t];
+        }
+        // the rarest term leads, the others only skip ahead to its documents
+        Integer[] order = new Integer[n];
+        for (int t = 0; t < n; t++) {
+            order[t] = t;
+        }
+        Arrays.sort(order, Comparator.comparingInt(t -> cursors[t].docFreq()));
+        IndexSegment.PostingCursor lead = cursors[order[0]];
+
+        if (!lead.next()) {
+            return;
+        }
+        int doc = lead.doc();
+        candidates:
+        while (true) {
+            for (int i = 1; i < n; i++) {
+                IndexSegment.PostingCursor other = cursors[order[i]];
+                if (!other.advance(doc)) {
+                    return;
+                }
+                if (other.doc() != doc) {
+                    if (!lead.advance(other.doc())) {
+                        return;
+                    }
+                    doc = lead.doc();
+                    continue candidates;
+                }
+            }
+
+            if (visible(part, doc, doctorId, patientId) && inField(cursors, fieldBit)) {
+                double score = 0;
+                double norm = K1 * (1 - B + B * part.length(doc) / averageLength);
+                for (int t = 0; t < n; t++) {
+                    int frequency = cursors[t].termFrequency();
+                    score += weights[t] * frequency * (K1 + 1) / (frequency + norm);
+                }
+                Hit hit = new Hit(part.consultationId(doc), score);
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (top.comparator().compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            if (!lead.next()) {
+                return;
+            }
+            doc = lead.doc();
+        }
+    }
+
+    private static boolean visible(IndexSegment part, int doc, Long doctorId, Long patientId) {
+        return (doctorId == null || part.doctorId(doc) == doctorId)
+                && (patientId == null || part.patientId(doc) == patientId);
+    }
+
+    private static boolean inField(IndexSegment.PostingCursor[] cursors, int fieldBit) {
+        for (IndexSegment.PostingCursor cursor : cursors) {
+            if ((cursor.fields() & fieldBit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // drops the local index and reads every note again, archived ones included
+    public Future<?> rebuild() {
+        return executor.submit(() -> run("rebuild", this::rebuildNow));
+    }
+
+    // the scheduled catch-up and flush, right away; runs after anything queued before it
+    Future<?> maintainNow() {
+        return executor.submit(() -> run("maintenance", this::maintain));
+    }
+
+    private void add(IndexedNote note) {
+        boolean full;
+        lock.writeLock().lock();
+        try {
+            long id = note.consultationId();
+            if (indexedIds.get(id)) {
+                return;
+            }
+            buffer.add(note);
+            indexedIds.set(id);
+            maxIndexedId = Math.max(maxIndexedId, id);
+            full = buffer.docCount() >= flushDocs;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (full && flushPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushPending.set(false);
+                run("flush", this::flush);
+            });
+        }
+    }
+
+    private void open() throws IOException {
+        List<SegmentFile> opened = new ArrayList<>();
+        Path manifest = directory.resolve(MANIFEST);
+        try {
+            if (Files.exists(manifest)) {
+                for (String name : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                    if (!name.isBlank()) {
+                        opened.add(SegmentFile.open(directory.resolve(name)));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Consultation search index in {} is unreadable, rebuilding it", directory, e);
+            opened.clear();
+        }
+
+        Set<String> live = new HashSet<>();
+        for (SegmentFile segment : opened) {
+            String name = segment.path().getFileName().toString();
+            live.add(name);
+            nextSegmentNumber = Math.max(nextSegmentNumber, Long.parseLong(name.substring(0, name.indexOf('.'))) + 1);
+        }
+        deleteFilesExcept(live);
+
+        IdBitmap ids = new IdBitmap();
+        long maxId = 0;
+        for (SegmentFile segment : opened) {
+            for (int doc = 0; doc < segment.docCount(); doc++) {
+                long id = segment.consultationId(doc);
+                ids.set(id);
+                maxId = Math.max(maxId, id);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            segments = List.copyOf(opened);
+            indexedIds.or(ids);
+            maxIndexedId = Math.max(maxIndexedId, maxId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (opened.isEmpty()) {
+            rebuildNow();
+        } else {
+            log.info("Opened consultation search index with {} notes in {} segments", ids.cardinality(), opened.size());
+            catchUp();
+        }
+    }
+
+    private void maintain() throws IOException {
+        catchUp();
+        flush();
+    }
+
+    // indexes committed notes the buffer has not seen, ids first so known notes are not read again
+    private void catchUp() {
+        long afterId;
+        lock.readLock().lock();
+        try {
+            afterId = Math.max(0, maxIndexedId - catchUpOverlap);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int added = 0;
+        while (true) {
+            List<Long> ids = consultationRepo.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> missing;
+            lock.readLock().lock();
+            try {
+                missing = ids.stream().filter(id -> !indexedIds.get(id)).toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!missing.isEmpty()) {
+                consultationRepo.findIndexedNotesByIdIn(missing).forEach(row -> add(toNote(row)));
+                added += missing.size();
+            }
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            afterId = ids.getLast();
+        }
+        if (added > 0) {
+            log.info("Consultation search index caught up on {} notes", added);
+        }
+    }
+
+    private void flush() throws IOException {
+        SegmentBuffer full;
+        lock.writeLock().lock();
+        try {
+            // a buffer whose write failed last time stays searchable and goes first
+            if (flushing == null) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                flushing = buffer;
+                buffer = new SegmentBuffer();
+            }
+            full = flushing;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Path path = nextSegmentPath();
+        SegmentFile.write(path, full);
+        SegmentFile written = SegmentFile.open(path);
+
+        List<SegmentFile> current;
+        lock.writeLock().lock();
+        try {
+            List<SegmentFile> next = new ArrayList<>(segments);
+            next.add(written);
+            segments = List.copyOf(next);
+            flushing = null;
+            current = segments;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeManifest(current);
+        mergeSegments();
+    }
+
+    private void mergeSegments() throws IOException {
+        long maxBytes = maxSegmentMegabytes << 20;
+        while (true) {
+            List<SegmentFile> current;
+            lock.readLock().lock();
+            try {
+                current = segments;
+            } finally {
+                lock.readLock().unlock();
+            }
+            List<SegmentFile> picked = pickMerge(current, maxBytes);
+            if (picked.isEmpty()) {
+                return;
+            }
+
+            Path path = nextSegmentPath();
+            SegmentFile.merge(path, picked);
+            SegmentFile merged = SegmentFile.open(path);
+
+            // only this thread replaces segments, so the picked ones are still there
+            lock.writeLock().lock();
+            try {
+                List<SegmentFile> next = new ArrayList<>(segments);
+                next.removeAll(picked);
+                next.add(merged);
+                segments = List.copyOf(next);
+                current = segments;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            writeManifest(current);
+            for (SegmentFile segment : picked) {
+                // no search holds them any more; a mapping outlives the file until it is collected
+                Files.deleteIfExists(segment.path());
+            }
+            log.debug("Merged {} consultation search segments into {}", picked.size(), path.getFileName());
+        }
+    }
+
+    // the smallest segments that fit into one, when there are too many
+    private List<SegmentFile> pickMerge(List<SegmentFile> current, long maxBytes) {
+        if (current.size() <= maxSegments) {
+            return List.of();
+        }
+        List<SegmentFile> bySize = new ArrayList<>(current);
+        bySize.sort(Comparator.comparingLong(SegmentFile::sizeInBytes));
+        List<SegmentFile> picked = new ArrayList<>();
+        long bytes = 0;
+        for (SegmentFile segment : bySize) {
+            if (bytes + segment.sizeInBytes() > maxBytes || picked.size() == maxSegments) {
+                break;
+            }
+            picked.add(segment);
+            bytes += segment.sizeInBytes();
+        }
+        return picked.size() < 2 ? List.of() : picked;
+    }
+
+    private void rebuildNow() throws IOException {
+        long started = System.currentTimeMillis();
+        List<SegmentFile> built = new ArrayList<>();
+        IdBitmap ids = new IdBitmap();
+        long maxId = 0;
+        SegmentBuffer building = new SegmentBuffer();
+
+        Function<Long, List<ConsultationRepo.IndexedNoteRow>> hot =
+                afterId -> consultationRepo.findIndexedNotesAfter(afterId, PageRequest.of(0, chunkSize));
+        Function<Long, List<ConsultationRepo.IndexedNoteRow>> archived =
+                afterId -> archivedConsultationRepo.findIndexedNotesAfter(afterId, PageRequest.of(0, chunkSize));
+        for (Function<Long, List<ConsultationRepo.IndexedNoteRow>> source : List.of(hot, archived)) {
+            long afterId = 0;
+            while (true) {
+                List<ConsultationRepo.IndexedNoteRow> rows = source.apply(afterId);
+                for (ConsultationRepo.IndexedNoteRow row : rows) {
+                    long id = row.getId();
+                    if (!ids.get(id)) {
+                        building.add(toNote(row));
+                        ids.set(id);
+                        maxId = Math.max(maxId, id);
+                    }
+                }
+                if (building.docCount() >= flushDocs) {
+                    built.add(writeSegment(building));
+                    building = new SegmentBuffer();
+                }
+                if (rows.size() < chunkSize) {
+                    break;
+                }
+                afterId = rows.getLast().getId();
+            }
+        }
+        if (!building.isEmpty()) {
+            built.add(writeSegment(building));
+        }
+
+        List<SegmentFile> previous;
+        lock.writeLock().lock();
+        try {
+            previous = segments;
+            segments = List.copyOf(built);
+            // notes added while rebuilding are either in the new segments or picked up by the catch-up below
+            buffer = new SegmentBuffer();
+            flushing = null;
+            indexedIds = ids;
+            maxIndexedId = maxId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeManifest(built);
+        for (SegmentFile segment : previous) {
+            Files.deleteIfExists(segment.path());
+        }
+        log.info("Rebuilt consultation search index with {} notes in {} ms",
+                ids.cardinality(), System.currentTimeMillis() - started);
+
+        mergeSegments();
+        catchUp();
+    }
+
+    private SegmentFile writeSegment(SegmentBuffer source) throws IOException {
+        Path path = nextSegmentPath();
+        SegmentFile.write(path, source);
+        return SegmentFile.open(path);
+    }
+
+    private Path nextSegmentPath() {
+        return directory.resolve(String.format("%08d%s", nextSegmentNumber++, SegmentFile.EXTENSION));
+    }
+
+    private void writeManifest(List<SegmentFile> current) throws IOException {
+        Path temporary = directory.resolve(MANIFEST + ".tmp");
+        SegmentFile.createPrivateFile(temporary);
+        Files.write(temporary, current.stream().map(segment -> segment.path().getFileName().toString()).toList(),
+                StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // leftovers of an interrupted flush, merge or rebuild
+    private void deleteFilesExcept(Set<String> live) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.equals(MANIFEST) && !live.contains(name)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void run(String task, IndexTask body) {
+        try {
+            body.run();
+        } catch (Exception e) {
+            log.error("Consultation search index {} failed", task, e);
+        }
+    }
+
+    private interface IndexTask {
+        void run() throws Exception;
+    }
+
+    private static IndexedNote toNote(ConsultationRepo.IndexedNoteRow row) {
+        return new IndexedNote(row.getId(), row.getDoctorId(), row.getPatientId(),
+                row.getSubjectiveNotes(), row.getObjectiveFindings(), row.getAssessment(), row.getPlan());
+    }
+}
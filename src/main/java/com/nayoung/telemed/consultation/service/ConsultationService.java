@@ -1,6 +1,9 @@
 package com.nayoung.telemed.consultation.service;
 
 import com.nayoung.telemed.consultation.dto.ConsultationDTO;
+import com.nayoung.telemed.consultation.dto.ConsultationSummaryDTO;
+import com.nayoung.telemed.enums.ConsultationNoteField;
+import com.nayoung.telemed.res.CursorPage;
 import com.nayoung.telemed.res.Response;
 
 import java.util.List;
@@ -8,5 +11,7 @@ import java.util.List;
 public interface ConsultationService {
     Response<ConsultationDTO> createConsultation(ConsultationDTO consultationDTO);
     Response<ConsultationDTO> getConsultationByAppointmentId(Long appointmentId);
-    Response<List<ConsultationDTO>> getConsultationHistoryByPatientId(Long patientId);
+    Response<CursorPage<ConsultationSummaryDTO>> getConsultationHistoryByPatientId(Long patientId, Long cursor, Integer size);
+    Response<List<ConsultationSummaryDTO>> searchConsultations(String query, ConsultationNoteField field, Long patientId, Integer size);
+    Response<?> rebuildSearchIndex();
 }
@@ -1,42 +1,86 @@
 package com.nayoung.telemed.consultation.service;
 
+import com.nayoung.telemed.analytics.service.AppointmentStatsRecorder;
 import com.nayoung.telemed.appointment.entity.Appointment;
 import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.repo.ArchivedAppointmentRepo;
+import com.nayoung.telemed.appointment.service.AppointmentReminderScheduler;
+import com.nayoung.telemed.appointment.service.AvailabilityIndex;
+import com.nayoung.telemed.appointment.service.DoctorScheduleIndex;
+import com.nayoung.telemed.calendar.service.ScheduleVersions;
 import com.nayoung.telemed.consultation.dto.ConsultationDTO;
+import com.nayoung.telemed.consultation.dto.ConsultationSummaryDTO;
+import com.nayoung.telemed.consultation.entity.ArchivedConsultation;
 import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.mapper.ConsultationMapper;
+import com.nayoung.telemed.consultation.repo.ArchivedConsultationRepo;
 import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.doctor.repo.DoctorRepo;
 import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.ConsultationNoteField;
 import com.nayoung.telemed.exceptions.BadRequestException;
 import com.nayoung.telemed.exceptions.NotFoundException;
 import com.nayoung.telemed.patient.entity.Patient;
 import com.nayoung.telemed.patient.repo.PatientRepo;
+import com.nayoung.telemed.res.CursorPage;
+import com.nayoung.telemed.role.service.RoleRegistry;
 import com.nayoung.telemed.res.Response;
 import com.nayoung.telemed.users.entity.User;
 import com.nayoung.telemed.users.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ConsultationServiceImpl implements ConsultationService{
     private final ConsultationRepo consultationRepo;
+    private final ArchivedConsultationRepo archivedConsultationRepo;
     private final AppointmentRepo appointmentRepo;
+    private final ArchivedAppointmentRepo archivedAppointmentRepo;
     private final PatientRepo patientRepo;
+    private final DoctorRepo doctorRepo;
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final RoleRegistry roleRegistry;
+    private final DoctorScheduleIndex doctorScheduleIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final AppointmentReminderScheduler reminderScheduler;
+    private final ScheduleVersions scheduleVersions;
+    private final AppointmentStatsRecorder statsRecorder;
+    private final ConsultationSearchIndex searchIndex;
+
+    @Value("${consultation.history.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${consultation.history.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${consultation.search.default-size:20}")
+    private int defaultSearchSize;
+
+    @Value("${consultation.search.max-size:100}")
+    private int maxSearchSize;
 
     @Override
     public Response<ConsultationDTO> createConsultation(ConsultationDTO consultationDTO) {
         User user = userService.getCurrentUser();
         Long appointmentId = consultationDTO.getAppointmentId();
 
-        Appointment appointment = appointmentRepo.findById(appointmentId)
+        Appointment appointment = appointmentRepo.findWithParticipantsById(appointmentId)
                 .orElseThrow(() -> new NotFoundException("Appointment not found."));
 
         // 1. Security check: must be the doctor linked to the appointment
@@ -44,10 +88,16 @@ public class ConsultationServiceImpl implements ConsultationService{
             throw new BadRequestException("Your are not authorized to create notes for this consultation.");
         }
         // 2. Complete the appointment
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepo.save(appointment);
+        doctorScheduleIndex.remove(appointment);
+        availabilityIndex.remove(appointment);
+        reminderScheduler.cancel(appointment.getId());
+        statsRecorder.recordTransition(appointment, previousStatus, AppointmentStatus.COMPLETED);
+        scheduleVersions.bump(appointment.getDoctor().getUser().getId(), appointment.getPatient().getUser().getId());
         // 3. Ensure a consultation doesn't already exist for this appointment
-        if (consultationRepo.findByAppointmentId(appointmentId).isPresent()) {
+        if (consultationRepo.existsByAppointmentId(appointmentId)) {
             throw new BadRequestException("Consultation notes exist for this appointment");
         }
 
@@ -57,54 +107,167 @@ public class ConsultationServiceImpl implements ConsultationService{
                 .objectiveFindings(consultationDTO.getObjectiveFindings())
                 .assessment(consultationDTO.getAssessment())
                 .plan(consultationDTO.getPlan())
+                .assessmentSnippet(ConsultationMapper.assessmentSnippet(consultationDTO.getAssessment()))
                 .appointment(appointment)
                 .build();
 
         consultationRepo.save(consultation);
+        searchIndex.indexAfterCommit(consultation);
 
         return success("Consultation notes saved successfully.", null);
     }
 
     @Override
     public Response<ConsultationDTO> getConsultationByAppointmentId(Long appointmentId) {
+        User user = userService.getCurrentUser();
+
+        // only the appointment's doctor and patient, or an admin, may read its notes
+        AppointmentRepo.Participants participants = appointmentRepo.findParticipantsById(appointmentId)
+                .or(() -> archivedAppointmentRepo.findParticipantsById(appointmentId))
+                .orElseThrow(() -> new NotFoundException("Consultation notes not found for appointment ID: " + appointmentId));
+        boolean isParticipant = participants.getDoctorUserId().equals(user.getId()) ||
+                participants.getPatientUserId().equals(user.getId());
+        if (!isParticipant && !roleRegistry.hasRole(user, RoleRegistry.ADMIN)) {
+            throw new BadRequestException("You do not have permission to view these consultation notes.");
+        }
+
+        // notes of archived appointments live in the archive
         Consultation consultation = consultationRepo.findByAppointmentId(appointmentId)
+                .or(() -> archivedConsultationRepo.findByAppointmentId(appointmentId).map(ArchivedConsultation::toConsultation))
                 .orElseThrow(() -> new NotFoundException("Consultation notes not found for appointment ID: " + appointmentId));
 
-        ConsultationDTO consultationDTO = modelMapper.map(consultation, ConsultationDTO.class);
+        ConsultationDTO consultationDTO = ConsultationMapper.toDTO(consultation);
 
         return success("Consultation notes retrieved successfully", consultationDTO);
     }
 
     @Override
-    public Response<List<ConsultationDTO>> getConsultationHistoryByPatientId(Long patientId) {
+    public Response<CursorPage<ConsultationSummaryDTO>> getConsultationHistoryByPatientId(Long patientId, Long cursor, Integer size) {
         User user = userService.getCurrentUser();
 
-        // 1. Check if patientId is null, retrieve the patientId of the current authenticated patient
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+
+        // admins read any history; doctors the notes they wrote for patients they have seen; patients only their own
+        Long doctorScope = null;
+        boolean ownHistory = false;
+        if (!roleRegistry.hasRole(user, RoleRegistry.ADMIN)) {
+            Optional<Doctor> doctor = doctorRepo.findByUser(user);
+            if (doctor.isPresent()) {
+                doctorScope = doctor.get().getId();
+                if (patientId != null
+                        && !appointmentRepo.existsByDoctorIdAndPatientId(doctorScope, patientId)
+                        && !archivedAppointmentRepo.existsByDoctorIdAndPatientId(doctorScope, patientId)) {
+                    throw new BadRequestException("You do not have permission to view this consultation history.");
+                }
+            } else {
+                Patient currentPatient = patientRepo.findByUser(user)
+                        .orElseThrow(() -> new BadRequestException("You do not have permission to view this consultation history."));
+                if (patientId != null && !patientId.equals(currentPatient.getId())) {
+                    throw new BadRequestException("You do not have permission to view this consultation history.");
+                }
+                patientId = currentPatient.getId();
+                ownHistory = true;
+            }
+        }
         if (patientId == null) {
-            Patient currentPatient = patientRepo.findByUser(user)
-                    .orElseThrow(() -> new BadRequestException("Patient profile not found for the current user."));
-            patientId = currentPatient.getId();
+            throw new BadRequestException("Patient ID is required.");
         }
 
-        // Find the patient to ensure they exist (or to perform future security checks)
-        patientRepo.findById(patientId)
-                .orElseThrow(() -> new NotFoundException("Patient not found."));
+        // a patient reading their own history was just loaded
+        if (!ownHistory && !patientRepo.existsById(patientId)) {
+            throw new NotFoundException("Patient not found.");
+        }
 
-        List<Consultation> consultationHistory = consultationRepo.findByAppointmentPatientIdOrderByConsultationDateDesc(patientId);
+        // summaries only, one extra row tells whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ConsultationRepo.ConsultationSummary> summaries = consultationRepo.findHistoryPage(patientId, doctorScope, cursor, limit);
 
-        if (consultationHistory.isEmpty()) {
-            return Response.<List<ConsultationDTO>>builder()
-                    .statusCode(200)
-                    .message("No consultation history found for this patient.")
-                    .data(List.of())
-                    .build();
+        // notes of archived appointments are merged in by id, newest first across both tables
+        List<ConsultationRepo.ConsultationSummary> archived = archivedConsultationRepo.findHistoryPage(patientId, doctorScope, cursor, limit);
+        if (!archived.isEmpty()) {
+            summaries = Stream.concat(summaries.stream(), archived.stream())
+                    .sorted(Comparator.comparing(ConsultationRepo.ConsultationSummary::getId).reversed())
+                    .limit(pageSize + 1)
+                    .toList();
         }
 
-        List<ConsultationDTO> consultationHistoryDTOs = consultationHistory.stream()
-                .map(consultation -> modelMapper.map(consultation, ConsultationDTO.class))
+        boolean hasNext = summaries.size() > pageSize;
+        if (hasNext) {
+            summaries = summaries.subList(0, pageSize);
+        }
+
+        List<ConsultationSummaryDTO> summaryDTOs = summaries.stream()
+                .map(ConsultationMapper::toSummaryDTO)
                 .toList();
 
-        return success("Consultation history retrieved successfully", consultationHistoryDTOs);
+        CursorPage<ConsultationSummaryDTO> page = CursorPage.<ConsultationSummaryDTO>builder()
+                .content(summaryDTOs)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? summaries.getLast().getId() : null)
+                .build();
+
+        return success(summaryDTOs.isEmpty() && cursor == null
+                ? "No consultation history found for this patient."
+                : "Consultation history retrieved successfully", page);
+    }
+
+    @Override
+    public Response<List<ConsultationSummaryDTO>> searchConsultations(String query, ConsultationNoteField field, Long patientId, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        int limit = size == null ? defaultSearchSize : size;
+        if (limit < 1 || limit > maxSearchSize) {
+            throw new BadRequestException("Result size must be between 1 and " + maxSearchSize);
+        }
+
+        // doctors search the notes they wrote, optionally for one patient; patients only their own
+        User user = userService.getCurrentUser();
+        Long doctorScope = null;
+        Long patientScope;
+        Optional<Doctor> doctor = doctorRepo.findByUser(user);
+        if (doctor.isPresent()) {
+            doctorScope = doctor.get().getId();
+            patientScope = patientId;
+        } else {
+            patientScope = patientRepo.findByUser(user)
+                    .orElseThrow(() -> new BadRequestException("Only doctors and patients can search consultation notes."))
+                    .getId();
+        }
+
+        List<ConsultationSearchIndex.Hit> hits = searchIndex.search(query, doctorScope, patientScope, field, limit);
+        if (hits.isEmpty()) {
+            return success("No consultations match the search.", List.of());
+        }
+
+        List<Long> ids = hits.stream().map(ConsultationSearchIndex.Hit::consultationId).toList();
+        Map<Long, ConsultationRepo.ConsultationSummary> summaries = consultationRepo.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ConsultationRepo.ConsultationSummary::getId, Function.identity(),
+                        (first, second) -> first, HashMap::new));
+        if (summaries.size() < ids.size()) {
+            archivedConsultationRepo.findSummariesByIdIn(ids.stream().filter(id -> !summaries.containsKey(id)).toList())
+                    .forEach(summary -> summaries.put(summary.getId(), summary));
+        }
+
+        List<ConsultationSummaryDTO> results = hits.stream()
+                .filter(hit -> summaries.containsKey(hit.consultationId()))
+                .map(hit -> {
+                    ConsultationSummaryDTO summaryDTO = ConsultationMapper.toSummaryDTO(summaries.get(hit.consultationId()));
+                    summaryDTO.setScore(hit.score());
+                    return summaryDTO;
+                })
+                .toList();
+
+        return success("Consultation search completed", results);
+    }
+
+    @Override
+    public Response<?> rebuildSearchIndex() {
+        searchIndex.rebuild();
+        return success("Consultation search index rebuild started", null);
     }
 
     private <T> Response<T> success(String message, T data) {
@@ -0,0 +1,45 @@
+package com.nayoung.telemed.consultation.service;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Set of consultation ids: a BitSet per block of 65536 consecutive ids. Dense ids cost a bit each, as in a single
+ * BitSet, but ids past the int range a single BitSet can address work too.
+ */
+final class IdBitmap {
+
+    private static final int BLOCK_BITS = 16;
+    private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+
+    private final Map<Long, BitSet> blocks = new HashMap<>();
+    private long cardinality;
+
+    boolean get(long id) {
+        BitSet block = blocks.get(id >>> BLOCK_BITS);
+        return block != null && block.get((int) (id & BLOCK_MASK));
+    }
+
+    void set(long id) {
+        BitSet block = blocks.computeIfAbsent(id >>> BLOCK_BITS, key -> new BitSet(1 << BLOCK_BITS));
+        int bit = (int) (id & BLOCK_MASK);
+        if (!block.get(bit)) {
+            block.set(bit);
+            cardinality++;
+        }
+    }
+
+    void or(IdBitmap other) {
+        other.blocks.forEach((key, bits) -> {
+            BitSet block = blocks.computeIfAbsent(key, k -> new BitSet(1 << BLOCK_BITS));
+            cardinality -= block.cardinality();
+            block.or(bits);
+            cardinality += block.cardinality();
+        });
+    }
+
+    long cardinality() {
+        return cardinality;
+    }
+}
@@ -0,0 +1,45 @@
+package com.nayoung.telemed.consultation.service;
+
+/**
+ * One part of the consultation search index: the in-memory buffer of recent notes or a segment file on disk.
+ * Documents are numbered from 0 within the segment; postings list them in that order.
+ */
+interface IndexSegment {
+
+    int docCount();
+
+    // sum of the token counts of all documents, for the average document length
+    long totalLength();
+
+    long consultationId(int doc);
+
+    long doctorId(int doc);
+
+    long patientId(int doc);
+
+    int length(int doc);
+
+    // null when no document in this segment contains the term
+    PostingCursor postings(String term);
+
+    /**
+     * Walks the postings of one term in document order. Starts before the first posting.
+     */
+    interface PostingCursor {
+
+        int docFreq();
+
+        // moves to the next posting, false when there is none
+        boolean next();
+
+        // moves to the first posting at or after the given document, false when there is none
+        boolean advance(int target);
+
+        int doc();
+
+        int termFrequency();
+
+        // bit set of the ConsultationNoteField ordinals the term occurs in
+        int fields();
+    }
+}
@@ -0,0 +1,17 @@
+package com.nayoung.telemed.consultation.service;
+
+import com.nayoung.telemed.enums.ConsultationNoteField;
+
+// what the search index reads from a consultation: its notes and who may see them
+record IndexedNote(long consultationId, long doctorId, long patientId,
+                   String subjectiveNotes, String objectiveFindings, String assessment, String plan) {
+
+    String text(ConsultationNoteField field) {
+        return switch (field) {
+            case SUBJECTIVE -> subjectiveNotes;
+            case OBJECTIVE -> objectiveFindings;
+            case ASSESSMENT -> assessment;
+            case PLAN -> plan;
+        };
+    }
+}
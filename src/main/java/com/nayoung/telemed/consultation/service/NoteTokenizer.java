@@ -0,0 +1,55 @@
+package com.nayoung.telemed.consultation.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits note text into index terms: runs of letters and digits, lower-cased, so "Hypertension," and
+ * "hypertension" match. No stemming, clinical terms are searched as written. Query text goes through the same
+ * tokenizer as the notes.
+ */
+final class NoteTokenizer {
+
+    static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "he", "in", "is", "it", "its",
+            "of", "on", "or", "she", "that", "the", "to", "was", "were", "will", "with");
+
+    private NoteTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); ) {
+            int codePoint = i < text.length() ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                addTerm(terms, text.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String word) {
+        // single characters and very long runs (pasted identifiers, base64) only bloat the index
+        if (word.length() < 2 || word.length() > MAX_TERM_LENGTH) {
+            return;
+        }
+        String term = word.toLowerCase(Locale.ROOT);
+        if (!STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.nayoung.telemed.consultation.service;
+
+import com.nayoung.telemed.enums.ConsultationNoteField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heap segment the newest notes are added to until it is written out as a SegmentFile. Not thread safe,
+ * ConsultationSearchIndex guards it with its lock.
+ */
+final class SegmentBuffer implements IndexSegment {
+
+    // a posting's term frequency and field bits share one int
+    static final int FIELD_BITS = 4;
+    static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    static final int MAX_TERM_FREQUENCY = Integer.MAX_VALUE >>> FIELD_BITS;
+
+    private long[] consultationIds = new long[64];
+    private long[] doctorIds = new long[64];
+    private long[] patientIds = new long[64];
+    private int[] lengths = new int[64];
+    private int docCount;
+    private long totalLength;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    void add(IndexedNote note) {
+        Map<String, int[]> terms = new LinkedHashMap<>(); // term -> {frequency, field bits}
+        int length = 0;
+        for (ConsultationNoteField field : ConsultationNoteField.values()) {
+            for (String term : NoteTokenizer.tokenize(note.text(field))) {
+                int[] stats = terms.computeIfAbsent(term, t -> new int[2]);
+                stats[0] = Math.min(stats[0] + 1, MAX_TERM_FREQUENCY);
+                stats[1] |= 1 << field.ordinal();
+                length++;
+            }
+        }
+
+        if (docCount == consultationIds.length) {
+            int capacity = docCount * 2;
+            consultationIds = Arrays.copyOf(consultationIds, capacity);
+            doctorIds = Arrays.copyOf(doctorIds, capacity);
+            patientIds = Arrays.copyOf(patientIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        int doc = docCount++;
+        consultationIds[doc] = note.consultationId();
+        doctorIds[doc] = note.doctorId();
+        patientIds[doc] = note.patientId();
+        lengths[doc] = length;
+        totalLength += length;
+
+        terms.forEach((term, stats) ->
+                postings.computeIfAbsent(term, t -> new Postings()).add(doc, stats[0] << FIELD_BITS | stats[1]));
+    }
+
+    boolean isEmpty() {
+        return docCount == 0;
+    }
+
+    List<String> sortedTerms() {
+        List<String> terms = new ArrayList<>(postings.keySet());
+        terms.sort(null);
+        return terms;
+    }
+
+    @Override
+    public int docCount() {
+        return docCount;
+    }
+
+    @Override
+    public long totalLength() {
+        return totalLength;
+    }
+
+    @Override
+    public long consultationId(int doc) {
+        return consultationIds[doc];
+    }
+
+    @Override
+    public long doctorId(int doc) {
+        return doctorIds[doc];
+    }
+
+    @Override
+    public long patientId(int doc) {
+        return patientIds[doc];
+    }
+
+    @Override
+    public int length(int doc) {
+        return lengths[doc];
+    }
+
+    @Override
+    public PostingCursor postings(String term) {
+        Postings list = postings.get(term);
+        return list == null ? null : new ArrayCursor(list.docs, list.values, list.size);
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int doc, int value) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            docs[size] = doc;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    private static final class ArrayCursor implements PostingCursor {
+        private final int[] docs;
+        private final int[] values;
+        private final int size;
+        private int index = -1;
+
+        private ArrayCursor(int[] docs, int[] values, int size) {
+            this.docs = docs;
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public int docFreq() {
+            return size;
+        }
+
+        @Override
+        public boolean next() {
+            return ++index < size;
+        }
+
+        @Override
+        public boolean advance(int target) {
+            int from = Math.max(index, 0);
+            int found = Arrays.binarySearch(docs, from, size, target);
+            index = found >= 0 ? found : -found - 1;
+            return index < size;
+        }
+
+        @Override
+        public int doc() {
+            return docs[index];
+        }
+
+        @Override
+        public int termFrequency() {
+            return values[index] >>> FIELD_BITS;
+        }
+
+        @Override
+        public int fields() {
+            return values[index] & FIELD_MASK;
+        }
+    }
+}
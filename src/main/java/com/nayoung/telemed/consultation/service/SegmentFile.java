@@ -0,0 +1,396 @@
+package com.nayoung.telemed.consultation.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable segment of the search index on local disk. Layout, big-endian:
+ * <pre>
+ * documents  docCount x (long consultationId, long doctorId, long patientId, int length)
+ * postings   per term, docFreq x (int doc, int frequency &lt;&lt; 4 | field bits), in document order
+ * terms      termCount x (short byteLength, UTF-8 bytes, int docFreq, int postingsOffset), sorted
+ * trailer    long postingsOffset, long termsOffset, long totalLength, int docCount, int termCount, int version, int magic
+ * </pre>
+ * Documents and postings are memory-mapped, so a search only pages in the postings of its query terms; the sorted
+ * term dictionary is read onto the heap for the binary search. Files are written under a temporary name and moved
+ * into place, a segment is never modified once visible. Only the owner may read or write them.
+ */
+final class SegmentFile implements IndexSegment {
+
+    static final String EXTENSION = ".seg";
+
+    private static final int MAGIC = 0x54454D49; // "TEMI"
+    private static final int VERSION = 1;
+    private static final int DOC_BYTES = 28;
+    private static final int POSTING_BYTES = 8;
+    private static final int TRAILER_BYTES = 40;
+
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final int docCount;
+    private final long totalLength;
+    private final String[] terms;
+    private final int[] docFreqs;
+    private final int[] postingOffsets;
+
+    private SegmentFile(Path path, MappedByteBuffer data, int docCount, long totalLength,
+                        String[] terms, int[] docFreqs, int[] postingOffsets) {
+        this.path = path;
+        this.data = data;
+        this.docCount = docCount;
+        this.totalLength = totalLength;
+        this.terms = terms;
+        this.docFreqs = docFreqs;
+        this.postingOffsets = postingOffsets;
+    }
+
+    static SegmentFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TRAILER_BYTES) {
+                throw new IOException("Truncated index segment " + path);
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES);
+            channel.read(trailer, size - TRAILER_BYTES);
+            trailer.flip();
+            long postingsOffset = trailer.getLong();
+            long termsOffset = trailer.getLong();
+            long totalLength = trailer.getLong();
+            int docCount = trailer.getInt();
+            int termCount = trailer.getInt();
+            int version = trailer.getInt();
+            if (trailer.getInt() != MAGIC || version != VERSION
+                    || postingsOffset != (long) docCount * DOC_BYTES
+                    || termsOffset < postingsOffset || termsOffset > size - TRAILER_BYTES
+                    || termsOffset > Integer.MAX_VALUE) {
+                throw new IOException("Unreadable index segment " + path);
+            }
+
+            // the dictionary is read once onto the heap, documents and postings stay mapped
+            ByteBuffer dictionary = ByteBuffer.allocate(Math.toIntExact(size - TRAILER_BYTES - termsOffset));
+            channel.read(dictionary, termsOffset);
+            dictionary.flip();
+            String[] terms = new String[termCount];
+            int[] docFreqs = new int[termCount];
+            int[] postingOffsets = new int[termCount];
+            for (int i = 0; i < termCount; i++) {
+                byte[] bytes = new byte[dictionary.getShort()];
+                dictionary.get(bytes);
+                terms[i] = new String(bytes, StandardCharsets.UTF_8);
+                docFreqs[i] = dictionary.getInt();
+                postingOffsets[i] = dictionary.getInt();
+            }
+
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, termsOffset);
+            return new SegmentFile(path, data, docCount, totalLength, terms, docFreqs, postingOffsets);
+        } catch (RuntimeException e) {
+            throw new IOException("Unreadable index segment " + path, e);
+        }
+    }
+
+    static void write(Path target, SegmentBuffer buffer) throws IOException {
+        try (Writer writer = new Writer(target)) {
+            for (int doc = 0; doc < buffer.docCount(); doc++) {
+                writer.document(buffer.consultationId(doc), buffer.doctorId(doc), buffer.patientId(doc), buffer.length(doc));
+            }
+            writer.startPostings();
+            for (String term : buffer.sortedTerms()) {
+                PostingCursor cursor = buffer.postings(term);
+                writer.startTerm(term, cursor.docFreq());
+                while (cursor.next()) {
+                    writer.posting(cursor.doc(), cursor.termFrequency(), cursor.fields());
+                }
+            }
+            writer.finish(buffer.totalLength());
+        }
+    }
+
+    // concatenates the documents of the sources in order and merges their term dictionaries
+    static void merge(Path target, List<SegmentFile> sources) throws IOException {
+        try (Writer writer = new Writer(target)) {
+            int[] docBase = new int[sources.size()];
+            long totalLength = 0;
+            for (int s = 0; s < sources.size(); s++) {
+                SegmentFile source = sources.get(s);
+                docBase[s] = writer.docCount;
+                totalLength += source.totalLength;
+                for (int doc = 0; doc < source.docCount; doc++) {
+                    writer.document(source.consultationId(doc), source.doctorId(doc), source.patientId(doc), source.length(doc));
+                }
+            }
+            writer.startPostings();
+
+            // k-way merge of the sorted dictionaries; the sources of one term are visited in segment order,
+            // so the rebased document numbers stay ascending
+            PriorityQueue<int[]> heads = new PriorityQueue<>(Comparator
+                    .<int[], String>comparing(head -> sources.get(head[0]).terms[head[1]])
+                    .thenComparingInt(head -> head[0]));
+            for (int s = 0; s < sources.size(); s++) {
+                if (sources.get(s).terms.length > 0) {
+                    heads.add(new int[]{s, 0});
+                }
+            }
+            List<int[]> sameTerm = new ArrayList<>();
+            while (!heads.isEmpty()) {
+                String term = sources.get(heads.peek()[0]).terms[heads.peek()[1]];
+                int docFreq = 0;
+                sameTerm.clear();
+                while (!heads.isEmpty() && sources.get(heads.peek()[0]).terms[heads.peek()[1]].equals(term)) {
+                    int[] head = heads.poll();
+                    sameTerm.add(head);
+                    docFreq += sources.get(head[0]).docFreqs[head[1]];
+                }
+                writer.startTerm(term, docFreq);
+                for (int[] head : sameTerm) {
+                    SegmentFile source = sources.get(head[0]);
+                    PostingCursor cursor = source.cursor(head[1]);
+                    while (cursor.next()) {
+                        writer.posting(docBase[head[0]] + cursor.doc(), cursor.termFrequency(), cursor.fields());
+                    }
+                    if (++head[1] < source.terms.length) {
+                        heads.add(head);
+                    }
+                }
+            }
+            writer.finish(totalLength);
+        }
+    }
+
+    // the index holds note contents: owner-only permissions wherever the file system has POSIX permissions
+    static void createPrivateDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        if (isPosix(directory)) {
+            Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+
+    static void createPrivateFile(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        if (isPosix(file)) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(file);
+        }
+    }
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long sizeInBytes() {
+        return data.capacity();
+    }
+
+    @Override
+    public int docCount() {
+        return docCount;
+    }
+
+    @Override
+    public long totalLength() {
+        return totalLength;
+    }
+
+    @Override
+    public long consultationId(int doc) {
+        return data.getLong(doc * DOC_BYTES);
+    }
+
+    @Override
+    public long doctorId(int doc) {
+        return data.getLong(doc * DOC_BYTES + 8);
+    }
+
+    @Override
+    public long patientId(int doc) {
+        return data.getLong(doc * DOC_BYTES + 16);
+    }
+
+    @Override
+    public int length(int doc) {
+        return data.getInt(doc * DOC_BYTES + 24);
+    }
+
+    @Override
+    public PostingCursor postings(String term) {
+        int index = binarySearch(term);
+        return index < 0 ? null : cursor(index);
+    }
+
+    private int binarySearch(String term) {
+        int low = 0;
+        int high = terms.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = terms[mid].compareTo(term);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private PostingCursor cursor(int termIndex) {
+        return new MappedCursor(data, postingOffsets[termIndex], docFreqs[termIndex]);
+    }
+
+    // postings have a fixed width, so advance() is a binary search over the mapped region
+    private static final class MappedCursor implements PostingCursor {
+        private final ByteBuffer data;
+        private final int offset;
+        private final int size;
+        private int index = -1;
+
+        private MappedCursor(ByteBuffer data, int offset, int size) {
+            this.data = data;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public int docFreq() {
+            return size;
+        }
+
+        @Override
+        public boolean next() {
+            return ++index < size;
+        }
+
+        @Override
+        public boolean advance(int target) {
+            int low = Math.max(index, 0);
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docAt(mid) < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            index = low;
+            return index < size;
+        }
+
+        @Override
+        public int doc() {
+            return docAt(index);
+        }
+
+        @Override
+        public int termFrequency() {
+            return data.getInt(offset + index * POSTING_BYTES + 4) >>> SegmentBuffer.FIELD_BITS;
+        }
+
+        @Override
+        public int fields() {
+            return data.getInt(offset + index * POSTING_BYTES + 4) & SegmentBuffer.FIELD_MASK;
+        }
+
+        private int docAt(int i) {
+            return data.getInt(offset + i * POSTING_BYTES);
+        }
+    }
+
+    private static final class Writer implements AutoCloseable {
+        private final Path target;
+        private final Path temporary;
+        private final DataOutputStream out;
+        private final List<byte[]> termBytes = new ArrayList<>();
+        private final List<int[]> termStats = new ArrayList<>(); // {docFreq, postingsOffset}
+        private long position;
+        private long postingsOffset;
+        private int docCount;
+        private boolean finished;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            createPrivateFile(temporary);
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16));
+        }
+
+        private void document(long consultationId, long doctorId, long patientId, int length) throws IOException {
+            out.writeLong(consultationId);
+            out.writeLong(doctorId);
+            out.writeLong(patientId);
+            out.writeInt(length);
+            position += DOC_BYTES;
+            docCount++;
+        }
+
+        private void startPostings() {
+            postingsOffset = position;
+        }
+
+        private void startTerm(String term, int docFreq) throws IOException {
+            byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+            if (position + (long) docFreq * POSTING_BYTES > Integer.MAX_VALUE) {
+                throw new IOException("Index segment " + target + " would exceed 2 GB");
+            }
+            termBytes.add(bytes);
+            termStats.add(new int[]{docFreq, (int) position});
+        }
+
+        private void posting(int doc, int termFrequency, int fields) throws IOException {
+            out.writeInt(doc);
+            out.writeInt(termFrequency << SegmentBuffer.FIELD_BITS | fields);
+            position += POSTING_BYTES;
+        }
+
+        private void finish(long totalLength) throws IOException {
+            long termsOffset = position;
+            for (int i = 0; i < termBytes.size(); i++) {
+                out.writeShort(termBytes.get(i).length);
+                out.write(termBytes.get(i));
+                out.writeInt(termStats.get(i)[0]);
+                out.writeInt(termStats.get(i)[1]);
+            }
+            out.writeLong(postingsOffset);
+            out.writeLong(termsOffset);
+            out.writeLong(totalLength);
+            out.writeInt(docCount);
+            out.writeInt(termBytes.size());
+            out.writeInt(VERSION);
+            out.writeInt(MAGIC);
+            out.close();
+
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.nayoung.telemed.doctor.mapper;
+
+import com.nayoung.telemed.doctor.dto.DoctorDTO;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.users.mapper.UserMapper;
+
+// maps the doctor and its user, never the appointments collection
+public final class DoctorMapper {
+
+    private DoctorMapper() {
+    }
+
+    public static DoctorDTO toDTO(Doctor doctor) {
+        if (doctor == null) {
+            return null;
+        }
+        return DoctorDTO.builder()
+                .id(doctor.getId())
+                .firstName(doctor.getFirstName())
+                .lastName(doctor.getLastName())
+                .specialization(doctor.getSpecialization())
+                .licenseNumber(doctor.getLicenseNumber())
+                .user(UserMapper.toDTO(doctor.getUser()))
+                .build();
+    }
+}
@@ -3,14 +3,41 @@ package com.nayoung.telemed.doctor.repo;
 import com.nayoung.telemed.doctor.entity.Doctor;
 import com.nayoung.telemed.enums.Specialization;
 import com.nayoung.telemed.users.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface DoctorRepo extends JpaRepository<Doctor, Long> {
 
+    // the user is fetched in the same query, profile responses and notifications read it
+    @EntityGraph(attributePaths = "user")
     Optional<Doctor> findByUser(User user);
 
+    @EntityGraph(attributePaths = "user")
+    Optional<Doctor> findWithUserById(Long id);
+
+    @EntityGraph(attributePaths = "user")
+    List<Doctor> findAllWithUserBy();
+
+    @EntityGraph(attributePaths = "user")
     List<Doctor> findBySpecialization(Specialization specialization);
+
+    boolean existsByUser(User user);
+
+    @Query("SELECT d.specialization AS specialization, COUNT(d) AS doctors FROM Doctor d GROUP BY d.specialization")
+    List<SpecializationCount> countDoctorsPerSpecialization();
+
+    // SELECT ... FOR UPDATE, serializes bookings of one doctor across nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Doctor> findWithLockById(Long id);
+
+    interface SpecializationCount {
+        Specialization getSpecialization();
+        Long getDoctors();
+    }
 }
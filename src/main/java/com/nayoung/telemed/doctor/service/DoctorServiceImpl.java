@@ -1,7 +1,9 @@
 package com.nayoung.telemed.doctor.service;
 
+import com.nayoung.telemed.appointment.service.AvailabilityIndex;
 import com.nayoung.telemed.doctor.dto.DoctorDTO;
 import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.doctor.mapper.DoctorMapper;
 import com.nayoung.telemed.doctor.repo.DoctorRepo;
 import com.nayoung.telemed.enums.Specialization;
 import com.nayoung.telemed.exceptions.BadRequestException;
@@ -11,7 +13,6 @@ import com.nayoung.telemed.users.entity.User;
 import com.nayoung.telemed.users.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -26,7 +27,7 @@ public class DoctorServiceImpl implements DoctorService{
 
     private final DoctorRepo doctorRepo;
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final AvailabilityIndex availabilityIndex;
 
     @Override
     public Response<DoctorDTO> getDoctorProfile() {
@@ -35,7 +36,7 @@ public class DoctorServiceImpl implements DoctorService{
         Doctor doctor = doctorRepo.findByUser(user)
                 .orElseThrow(() -> new BadRequestException("Doctor not found"));
 
-        return success("Doctor profile retrieved successfully", modelMapper.map(doctor, DoctorDTO.class));
+        return success("Doctor profile retrieved successfully", DoctorMapper.toDTO(doctor));
     }
 
     @Override
@@ -59,6 +60,7 @@ public class DoctorServiceImpl implements DoctorService{
         Optional.ofNullable(doctorDTO.getSpecialization()).ifPresent(doctor::setSpecialization);
 
         doctorRepo.save(doctor);
+        availabilityIndex.invalidateAll(); // name or specialization shown in availability search may have changed
         log.info("Doctor profile updated");
 
         return success("Doctor profile updated successfully", null);
@@ -66,8 +68,8 @@ public class DoctorServiceImpl implements DoctorService{
 
     @Override
     public Response<List<DoctorDTO>> getAllDoctors() {
-        List<DoctorDTO> doctorDTOS = doctorRepo.findAll().stream()
-                .map(doctor -> modelMapper.map(doctor, DoctorDTO.class))
+        List<DoctorDTO> doctorDTOS = doctorRepo.findAllWithUserBy().stream()
+                .map(DoctorMapper::toDTO)
                 .toList();
 
         return success("All doctors retrieved successfully", doctorDTOS);
@@ -75,10 +77,10 @@ public class DoctorServiceImpl implements DoctorService{
 
     @Override
     public Response<DoctorDTO> getDoctorById(Long doctorId) {
-        Doctor doctor = doctorRepo.findById(doctorId)
+        Doctor doctor = doctorRepo.findWithUserById(doctorId)
                 .orElseThrow(() -> new BadRequestException("Doctor not found with ID: " + doctorId));
 
-        DoctorDTO doctorDTO = modelMapper.map(doctor, DoctorDTO.class);
+        DoctorDTO doctorDTO = DoctorMapper.toDTO(doctor);
 
         return success("Doctor retrieved successfully", doctorDTO);
     }
@@ -88,7 +90,7 @@ public class DoctorServiceImpl implements DoctorService{
         List<Doctor> doctors = doctorRepo.findBySpecialization(specialization);
 
         List<DoctorDTO> doctorDTOS = doctors.stream()
-                .map(doctor -> modelMapper.map(doctor, DoctorDTO.class))
+                .map(DoctorMapper::toDTO)
                 .toList();
 
         String message = doctorDTOS.isEmpty() ?
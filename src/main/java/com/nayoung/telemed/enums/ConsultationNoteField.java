@@ -0,0 +1,9 @@
+package com.nayoung.telemed.enums;
+
+// the SOAP sections of a consultation note
+public enum ConsultationNoteField {
+    SUBJECTIVE,
+    OBJECTIVE,
+    ASSESSMENT,
+    PLAN
+}
@@ -0,0 +1,7 @@
+package com.nayoung.telemed.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
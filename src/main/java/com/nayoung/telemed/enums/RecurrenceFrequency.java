@@ -0,0 +1,16 @@
+package com.nayoung.telemed.enums;
+
+public enum RecurrenceFrequency {
+    WEEKLY(1),
+    BIWEEKLY(2);
+
+    private final int intervalWeeks;
+
+    RecurrenceFrequency(int intervalWeeks) {
+        this.intervalWeeks = intervalWeeks;
+    }
+
+    public int getIntervalWeeks() {
+        return intervalWeeks;
+    }
+}
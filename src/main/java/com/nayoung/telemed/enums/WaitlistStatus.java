@@ -0,0 +1,9 @@
+package com.nayoung.telemed.enums;
+
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED, // a freed slot was offered to the patient, open until the offer expires
+    BOOKED,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,14 @@
+package com.nayoung.telemed.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends RuntimeException{
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String ex, long retryAfterSeconds) {
+        super(ex);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
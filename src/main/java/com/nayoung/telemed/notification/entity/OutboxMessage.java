@@ -0,0 +1,74 @@
+package com.nayoung.telemed.notification.entity;
+
+import com.nayoung.telemed.enums.NotificationType;
+import com.nayoung.telemed.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification written in the same transaction as the change it announces, delivered later by the OutboxRelay.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "notification_outbox",
+        indexes = {
+                // the relay polls for due PENDING rows, the retention sweep for old SENT ones
+                @Index(name = "idx_outbox_status_available", columnList = "status, available_at"),
+                @Index(name = "idx_outbox_lease_owner", columnList = "lease_owner")
+        })
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    private String templateName;
+
+    // template variables as JSON
+    @Column(columnDefinition = "TEXT")
+    private String templateVariables;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // next delivery attempt while PENDING; while leased, the time the lease runs out
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,70 @@
+package com.nayoung.telemed.notification.repo;
+
+import com.nayoung.telemed.enums.OutboxStatus;
+import com.nayoung.telemed.notification.entity.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxMessageRepo extends JpaRepository<OutboxMessage, Long> {
+
+    // PENDING rows whose retry time or expired lease has come
+    @Query("SELECT m.id FROM OutboxMessage m " +
+            "WHERE m.status = 'PENDING' AND m.availableAt <= :now " +
+            "ORDER BY m.availableAt, m.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // re-checks due-ness, so of several nodes that read the same ids only one leases each row
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.leaseOwner = :owner, m.availableAt = :leaseUntil, m.attempts = m.attempts + 1 " +
+            "WHERE m.id IN :ids AND m.status = 'PENDING' AND m.availableAt <= :now")
+    int lease(
+            @Param("ids") List<Long> ids,
+            @Param("owner") String owner,
+            @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("now") LocalDateTime now
+    );
+
+    List<OutboxMessage> findByLeaseOwnerAndStatus(String leaseOwner, OutboxStatus status);
+
+    // extends a lease that is still held, right before its row is sent; 0 once it ran out or another node took it
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.availableAt = :leaseUntil " +
+            "WHERE m.id = :id AND m.leaseOwner = :owner AND m.status = 'PENDING' AND m.availableAt > :now")
+    int renewLease(
+            @Param("id") Long id,
+            @Param("owner") String owner,
+            @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("now") LocalDateTime now
+    );
+
+    // a row whose lease expired and was taken over by another node is left to that node
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.status = 'SENT', m.sentAt = :now, m.lastError = null " +
+            "WHERE m.id IN :ids AND m.leaseOwner = :owner")
+    int markSent(@Param("ids") List<Long> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.availableAt = :availableAt, m.lastError = :error " +
+            "WHERE m.id = :id AND m.leaseOwner = :owner")
+    int markFailedAttempt(
+            @Param("id") Long id,
+            @Param("owner") String owner,
+            @Param("status") OutboxStatus status,
+            @Param("availableAt") LocalDateTime availableAt,
+            @Param("error") String error
+    );
+
+    @Query("SELECT m.id FROM OutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :cutoff")
+    List<Long> findSentIdsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
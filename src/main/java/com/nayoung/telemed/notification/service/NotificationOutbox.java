@@ -0,0 +1,59 @@
+package com.nayoung.telemed.notification.service;
+
+import com.nayoung.telemed.enums.NotificationType;
+import com.nayoung.telemed.enums.OutboxStatus;
+import com.nayoung.telemed.notification.dto.NotificationDTO;
+import com.nayoung.telemed.notification.entity.OutboxMessage;
+import com.nayoung.telemed.notification.repo.OutboxMessageRepo;
+import com.nayoung.telemed.users.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records emails as outbox rows in the caller's transaction: they are sent if and only if it commits,
+ * and survive a restart between the commit and the send. Delivery is left to the OutboxRelay.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    private final OutboxMessageRepo outboxMessageRepo;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    public void enqueue(NotificationDTO notificationDTO, User user) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox messages must be written inside the transaction of the change they announce");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage message = OutboxMessage.builder()
+                .recipient(notificationDTO.getRecipient())
+                .subject(notificationDTO.getSubject())
+                .templateName(notificationDTO.getTemplateName())
+                .templateVariables(notificationDTO.getTemplateVariables() == null
+                        ? null : objectMapper.writeValueAsString(notificationDTO.getTemplateVariables()))
+                .message(notificationDTO.getMessage())
+                .type(notificationDTO.getType() == null ? NotificationType.EMAIL : notificationDTO.getType())
+                .userId(user.getId())
+                .status(OutboxStatus.PENDING)
+                .availableAt(now)
+                .createdAt(now)
+                .build();
+
+        outboxMessageRepo.save(message);
+
+        // no need to wait for the next poll once the row is visible
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+}
@@ -5,4 +5,7 @@ import com.nayoung.telemed.users.entity.User;
 
 public interface NotificationService {
     void sendEmail(NotificationDTO notificationDTO, User user);
+
+    // sends on the calling thread and throws when the mail could not be sent, for callers that retry
+    void deliverEmail(NotificationDTO notificationDTO, User user);
 }
@@ -4,9 +4,11 @@ import com.nayoung.telemed.notification.dto.NotificationDTO;
 import com.nayoung.telemed.notification.entity.Notification;
 import com.nayoung.telemed.notification.repo.NotificationRepo;
 import com.nayoung.telemed.users.entity.User;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
@@ -28,6 +30,15 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Async
     public void sendEmail(NotificationDTO notificationDTO, User user) {
+        try {
+            deliverEmail(notificationDTO, user);
+        } catch (Exception e) {
+            log.info(e.getMessage());
+        }
+    }
+
+    @Override
+    public void deliverEmail(NotificationDTO notificationDTO, User user) {
         try {
             MimeMessage mimeMessage = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(
@@ -51,20 +62,19 @@ public class NotificationServiceImpl implements NotificationService {
 
             mailSender.send(mimeMessage);
             log.info("Email sent out");
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Could not build email to " + notificationDTO.getRecipient(), e);
+        }
 
-            // save to database table
-            Notification notificationToSave = Notification.builder()
-                    .recipient(notificationDTO.getRecipient())
-                    .subject(notificationDTO.getSubject())
-                    .message(notificationDTO.getMessage())
-                    .type(notificationDTO.getType())
-                    .user(user)
-                    .build();
-
-             notificationRepo.save(notificationToSave);
+        // save to database table
+        Notification notificationToSave = Notification.builder()
+                .recipient(notificationDTO.getRecipient())
+                .subject(notificationDTO.getSubject())
+                .message(notificationDTO.getMessage())
+                .type(notificationDTO.getType())
+                .user(user)
+                .build();
 
-        } catch (Exception e) {
-            log.info(e.getMessage());
-        }
+        notificationRepo.save(notificationToSave);
     }
 }
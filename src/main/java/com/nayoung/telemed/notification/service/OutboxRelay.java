@@ -0,0 +1,204 @@
+package com.nayoung.telemed.notification.service;
+
+import com.nayoung.telemed.enums.OutboxStatus;
+import com.nayoung.telemed.notification.dto.NotificationDTO;
+import com.nayoung.telemed.notification.entity.OutboxMessage;
+import com.nayoung.telemed.notification.repo.OutboxMessageRepo;
+import com.nayoung.telemed.users.repo.UserRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the notification outbox. Due rows are leased in batches with a conditional update, so any number of
+ * nodes can relay side by side; a lease left behind by a node that died runs out and the row is picked up again.
+ * Delivery is at least once: a crash between sending and marking a row SENT repeats that one email.
+ * Failed sends are retried with exponential backoff until notification.outbox.max-attempts, then marked FAILED.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int PURGE_CHUNK_SIZE = 500;
+
+    private final OutboxMessageRepo outboxMessageRepo;
+    private final UserRepo userRepo;
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notification.outbox.poll-interval-ms:5000}")
+    private long pollIntervalMillis;
+
+    @Value("${notification.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${notification.outbox.max-batches:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${notification.outbox.lease-ms:120000}")
+    private long leaseMillis;
+
+    @Value("${notification.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.retry-backoff-ms:30000}")
+    private long retryBackoffMillis;
+
+    @Value("${notification.outbox.retention-hours:168}")
+    private long retentionHours;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    private void init() {
+        // own thread: slow SMTP round trips must not hold up the shared @Scheduled jobs
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::relay, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    // coalesces wake-ups, a relay run already queued picks up every row committed before it starts
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                relay();
+            });
+        }
+    }
+
+    private void relay() {
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                if (relayBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Notification outbox relay failed", e);
+        }
+    }
+
+    // returns the number of due rows seen, so the caller knows whether more are waiting
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboxMessageRepo.findDueIds(now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        String leaseOwner = UUID.randomUUID().toString();
+        if (outboxMessageRepo.lease(dueIds, leaseOwner, now.plus(leaseMillis, ChronoUnit.MILLIS), now) == 0) {
+            return dueIds.size(); // all taken by another node
+        }
+
+        // each row is renewed right before and marked right after its own send, so however long the batch takes,
+        // a row is never sent again by a node that took over an expired lease
+        int sent = 0;
+        for (OutboxMessage message : outboxMessageRepo.findByLeaseOwnerAndStatus(leaseOwner, OutboxStatus.PENDING)) {
+            LocalDateTime sendAt = LocalDateTime.now();
+            LocalDateTime leaseUntil = sendAt.plus(leaseMillis, ChronoUnit.MILLIS);
+            if (outboxMessageRepo.renewLease(message.getId(), leaseOwner, leaseUntil, sendAt) == 0) {
+                continue; // lease ran out while earlier rows were sent, left to whoever leases it next
+            }
+            try {
+                notificationService.deliverEmail(toNotification(message),
+                        message.getUserId() == null ? null : userRepo.getReferenceById(message.getUserId()));
+            } catch (Exception e) {
+                recordFailure(message, leaseOwner, e);
+                continue;
+            }
+            outboxMessageRepo.markSent(List.of(message.getId()), leaseOwner, LocalDateTime.now());
+            sent++;
+        }
+
+        if (sent > 0) {
+            log.info("Relayed {} outbox notifications", sent);
+        }
+        return dueIds.size();
+    }
+
+    private void recordFailure(OutboxMessage message, String leaseOwner, Exception e) {
+        // attempts was already incremented by the lease
+        int attempts = message.getAttempts();
+        String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (attempts >= maxAttempts) {
+            outboxMessageRepo.markFailedAttempt(message.getId(), leaseOwner, OutboxStatus.FAILED, LocalDateTime.now(), error);
+            log.error("Giving up on outbox notification {} to {} after {} attempts",
+                    message.getId(), message.getRecipient(), attempts, e);
+            return;
+        }
+
+        long backoffMillis = retryBackoffMillis << Math.min(attempts - 1, 20);
+        outboxMessageRepo.markFailedAttempt(message.getId(), leaseOwner, OutboxStatus.PENDING,
+                LocalDateTime.now().plus(backoffMillis, ChronoUnit.MILLIS), error);
+        log.warn("Outbox notification {} to {} failed (attempt {}), retrying in {} ms: {}",
+                message.getId(), message.getRecipient(), attempts, backoffMillis, error);
+    }
+
+    private NotificationDTO toNotification(OutboxMessage message) {
+        return NotificationDTO.builder()
+                .recipient(message.getRecipient())
+                .subject(message.getSubject())
+                .message(message.getMessage())
+                .type(message.getType())
+                .templateName(message.getTemplateName())
+                .templateVariables(message.getTemplateVariables() == null
+                        ? null : objectMapper.readValue(message.getTemplateVariables(), VARIABLES_TYPE))
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int purged = 0;
+
+        for (int chunk = 0; chunk < maxBatchesPerRun; chunk++) {
+            List<Long> ids = outboxMessageRepo.findSentIdsBefore(cutoff, PageRequest.of(0, PURGE_CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            outboxMessageRepo.deleteAllByIdInBatch(ids);
+            purged += ids.size();
+        }
+
+        if (purged > 0) {
+            log.info("Purged {} sent outbox notifications older than {} hours", purged, retentionHours);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.nayoung.telemed.patient.mapper;
+
+import com.nayoung.telemed.patient.dto.PatientDTO;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.users.mapper.UserMapper;
+
+// maps the patient and its user, never the appointments collection
+public final class PatientMapper {
+
+    private PatientMapper() {
+    }
+
+    public static PatientDTO toDTO(Patient patient) {
+        if (patient == null) {
+            return null;
+        }
+        return PatientDTO.builder()
+                .id(patient.getId())
+                .firstName(patient.getFirstName())
+                .lastName(patient.getLastName())
+                .dateOfBirth(patient.getDateOfBirth())
+                .phone(patient.getPhone())
+                .knownAllergies(patient.getKnownAllergies())
+                .bloodGroup(patient.getBloodGroup())
+                .genotype(patient.getGenotype())
+                .user(UserMapper.toDTO(patient.getUser()))
+                .build();
+    }
+}
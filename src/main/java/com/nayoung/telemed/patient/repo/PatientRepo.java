@@ -2,11 +2,23 @@ package com.nayoung.telemed.patient.repo;
 
 import com.nayoung.telemed.patient.entity.Patient;
 import com.nayoung.telemed.users.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PatientRepo extends JpaRepository<Patient, Long> {
 
+    // the user is fetched in the same query, profile responses and notifications read it
+    @EntityGraph(attributePaths = "user")
     Optional<Patient> findByUser(User user);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Patient> findWithUserById(Long id);
+
+    @EntityGraph(attributePaths = "user")
+    List<Patient> findAllWithUserBy();
+
+    boolean existsByUser(User user);
 }
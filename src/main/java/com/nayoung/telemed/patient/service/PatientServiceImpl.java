@@ -6,13 +6,13 @@ import com.nayoung.telemed.exceptions.BadRequestException;
 import com.nayoung.telemed.exceptions.NotFoundException;
 import com.nayoung.telemed.patient.dto.PatientDTO;
 import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.patient.mapper.PatientMapper;
 import com.nayoung.telemed.patient.repo.PatientRepo;
 import com.nayoung.telemed.res.Response;
 import com.nayoung.telemed.users.entity.User;
 import com.nayoung.telemed.users.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -27,7 +27,6 @@ public class PatientServiceImpl implements PatientService{
 
     private final PatientRepo patientRepo;
     private final UserService userService;
-    private final ModelMapper modelMapper;
 
     @Override
     public Response<PatientDTO> getPatientProfile() {
@@ -36,7 +35,7 @@ public class PatientServiceImpl implements PatientService{
         Patient patient = patientRepo.findByUser(user)
                 .orElseThrow(() -> new NotFoundException("Patient not found"));
 
-        return success("Patient profile retrieved successfully", modelMapper.map(patient, PatientDTO.class));
+        return success("Patient profile retrieved successfully", PatientMapper.toDTO(patient));
     }
 
     @Override
@@ -76,10 +75,10 @@ public class PatientServiceImpl implements PatientService{
 
     @Override
     public Response<PatientDTO> getPatientById(Long patientId) {
-        Patient patient = patientRepo.findById(patientId)
+        Patient patient = patientRepo.findWithUserById(patientId)
                 .orElseThrow(() -> new BadRequestException("Patient not found with ID: " + patientId));
 
-        PatientDTO patientDTO = modelMapper.map(patient, PatientDTO.class);
+        PatientDTO patientDTO = PatientMapper.toDTO(patient);
 
         return success("Patient retrieved successfully", patientDTO);
     }
@@ -101,8 +100,8 @@ public class PatientServiceImpl implements PatientService{
 
     @Override
     public Response<List<PatientDTO>> getAllPatients() {
-        List<PatientDTO> patientDTOS = patientRepo.findAll().stream()
-                .map(patient -> modelMapper.map(patient, PatientDTO.class))
+        List<PatientDTO> patientDTOS = patientRepo.findAllWithUserBy().stream()
+                .map(PatientMapper::toDTO)
                 .toList();
 
         return success("All patients retrieved successfully", patientDTOS);
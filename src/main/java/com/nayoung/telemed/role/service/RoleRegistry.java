@@ -0,0 +1,103 @@
+package com.nayoung.telemed.role.service;
+
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.role.repo.RoleRepo;
+import com.nayoung.telemed.users.entity.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of all roles, loaded at startup and replaced copy-on-write whenever a role changes.
+ * Reads never query the database or take a lock.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    public static final String PATIENT = "PATIENT";
+    public static final String DOCTOR = "DOCTOR";
+    public static final String ADMIN = "ADMIN";
+
+    private final RoleRepo roleRepo;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    @PostConstruct
+    private void init() {
+        reload();
+    }
+
+    // picks up changes made on other nodes
+    @Scheduled(fixedDelayString = "${role.registry.refresh-ms:300000}")
+    public void reload() {
+        snapshot = Snapshot.of(roleRepo.findAll());
+        log.debug("Role registry loaded with {} roles", snapshot.rolesByName().size());
+    }
+
+    public Optional<Role> findByName(String name) {
+        return Optional.ofNullable(snapshot.rolesByName().get(name.toUpperCase()));
+    }
+
+    // a role the registry no longer has grants nothing, even if the user or a token still names it
+    public boolean hasRole(User user, String roleName) {
+        Role known = snapshot.rolesByName().get(roleName.toUpperCase());
+        return known != null && user.getRoles() != null && user.getRoles().stream()
+                .anyMatch(role -> known.getName().equals(role.getName()));
+    }
+
+    // shared authority instances instead of allocating new ones per request, unknown roles are dropped
+    public List<GrantedAuthority> authoritiesOf(Collection<Role> roles) {
+        Map<String, GrantedAuthority> authorities = snapshot.authoritiesByName();
+        return roles.stream()
+                .map(role -> authorities.get(role.getName()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public synchronized void put(Role role) {
+        Map<String, Role> roles = new HashMap<>(snapshot.rolesByName());
+        roles.values().removeIf(existing -> existing.getId().equals(role.getId())); // drops the old name on rename
+        roles.put(role.getName().toUpperCase(), copyOf(role));
+        snapshot = Snapshot.of(roles.values());
+    }
+
+    public synchronized void remove(Long roleId) {
+        Map<String, Role> roles = new HashMap<>(snapshot.rolesByName());
+        roles.values().removeIf(existing -> existing.getId().equals(roleId));
+        snapshot = Snapshot.of(roles.values());
+    }
+
+    // registry entries are shared across threads, never hand out the caller's mutable instance
+    private static Role copyOf(Role role) {
+        return Role.builder()
+                .id(role.getId())
+                .name(role.getName())
+                .build();
+    }
+
+    private record Snapshot(Map<String, Role> rolesByName, Map<String, GrantedAuthority> authoritiesByName) {
+
+        static Snapshot of(Collection<Role> roles) {
+            Map<String, Role> rolesByName = new HashMap<>();
+            Map<String, GrantedAuthority> authoritiesByName = new HashMap<>();
+            for (Role role : roles) {
+                rolesByName.put(role.getName().toUpperCase(), copyOf(role));
+                authoritiesByName.put(role.getName(), new SimpleGrantedAuthority(role.getName()));
+            }
+            return new Snapshot(Map.copyOf(rolesByName), Map.copyOf(authoritiesByName));
+        }
+    }
+}
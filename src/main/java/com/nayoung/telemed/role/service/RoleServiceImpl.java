@@ -4,6 +4,7 @@ import com.nayoung.telemed.exceptions.NotFoundException;
 import com.nayoung.telemed.res.Response;
 import com.nayoung.telemed.role.entity.Role;
 import com.nayoung.telemed.role.repo.RoleRepo;
+import com.nayoung.telemed.users.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,10 +17,13 @@ import java.util.List;
 public class RoleServiceImpl implements RoleService{
 
     private final RoleRepo roleRepo;
+    private final UserCache userCache; // cached users carry their roles
+    private final RoleRegistry roleRegistry;
 
     @Override
     public Response<Role> createRole(Role roleRequest) {
         Role savedRole = roleRepo.save(roleRequest);
+        roleRegistry.put(savedRole);
 
         return success("Role saved successfully", savedRole);
     }
@@ -32,6 +36,8 @@ public class RoleServiceImpl implements RoleService{
         role.setName(roleRequest.getName());
 
         Role updatedRole = roleRepo.save(role);
+        roleRegistry.put(updatedRole);
+        userCache.evictAll();
 
         return success("Role updated successfully", updatedRole);
     }
@@ -51,6 +57,8 @@ public class RoleServiceImpl implements RoleService{
             throw new NotFoundException("Role not found");
         }
         roleRepo.deleteById(id);
+        roleRegistry.remove(id);
+        userCache.evictAll();
 
         return success("Role deleted successfully", null);
     }
@@ -1,12 +1,14 @@
 package com.nayoung.telemed.security;
 
 import com.nayoung.telemed.exceptions.CustomAuthenticationEntryPoint;
+import com.nayoung.telemed.role.service.RoleRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
@@ -27,6 +29,11 @@ public class AuthFilter extends OncePerRequestFilter { // first entry point of a
     private final JwtService tokenService;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final CustomUserDetailsService customUserDetailsService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final RoleRegistry roleRegistry;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessAuthEnabled;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -37,9 +44,9 @@ public class AuthFilter extends OncePerRequestFilter { // first entry point of a
         String token = getTokenFromRequest(request);
 
         if (token != null) {
-            String email;
+            VerifiedToken verifiedToken;
             try {
-                email = tokenService.getUsernameFromToken(token);
+                verifiedToken = tokenService.verifyToken(token); // single parse, cached for repeat requests
             } catch (Exception ex) {
                 log.error("Exception occurred while extracting username from token");
                 AuthenticationException authenticationException = new BadCredentialsException(ex.getMessage());
@@ -47,10 +54,22 @@ public class AuthFilter extends OncePerRequestFilter { // first entry point of a
                 return;
             }
 
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+            String email = verifiedToken.subject();
+            UserDetails userDetails;
+
+            if (statelessAuthEnabled && verifiedToken.hasIdentityClaims()) {
+                // claims-based auth: authorities come straight from the token, no user lookup
+                if (tokenRevocationRegistry.isRevoked(verifiedToken.userId(), verifiedToken.tokenVersion())) {
+                    customAuthenticationEntryPoint.commence(request, response, new BadCredentialsException("Token has been revoked"));
+                    return;
+                }
+                userDetails = AuthUser.fromClaims(verifiedToken, roleRegistry);
+            } else {
+                userDetails = customUserDetailsService.loadUserByUsername(email);
+            }
 
             // validate token & set authentication for security context
-            if (StringUtils.hasText(email) && tokenService.isTokenValid(token, userDetails)) {
+            if (StringUtils.hasText(email) && tokenService.isTokenValid(verifiedToken, userDetails)) {
 
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -1,5 +1,7 @@
 package com.nayoung.telemed.security;
 
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.role.service.RoleRegistry;
 import com.nayoung.telemed.users.entity.User;
 import lombok.Builder;
 import lombok.Data;
@@ -16,8 +18,34 @@ public class AuthUser implements UserDetails {
 
     private User user;
 
+    // resolved once from the role registry, falls back to the user's roles when not set
+    private Collection<? extends GrantedAuthority> authorities;
+
+    // true when built from token claims, the user then only has id, email, roles and token version
+    private boolean claimsOnly;
+
+    public static AuthUser fromClaims(VerifiedToken verifiedToken, RoleRegistry roleRegistry) {
+        User user = User.builder()
+                .id(verifiedToken.userId())
+                .email(verifiedToken.subject())
+                .roles(verifiedToken.roles().stream()
+                        .map(roleName -> Role.builder().name(roleName).build())
+                        .toList())
+                .tokenVersion(verifiedToken.tokenVersion())
+                .build();
+
+        return AuthUser.builder()
+                .user(user)
+                .authorities(roleRegistry.authoritiesOf(user.getRoles()))
+                .claimsOnly(true)
+                .build();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (authorities != null) {
+            return authorities;
+        }
         return user.getRoles()
                 .stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
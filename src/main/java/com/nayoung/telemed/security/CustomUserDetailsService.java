@@ -1,8 +1,10 @@
 package com.nayoung.telemed.security;
 
 import com.nayoung.telemed.exceptions.NotFoundException;
+import com.nayoung.telemed.role.service.RoleRegistry;
 import com.nayoung.telemed.users.entity.User;
 import com.nayoung.telemed.users.repo.UserRepo;
+import com.nayoung.telemed.users.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,14 +16,25 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepo userRepo;
+    private final UserCache userCache;
+    private final RoleRegistry roleRegistry;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepo.findByEmail(username)
-                .orElseThrow(() -> new NotFoundException("Email Not Found"));
+        User user = userCache.get(username)
+                .orElseGet(() -> loadAndCache(username));
 
         return AuthUser.builder()
                 .user(user)
+                .authorities(roleRegistry.authoritiesOf(user.getRoles()))
                 .build();
     }
+
+    private User loadAndCache(String email) {
+        User user = userRepo.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Email Not Found"));
+
+        userCache.put(user);
+        return user;
+    }
 }
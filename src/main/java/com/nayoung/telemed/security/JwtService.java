@@ -1,7 +1,12 @@
 package com.nayoung.telemed.security;
 
 
+import com.nayoung.telemed.cache.CacheStats;
+import com.nayoung.telemed.cache.ExpiringCache;
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.users.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,8 +16,11 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.List;
 
 @Service
 public class JwtService { // generate and validate a token for a user
@@ -23,12 +31,26 @@ public class JwtService { // generate and validate a token for a user
     @Value("${jwt.expiration.time}")
     private long EXPIRATION_TIME;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int TOKEN_CACHE_MAX_SIZE;
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+
     private SecretKey key;
 
+    private JwtParser parser; // thread-safe, built once instead of per call
+
+    // verified claims keyed by SHA-256 digest of the token, so repeat requests skip signature check and JSON decoding
+    private ExpiringCache<String, VerifiedToken> verifiedTokens;
+
     @PostConstruct
     private void init(){
         byte[] keyByte = JWT_SECRET.getBytes(StandardCharsets.UTF_8);
         this.key = new SecretKeySpec(keyByte, "HmacSHA256");
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = new ExpiringCache<>("verified-tokens", TOKEN_CACHE_MAX_SIZE);
     }
 
     public String generateToken(String email) {
@@ -40,23 +62,85 @@ public class JwtService { // generate and validate a token for a user
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return extractClaims(token, Claims::getSubject);
+    // embeds identity and roles so the token can be authenticated without loading the user
+    public String generateToken(User user) {
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, user.getRoles().stream().map(Role::getName).toList())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Parses and verifies the token once. Throws a JwtException if the signature is invalid or the token has expired.
+     * Verified tokens are cached until they expire.
+     */
+    public VerifiedToken verifyToken(String token) {
+        String digest = digest(token);
+
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        VerifiedToken verifiedToken = new VerifiedToken(
+                claims.getSubject(),
+                claims.getExpiration(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                extractRoles(claims),
+                claims.get(TOKEN_VERSION_CLAIM, Integer.class));
+
+        // tokens without an expiry are not cached, they would never leave the cache on their own
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, verifiedToken, claims.getExpiration().getTime());
+        }
+        return verifiedToken;
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parser().verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload());
+    public String getUsernameFromToken(String token) {
+        return verifyToken(token).subject();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    public boolean isTokenValid(VerifiedToken verifiedToken, UserDetails userDetails) {
+        return verifiedToken.subject().equals(userDetails.getUsername())
+                && !verifiedToken.isExpired()
+                && !isTokenVersionOutdated(verifiedToken, userDetails);
+    }
+
+    public CacheStats getTokenCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    private boolean isTokenVersionOutdated(VerifiedToken verifiedToken, UserDetails userDetails) {
+        if (verifiedToken.tokenVersion() == null || !(userDetails instanceof AuthUser authUser)) {
+            return false;
+        }
+        return verifiedToken.tokenVersion() < authUser.getUser().getTokenVersion();
+    }
+
+    private List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> roleList)) {
+            return null;
+        }
+        return roleList.stream().map(String::valueOf).toList();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token, Claims::getExpiration).before(new Date());
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,88 @@
+package com.nayoung.telemed.security;
+
+import com.nayoung.telemed.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounds how many BCrypt hashes and verifications run at once, so a login burst can't take every core.
+ * The work stays on the request thread, which waits for it either way; a separate pool would only add a hand-off.
+ * Callers wait up to password.hashing.timeout-ms for a permit, and once password.hashing.queue-capacity callers
+ * are already waiting, further ones fail fast with a 503 instead of piling up.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${password.hashing.concurrency:0}") // 0 = number of available cores
+    private int concurrency;
+
+    @Value("${password.hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${password.hashing.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${password.hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    private void init() {
+        int permitCount = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        this.permits = new Semaphore(permitCount, true);
+
+        log.info("Password hashing limited to {} concurrent hashes, {} waiting", permitCount, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // true when the stored hash was made with a lower cost than the configured one
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueueDepth() {
+        return permits.getQueueLength();
+    }
+
+    private <T> T execute(Supplier<T> task) {
+        if (permits.getQueueLength() >= queueCapacity) {
+            log.warn("Password hashing saturated, {} callers waiting", permits.getQueueLength());
+            throw new ServiceUnavailableException("Server is busy, please try again shortly", retryAfterSeconds);
+        }
+
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Server is busy, please try again shortly", retryAfterSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash a password", e);
+        }
+
+        try {
+            return task.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
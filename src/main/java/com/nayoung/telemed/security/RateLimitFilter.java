@@ -0,0 +1,66 @@
+package com.nayoung.telemed.security;
+
+import com.nayoung.telemed.exceptions.TooManyRequestsException;
+import com.nayoung.telemed.res.Response;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter { // runs ahead of AuthFilter, throttles public auth endpoints per IP
+
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            "/api/auth/login", RateLimiter.LOGIN,
+            "/api/auth/register", RateLimiter.REGISTER,
+            "/api/auth/forgot-password", RateLimiter.FORGOT_PASSWORD,
+            "/api/auth/reset-password", RateLimiter.RESET_PASSWORD);
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String endpoint = ENDPOINTS.get(request.getRequestURI().substring(request.getContextPath().length()));
+
+        if (endpoint != null) {
+            try {
+                rateLimiter.checkIp(endpoint, request.getRemoteAddr());
+            } catch (TooManyRequestsException ex) {
+                log.warn("Rate limit exceeded for {} from {}", endpoint, request.getRemoteAddr());
+                writeTooManyRequests(response, ex);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, TooManyRequestsException ex) throws IOException {
+        Response<?> errorResponse = Response.builder()
+                .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message(ex.getMessage())
+                .build();
+
+        response.setContentType("application/json");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+}
@@ -0,0 +1,138 @@
+package com.nayoung.telemed.security;
+
+import com.nayoung.telemed.exceptions.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-IP and per-email token buckets for the public auth endpoints.
+ * Buckets live in a ConcurrentHashMap and are updated lock-free; full (idle) buckets are swept so memory stays
+ * bounded by the number of recently active clients.
+ */
+@Service
+@Slf4j
+public class RateLimiter {
+
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+    public static final String FORGOT_PASSWORD = "forgot-password";
+    public static final String RESET_PASSWORD = "reset-password";
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    // permits per minute, also used as the burst size
+    @Value("${rate-limit.login.per-ip:30}")
+    private int loginPerIp;
+
+    @Value("${rate-limit.login.per-email:10}")
+    private int loginPerEmail;
+
+    @Value("${rate-limit.register.per-ip:10}")
+    private int registerPerIp;
+
+    @Value("${rate-limit.forgot-password.per-ip:5}")
+    private int forgotPasswordPerIp;
+
+    @Value("${rate-limit.forgot-password.per-email:3}")
+    private int forgotPasswordPerEmail;
+
+    @Value("${rate-limit.reset-password.per-ip:10}")
+    private int resetPasswordPerIp;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    private Map<String, Limit> ipLimits;
+    private Map<String, Limit> emailLimits;
+
+    @PostConstruct
+    private void init() {
+        Duration minute = Duration.ofMinutes(1);
+        this.ipLimits = Map.of(
+                LOGIN, new Limit(loginPerIp, minute),
+                REGISTER, new Limit(registerPerIp, minute),
+                FORGOT_PASSWORD, new Limit(forgotPasswordPerIp, minute),
+                RESET_PASSWORD, new Limit(resetPasswordPerIp, minute));
+        this.emailLimits = Map.of(
+                LOGIN, new Limit(loginPerEmail, minute),
+                FORGOT_PASSWORD, new Limit(forgotPasswordPerEmail, minute));
+    }
+
+    public void checkIp(String endpoint, String ip) {
+        check(endpoint, "ip:" + ip, ipLimits.get(endpoint));
+    }
+
+    public void checkEmail(String endpoint, String email) {
+        if (email != null) {
+            check(endpoint, "email:" + email.toLowerCase(), emailLimits.get(endpoint));
+        }
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise nanos until it may be retried
+     */
+    long tryAcquire(String key, Limit limit, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                sweep(nowNanos);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(nowNanos));
+        }
+        return bucket.tryAcquire(limit.emissionIntervalNanos(), limit.burstToleranceNanos(), nowNanos);
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdleBuckets() {
+        sweep(System.nanoTime());
+    }
+
+    void sweep(long nowNanos) {
+        if (!sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+            log.debug("Rate limiter swept {} idle buckets, {} remaining", before - buckets.size(), buckets.size());
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private void check(String endpoint, String key, Limit limit) {
+        if (!enabled || limit == null) {
+            return;
+        }
+        long waitNanos = tryAcquire(endpoint + "|" + key, limit, System.nanoTime());
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            throw new TooManyRequestsException("Too many requests, please try again later", retryAfterSeconds);
+        }
+    }
+
+    record Limit(long emissionIntervalNanos, long burstToleranceNanos) {
+
+        Limit(int permits, Duration period) {
+            this(period.toNanos() / Math.max(1, permits),
+                    (period.toNanos() / Math.max(1, permits)) * (Math.max(1, permits) - 1));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.nayoung.telemed.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as GCRA: the whole bucket state is a single "theoretical arrival time"
+ * updated with CAS, so concurrent callers never block each other.
+ */
+class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos); // starts full
+    }
+
+    /**
+     * @param emissionIntervalNanos time to refill one token
+     * @param burstToleranceNanos   (capacity - 1) * emission interval
+     * @return 0 if a token was taken, otherwise the nanos until the next token is available
+     */
+    long tryAcquire(long emissionIntervalNanos, long burstToleranceNanos, long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, nowNanos);
+            long allowAt = base - burstToleranceNanos;
+
+            if (allowAt > nowNanos) {
+                return allowAt - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // a full bucket holds no state worth keeping, a fresh one behaves the same
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,58 @@
+package com.nayoung.telemed.security;
+
+import com.nayoung.telemed.users.repo.UserRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user minimum token version, used by claims-based auth to reject revoked tokens without loading the user.
+ * Only users whose version was ever bumped are kept. Bumps are published locally right away and picked up by
+ * other nodes on the next refresh from the database.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    private final UserRepo userRepo;
+
+    private final ConcurrentHashMap<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessAuthEnabled;
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        return tokenVersion < minimumVersions.getOrDefault(userId, 0);
+    }
+
+    public void publish(Long userId, int tokenVersion) {
+        minimumVersions.merge(userId, tokenVersion, Math::max);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (statelessAuthEnabled) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:60000}")
+    public void scheduledRefresh() {
+        if (statelessAuthEnabled) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        userRepo.findRevokedTokenVersions()
+                .forEach(version -> publish(version.getId(), version.getTokenVersion()));
+        log.debug("Token revocation registry refreshed: {} users", minimumVersions.size());
+    }
+}
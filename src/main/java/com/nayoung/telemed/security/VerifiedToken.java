@@ -0,0 +1,21 @@
+package com.nayoung.telemed.security;
+
+import java.util.Date;
+import java.util.List;
+
+// claims of a token whose signature has already been checked
+public record VerifiedToken(String subject,
+                            Date expiration,
+                            Long userId,
+                            List<String> roles,
+                            Integer tokenVersion) {
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    // tokens issued before claims-based auth only carry the subject
+    public boolean hasIdentityClaims() {
+        return userId != null && roles != null && tokenVersion != null;
+    }
+}
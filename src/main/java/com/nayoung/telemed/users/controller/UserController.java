@@ -1,16 +1,20 @@
 package com.nayoung.telemed.users.controller;
 
 import com.nayoung.telemed.res.Response;
+import com.nayoung.telemed.users.dto.BulkImportResult;
 import com.nayoung.telemed.users.dto.UpdatePasswordRequest;
 import com.nayoung.telemed.users.dto.UserDTO;
+import com.nayoung.telemed.users.service.UserImportService;
 import com.nayoung.telemed.users.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,6 +22,7 @@ import java.util.List;
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @GetMapping("/me")
     public ResponseEntity<Response<UserDTO>> getMyUserDetails(){
@@ -44,4 +49,12 @@ public class UserController {
     public ResponseEntity<Response<?>> uploadProfilePicture(@RequestParam("file") MultipartFile file){
         return ResponseEntity.ok(userService.uploadProfilePicture(file));
     }
+
+    // streams a CSV or NDJSON file of users, see UserImportServiceImpl for the columns
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<BulkImportResult>> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                  InputStream body){
+        return ResponseEntity.ok(userImportService.importUsers(body, contentType));
+    }
 }
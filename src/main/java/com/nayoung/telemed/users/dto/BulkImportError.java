@@ -0,0 +1,21 @@
+package com.nayoung.telemed.users.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportError {
+
+    private long lineNumber;
+
+    private String email;
+
+    private String message;
+}
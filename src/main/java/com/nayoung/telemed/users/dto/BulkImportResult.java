@@ -0,0 +1,28 @@
+package com.nayoung.telemed.users.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportResult {
+
+    private long totalRows;
+
+    private long imported;
+
+    private long failed;
+
+    // capped, so a file full of bad rows can't blow up the response
+    @Builder.Default
+    private List<BulkImportError> errors = new ArrayList<>();
+}
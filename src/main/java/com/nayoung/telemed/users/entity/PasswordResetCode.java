@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "password_reset_code")
+@Table(name = "password_reset_code",
+        indexes = @Index(name = "idx_password_reset_expiry", columnList = "expiry_date"))
 public class PasswordResetCode {
 
     @Id
@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -31,6 +32,20 @@ public class User {
 
     private String profilePictureUrl;
 
+    // bumped whenever previously issued tokens must stop working (e.g. password change)
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+
+    // calendar feed state, written only through UserRepo bulk updates so a cached copy of the user can't overwrite it
+    @Column(unique = true, length = 64, insertable = false, updatable = false)
+    private String calendarToken;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0", insertable = false, updatable = false)
+    private long scheduleVersion;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime scheduleUpdatedAt;
+
     @ManyToMany(
             fetch = FetchType.EAGER,
             cascade = CascadeType.ALL)
@@ -0,0 +1,26 @@
+package com.nayoung.telemed.users.mapper;
+
+import com.nayoung.telemed.users.dto.UserDTO;
+import com.nayoung.telemed.users.entity.User;
+
+import java.util.ArrayList;
+
+// plain field copies instead of reflective matching, the password is never copied
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDTO toDTO(User user) {
+        if (user == null) {
+            return null;
+        }
+        return UserDTO.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .profilePictureUrl(user.getProfilePictureUrl())
+                .roles(user.getRoles() == null ? null : new ArrayList<>(user.getRoles()))
+                .build();
+    }
+}
@@ -1,8 +1,15 @@
 package com.nayoung.telemed.users.repo;
 
 import com.nayoung.telemed.users.entity.PasswordResetCode;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface PasswordResetRepo extends JpaRepository<PasswordResetCode, Long> {
@@ -10,4 +17,12 @@ public interface PasswordResetRepo extends JpaRepository<PasswordResetCode, Long
     Optional<PasswordResetCode> findByCode(String code);
 
     void deleteByUserId(Long userId);
+
+    @Query("SELECT p.id FROM PasswordResetCode p WHERE p.expiryDate < :now OR p.used = true ORDER BY p.id")
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetCode p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -2,10 +2,47 @@ package com.nayoung.telemed.users.repo;
 
 import com.nayoung.telemed.users.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepo extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    // only users that ever had their tokens revoked, keeps the revocation map compact
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<TokenVersion> findRevokedTokenVersions();
+
+    // bumped for both participants whenever an appointment is booked, cancelled or completed
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.scheduleVersion = u.scheduleVersion + 1, u.scheduleUpdatedAt = :now WHERE u.id IN :ids")
+    int bumpScheduleVersion(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.calendarToken = :token WHERE u.id = :id")
+    int updateCalendarToken(@Param("id") Long id, @Param("token") String token);
+
+    @Query("SELECT u.id AS id, u.scheduleVersion AS scheduleVersion, u.scheduleUpdatedAt AS scheduleUpdatedAt " +
+            "FROM User u WHERE u.calendarToken = :token")
+    Optional<ScheduleVersion> findScheduleVersionByCalendarToken(@Param("token") String token);
+
+    interface ScheduleVersion {
+        Long getId();
+        long getScheduleVersion();
+        LocalDateTime getScheduleUpdatedAt();
+    }
+
+    interface TokenVersion {
+        Long getId();
+        int getTokenVersion();
+    }
 }
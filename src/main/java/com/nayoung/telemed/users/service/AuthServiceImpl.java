@@ -1,5 +1,6 @@
 package com.nayoung.telemed.users.service;
 
+import com.nayoung.telemed.appointment.service.AvailabilityIndex;
 import com.nayoung.telemed.doctor.entity.Doctor;
 import com.nayoung.telemed.doctor.repo.DoctorRepo;
 import com.nayoung.telemed.exceptions.BadRequestException;
@@ -11,7 +12,11 @@ import com.nayoung.telemed.patient.repo.PatientRepo;
 import com.nayoung.telemed.res.Response;
 import com.nayoung.telemed.role.entity.Role;
 import com.nayoung.telemed.role.repo.RoleRepo;
+import com.nayoung.telemed.role.service.RoleRegistry;
 import com.nayoung.telemed.security.JwtService;
+import com.nayoung.telemed.security.PasswordHashingService;
+import com.nayoung.telemed.security.RateLimiter;
+import com.nayoung.telemed.security.TokenRevocationRegistry;
 import com.nayoung.telemed.users.dto.LoginRequest;
 import com.nayoung.telemed.users.dto.LoginResponse;
 import com.nayoung.telemed.users.dto.RegistrationRequest;
@@ -23,7 +28,6 @@ import com.nayoung.telemed.users.repo.UserRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -38,15 +42,20 @@ public class AuthServiceImpl implements AuthService{
 
     private final UserRepo userRepo;
     private final RoleRepo roleRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingService passwordHashingService; // BCrypt work off the request threads
     private final JwtService jwtService; // generate a token for user
     private final NotificationService notificationService; // send account creation details mail to user
 
     private final PatientRepo patientRepo;
     private final DoctorRepo doctorRepo;
+    private final AvailabilityIndex availabilityIndex;
 
     private final CodeGenerator codeGenerator;
     private final PasswordResetRepo passwordResetRepo;
+    private final UserCache userCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final RateLimiter rateLimiter; // per-email limits, the per-IP ones run in RateLimitFilter
 
     @Value("${password.reset.link}")
     private String resetLink;
@@ -64,17 +73,17 @@ public class AuthServiceImpl implements AuthService{
         // determine the roles to assign (default to PATIENT if none are provided)
         List<String> requestedRoleNames = (request.getRoles() != null && !request.getRoles().isEmpty())
                 ? request.getRoles().stream().map(String::toUpperCase).toList()
-                : List.of("PATIENT");
+                : List.of(RoleRegistry.PATIENT);
 
-        boolean isDoctor = requestedRoleNames.contains("DOCTOR");
+        boolean isDoctor = requestedRoleNames.contains(RoleRegistry.DOCTOR);
 
         if (isDoctor && (request.getLicenseNumber() == null || request.getLicenseNumber().isBlank())) {
             throw new BadRequestException("License number required to register as a doctor");
         }
 
-        // 2. load and validate roles from the database
+        // 2. resolve and validate roles from the preloaded registry (no query per role)
         List<Role> roles = requestedRoleNames.stream()
-                .map(roleRepo::findByName)
+                .map(roleRegistry::findByName)
                 .flatMap(Optional::stream)
                 .toList();
 
@@ -85,9 +94,11 @@ public class AuthServiceImpl implements AuthService{
         // 3. create and save new user entity
         User newUser = User.builder()
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .name(request.getName())
-                .roles(roles)
+                .roles(roles.stream()
+                        .map(role -> roleRepo.getReferenceById(role.getId())) // managed reference, no select
+                        .toList())
                 .build();
 
         User savedUser = userRepo.save(newUser);
@@ -99,17 +110,17 @@ public class AuthServiceImpl implements AuthService{
             String roleName = role.getName();
 
             switch (roleName) {
-                case "PATIENT":
+                case RoleRegistry.PATIENT:
                     createPatientProfile(savedUser);
                     log.info("Patient profile created: {}", savedUser.getEmail());
                     break;
 
-                case "DOCTOR":
+                case RoleRegistry.DOCTOR:
                     createDoctorProfile(request, savedUser);
                     log.info("Doctor profile created: {}", savedUser.getEmail());
                     break;
 
-                case "ADMIN":
+                case RoleRegistry.ADMIN:
                     log.info("Admin role assigned to user: {}", savedUser.getEmail());
                     break;
 
@@ -131,14 +142,24 @@ public class AuthServiceImpl implements AuthService{
         String email = loginRequest.getEmail();
         String password = loginRequest.getPassword();
 
+        rateLimiter.checkEmail(RateLimiter.LOGIN, email);
+
         User user = userRepo.findByEmail(email)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             throw new BadRequestException("Password doesn't match");
         }
 
-        String token = jwtService.generateToken(user.getEmail());
+        // transparently move older hashes to the configured cost while we have the raw password
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(password));
+            userRepo.save(user);
+            userCache.evict(user.getEmail());
+            log.info("Password hash upgraded for user: {}", user.getEmail());
+        }
+
+        String token = jwtService.generateToken(user);
         LoginResponse loginResponse = LoginResponse.builder()
                 .roles(user.getRoles().stream().map(Role::getName).toList())
                 .token(token)
@@ -149,21 +170,14 @@ public class AuthServiceImpl implements AuthService{
 
     @Override
     public Response<?> forgetPassword(String email) {
+        rateLimiter.checkEmail(RateLimiter.FORGOT_PASSWORD, email);
+
         User user = userRepo.findByEmail(email)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
 
         passwordResetRepo.deleteByUserId(user.getId());
 
-        String code = codeGenerator.generateUniqueCode();
-
-        PasswordResetCode resetCode = PasswordResetCode.builder()
-                .user(user)
-                .code(code)
-                .expiryDate(calculateExpiryDate())
-                .used(false)
-                .build();
-
-        passwordResetRepo.save(resetCode);
+        String code = codeGenerator.createResetCode(user, calculateExpiryDate()).getCode();
 
         // send email reset link to user
         NotificationDTO passwordResetEmail = NotificationDTO.builder()
@@ -201,8 +215,11 @@ public class AuthServiceImpl implements AuthService{
 
         // update password
         User user = resetCode.getUser();
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.encode(newPassword));
+        user.setTokenVersion(user.getTokenVersion() + 1); // revoke tokens issued with the old password
         userRepo.save(user);
+        userCache.evict(user.getEmail());
+        tokenRevocationRegistry.publish(user.getId(), user.getTokenVersion());
 
         // delete the used reset code immediately after successful use
         passwordResetRepo.delete(resetCode);
@@ -239,6 +256,9 @@ public class AuthServiceImpl implements AuthService{
                 .build();
 
         doctorRepo.save(doctor);
+        if (doctor.getSpecialization() != null) {
+            availabilityIndex.invalidate(doctor.getSpecialization()); // the new doctor shows up in availability search
+        }
         log.info("Doctor profile created");
     }
 
@@ -1,35 +1,58 @@
 package com.nayoung.telemed.users.service;
 
+import com.nayoung.telemed.exceptions.BadRequestException;
+import com.nayoung.telemed.users.entity.PasswordResetCode;
+import com.nayoung.telemed.users.entity.User;
 import com.nayoung.telemed.users.repo.PasswordResetRepo;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
+import java.time.LocalDateTime;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class CodeGenerator {
 
     private final PasswordResetRepo passwordResetRepo;
 
     private static final String ALPHA_NUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int CODE_LENGTH = 5;
-
-    public String generateUniqueCode() {
-        String code;
-        do {
-            code = generateRandomCode();
-        } while(passwordResetRepo.findByCode(code).isPresent());
-
-        return code;
+    private static final SecureRandom RANDOM = new SecureRandom(); // thread-safe, seeded once
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Value("${password.reset.code-length:8}") // 36^8 codes, collisions are practically nonexistent
+    private int codeLength;
+
+    /**
+     * Saves a new reset code for the user. Instead of probing the table for a free code, the insert relies on the
+     * unique constraint on code and retries with a fresh code on the rare collision.
+     */
+    public PasswordResetCode createResetCode(User user, LocalDateTime expiryDate) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            PasswordResetCode resetCode = PasswordResetCode.builder()
+                    .user(user)
+                    .code(generateRandomCode())
+                    .expiryDate(expiryDate)
+                    .used(false)
+                    .build();
+            try {
+                return passwordResetRepo.save(resetCode);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Reset code collision on attempt {}, retrying", attempt);
+            }
+        }
+        throw new BadRequestException("Unable to generate a reset code, please try again");
     }
 
-    private String generateRandomCode() {
-        StringBuilder sb = new StringBuilder(CODE_LENGTH);
-        SecureRandom random = new SecureRandom();
+    public String generateRandomCode() {
+        StringBuilder sb = new StringBuilder(codeLength);
 
-        for (int i = 0; i < CODE_LENGTH; i++) {
-            int index = random.nextInt(ALPHA_NUMERIC.length());
+        for (int i = 0; i < codeLength; i++) {
+            int index = RANDOM.nextInt(ALPHA_NUMERIC.length());
             sb.append(ALPHA_NUMERIC.charAt(index));
         }
         return sb.toString();
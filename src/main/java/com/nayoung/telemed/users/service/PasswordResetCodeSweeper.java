@@ -0,0 +1,53 @@
+package com.nayoung.telemed.users.service;
+
+import com.nayoung.telemed.users.repo.PasswordResetRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Purges expired or used reset codes in bounded chunks, so no single delete holds locks for long
+ * and the table and its code index stay small.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PasswordResetCodeSweeper {
+
+    private final PasswordResetRepo passwordResetRepo;
+
+    @Value("${password.reset.sweep.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${password.reset.sweep.max-chunks:100}")
+    private int maxChunksPerRun;
+
+    @Scheduled(fixedDelayString = "${password.reset.sweep.interval-ms:3600000}")
+    public void purgeExpiredCodes() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = passwordResetRepo.findPurgeableIds(now, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            purged += passwordResetRepo.deleteByIdIn(ids);
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (purged > 0) {
+            log.info("Purged {} expired or used password reset codes", purged);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.nayoung.telemed.users.service;
+
+import com.nayoung.telemed.cache.CacheStats;
+import com.nayoung.telemed.cache.ExpiringCache;
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.users.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Users (with their eager roles) keyed by email, so authentication doesn't hit the database on every request.
+ * Entries are immutable snapshots and every get hands out a new detached User, so a caller changing its copy
+ * never changes what other requests see. Anything that changes the password, roles or profile picture must evict
+ * the affected entries; eviction is local to this node, so the TTL bounds how long other nodes keep serving the
+ * old password hash and token version.
+ */
+@Service
+public class UserCache {
+
+    @Value("${user.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${user.cache.ttl-ms:30000}")
+    private long ttlMillis;
+
+    private ExpiringCache<String, Snapshot> users;
+
+    @PostConstruct
+    private void init() {
+        this.users = new ExpiringCache<>("users", maxSize);
+    }
+
+    public Optional<User> get(String email) {
+        return Optional.ofNullable(users.get(email)).map(Snapshot::toUser);
+    }
+
+    public void put(User user) {
+        users.put(user.getEmail(), Snapshot.of(user), System.currentTimeMillis() + ttlMillis);
+    }
+
+    public void evict(String email) {
+        users.invalidate(email);
+    }
+
+    public void evictAll() {
+        users.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return users.stats();
+    }
+
+    private record Snapshot(Long id, String name, String email, String password, String profilePictureUrl,
+                            int tokenVersion, List<RoleSnapshot> roles) {
+
+        private static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getName(), user.getEmail(), user.getPassword(),
+                    user.getProfilePictureUrl(), user.getTokenVersion(),
+                    user.getRoles() == null ? List.of() : user.getRoles().stream()
+                            .map(role -> new RoleSnapshot(role.getId(), role.getName()))
+                            .toList());
+        }
+
+        private User toUser() {
+            return User.builder()
+                    .id(id).name(name).email(email).password(password).profilePictureUrl(profilePictureUrl)
+                    .tokenVersion(tokenVersion)
+                    .roles(new ArrayList<>(roles.stream()
+                            .map(role -> Role.builder().id(role.id()).name(role.name()).build())
+                            .toList()))
+                    .build();
+        }
+    }
+
+    private record RoleSnapshot(Long id, String name) {
+    }
+}
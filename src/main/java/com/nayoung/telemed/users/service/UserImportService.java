@@ -0,0 +1,10 @@
+package com.nayoung.telemed.users.service;
+
+import com.nayoung.telemed.res.Response;
+import com.nayoung.telemed.users.dto.BulkImportResult;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+    Response<BulkImportResult> importUsers(InputStream inputStream, String contentType);
+}
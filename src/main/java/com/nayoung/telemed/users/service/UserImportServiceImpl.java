@@ -0,0 +1,424 @@
+package com.nayoung.telemed.users.service;
+
+import com.nayoung.telemed.appointment.service.AvailabilityIndex;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.exceptions.BadRequestException;
+import com.nayoung.telemed.notification.dto.NotificationDTO;
+import com.nayoung.telemed.notification.service.NotificationOutbox;
+import com.nayoung.telemed.res.Response;
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.role.service.RoleRegistry;
+import com.nayoung.telemed.users.dto.BulkImportError;
+import com.nayoung.telemed.users.dto.BulkImportResult;
+import com.nayoung.telemed.users.dto.RegistrationRequest;
+import com.nayoung.telemed.users.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams a CSV or NDJSON file of users and imports it chunk by chunk:
+ * validate, hash passwords in parallel, then insert users, roles and profiles with JDBC batches in one transaction
+ * per chunk. Only one chunk is held in memory at a time, whatever the file size. Welcome emails are written to the
+ * outbox in the same transaction, so every imported user gets one and the relay paces the sending.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String CSV = "text/csv";
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final NotificationOutbox notificationOutbox; // welcome emails commit with the users they greet
+    private final AvailabilityIndex availabilityIndex;
+
+    @Value("${bulk.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bulk.import.hashing-threads:0}") // 0 = half of the available cores
+    private int hashingThreads;
+
+    @Value("${bulk.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${login.link}")
+    private String loginLink;
+
+    // separate from the login pool, so an import never delays interactive logins
+    private ExecutorService hashingPool;
+
+    @PostConstruct
+    private void init() {
+        int poolSize = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "import-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    @Override
+    public Response<BulkImportResult> importUsers(InputStream inputStream, String contentType) {
+        boolean csv = contentType != null && contentType.startsWith(CSV);
+        if (!csv && (contentType == null || !contentType.startsWith(NDJSON))) {
+            throw new BadRequestException("Unsupported content type, use " + CSV + " or " + NDJSON);
+        }
+
+        BulkImportResult result = new BulkImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    RegistrationRequest request = csv ? fromCsv(header, parseCsvLine(line)) : fromJson(line);
+                    chunk.add(new ImportRow(lineNumber, request));
+                } catch (Exception e) {
+                    reportError(result, lineNumber, null, "Unreadable row: " + e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, result);
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read import file: " + e.getMessage());
+        }
+
+        log.info("Bulk import finished: {} rows, {} imported, {} failed",
+                result.getTotalRows(), result.getImported(), result.getFailed());
+
+        return Response.<BulkImportResult>builder()
+                .statusCode(200)
+                .message("Bulk import completed")
+                .data(result)
+                .build();
+    }
+
+    private void processChunk(List<ImportRow> chunk, BulkImportResult result) {
+        // 1. per-row validation, bad rows are reported and skipped
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        Set<String> emailsInChunk = new HashSet<>();
+        for (ImportRow row : chunk) {
+            String error = validate(row, emailsInChunk);
+            if (error != null) {
+                reportError(result, row.lineNumber, row.request.getEmail(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+
+        // 2. one query for the whole chunk instead of one findByEmail per row
+        Set<String> existing = findExistingEmails(valid);
+        valid.removeIf(row -> {
+            if (existing.contains(row.request.getEmail())) {
+                reportError(result, row.lineNumber, row.request.getEmail(), "User with email already exists");
+                return true;
+            }
+            return false;
+        });
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // 3. BCrypt in parallel on the bounded pool
+        hashPasswords(valid);
+
+        // 4. batch insert; if the batch trips a constraint fall back to row-by-row to isolate the bad rows
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertRowsWithWelcomeEmails(valid));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert failed, retrying chunk row by row: {}", e.getMessage());
+            List<ImportRow> inserted = new ArrayList<>(valid.size());
+            for (ImportRow row : valid) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertRowsWithWelcomeEmails(List.of(row)));
+                    inserted.add(row);
+                } catch (DataIntegrityViolationException rowException) {
+                    reportError(result, row.lineNumber, row.request.getEmail(), "Rejected by database constraint");
+                }
+            }
+            valid.clear();
+            valid.addAll(inserted);
+        }
+
+        result.setImported(result.getImported() + valid.size());
+
+        // 5. imported doctors show up in availability search
+        valid.stream()
+                .filter(row -> row.roles.stream().anyMatch(role -> RoleRegistry.DOCTOR.equals(role.getName())))
+                .map(row -> row.request.getSpecialization())
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(availabilityIndex::invalidate);
+    }
+
+    private String validate(ImportRow row, Set<String> emailsInChunk) {
+        RegistrationRequest request = row.request;
+
+        Set<ConstraintViolation<RegistrationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (!emailsInChunk.add(request.getEmail())) {
+            return "Duplicate email in import file";
+        }
+
+        List<String> roleNames = (request.getRoles() != null && !request.getRoles().isEmpty())
+                ? request.getRoles()
+                : List.of(RoleRegistry.PATIENT);
+
+        List<Role> roles = new ArrayList<>(roleNames.size());
+        for (String roleName : roleNames) {
+            Optional<Role> role = roleRegistry.findByName(roleName.trim());
+            if (role.isEmpty()) {
+                return "Unknown role: " + roleName;
+            }
+            roles.add(role.get());
+        }
+
+        boolean isDoctor = roles.stream().anyMatch(role -> RoleRegistry.DOCTOR.equals(role.getName()));
+        if (isDoctor && (request.getLicenseNumber() == null || request.getLicenseNumber().isBlank())) {
+            return "License number required to register as a doctor";
+        }
+
+        row.roles = roles;
+        return null;
+    }
+
+    private Set<String> findExistingEmails(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return Set.of();
+        }
+        List<String> emails = rows.stream().map(row -> row.request.getEmail()).toList();
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)",
+                Map.of("emails", emails),
+                String.class));
+    }
+
+    private void hashPasswords(List<ImportRow> rows) {
+        List<Callable<String>> tasks = rows.stream()
+                .<Callable<String>>map(row -> () -> passwordEncoder.encode(row.request.getPassword()))
+                .toList();
+        try {
+            List<Future<String>> hashes = hashingPool.invokeAll(tasks);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).passwordHash = hashes.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to hash password", e.getCause());
+        }
+    }
+
+    private void insertRowsWithWelcomeEmails(List<ImportRow> rows) {
+        insertRows(rows);
+        rows.forEach(this::queueWelcomeEmail);
+    }
+
+    private void insertRows(List<ImportRow> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (name, email, password, token_version) VALUES (?, ?, ?, 0)",
+                rows.stream()
+                        .map(row -> new Object[]{row.request.getName(), row.request.getEmail(), row.passwordHash})
+                        .toList());
+
+        // resolve generated ids with one query instead of per-row generated keys
+        Map<String, Long> userIds = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT id, email FROM users WHERE email IN (:emails)",
+                Map.of("emails", rows.stream().map(row -> row.request.getEmail()).toList()),
+                rs -> {
+                    userIds.put(rs.getString("email"), rs.getLong("id"));
+                });
+
+        List<Object[]> userRoles = new ArrayList<>();
+        List<Object[]> patients = new ArrayList<>();
+        List<Object[]> doctors = new ArrayList<>();
+
+        for (ImportRow row : rows) {
+            Long userId = userIds.get(row.request.getEmail());
+            row.userId = userId;
+
+            for (Role role : row.roles) {
+                userRoles.add(new Object[]{userId, role.getId()});
+
+                switch (role.getName()) {
+                    case RoleRegistry.PATIENT -> patients.add(new Object[]{userId});
+                    case RoleRegistry.DOCTOR -> doctors.add(new Object[]{
+                            userId,
+                            row.request.getSpecialization() != null ? row.request.getSpecialization().name() : null,
+                            row.request.getLicenseNumber()});
+                    default -> { }
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userRoles);
+        if (!patients.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO patients (user_id) VALUES (?)", patients);
+        }
+        if (!doctors.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO doctors (user_id, specialization, license_number) VALUES (?, ?, ?)", doctors);
+        }
+    }
+
+    private void queueWelcomeEmail(ImportRow row) {
+        User user = User.builder()
+                .id(row.userId)
+                .email(row.request.getEmail())
+                .name(row.request.getName())
+                .build();
+
+        NotificationDTO welcomeEmail = NotificationDTO.builder()
+                .recipient(user.getEmail())
+                .subject("Welcome to CareBridge!")
+                .templateName("welcome")
+                .message("Thank you for registering. Your account is ready.")
+                .templateVariables(Map.of(
+                        "name", user.getName(),
+                        "loginLink", loginLink
+                ))
+                .build();
+
+        notificationOutbox.enqueue(welcomeEmail, user);
+    }
+
+    private void reportError(BulkImportResult result, long lineNumber, String email, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(BulkImportError.builder()
+                    .lineNumber(lineNumber)
+                    .email(email)
+                    .message(message)
+                    .build());
+        }
+    }
+
+    private RegistrationRequest fromJson(String line) {
+        return objectMapper.readValue(line, RegistrationRequest.class);
+    }
+
+    // columns: name, email, password, roles (separated by ';'), specialization, licenseNumber
+    private RegistrationRequest fromCsv(String[] header, String[] values) {
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            fields.put(header[i].trim(), values[i].trim());
+        }
+
+        String roles = fields.get("roles");
+        String specialization = fields.get("specialization");
+
+        return RegistrationRequest.builder()
+                .name(fields.get("name"))
+                .email(fields.get("email"))
+                .password(fields.get("password"))
+                .roles(roles == null || roles.isBlank() ? null : Arrays.asList(roles.toUpperCase().split(";")))
+                .specialization(specialization == null || specialization.isBlank()
+                        ? null
+                        : Specialization.valueOf(specialization.toUpperCase()))
+                .licenseNumber(fields.get("licenseNumber"))
+                .build();
+    }
+
+    // single-line CSV with optional double quotes ("" escapes a quote)
+    static String[] parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values.toArray(String[]::new);
+    }
+
+    private static class ImportRow {
+        private final long lineNumber;
+        private final RegistrationRequest request;
+        private List<Role> roles;
+        private String passwordHash;
+        private Long userId;
+
+        private ImportRow(long lineNumber, RegistrationRequest request) {
+            this.lineNumber = lineNumber;
+            this.request = request;
+        }
+    }
+}
@@ -5,16 +5,18 @@ import com.nayoung.telemed.exceptions.NotFoundException;
 import com.nayoung.telemed.notification.dto.NotificationDTO;
 import com.nayoung.telemed.notification.service.NotificationService;
 import com.nayoung.telemed.res.Response;
+import com.nayoung.telemed.security.AuthUser;
+import com.nayoung.telemed.security.PasswordHashingService;
+import com.nayoung.telemed.security.TokenRevocationRegistry;
 import com.nayoung.telemed.users.dto.UpdatePasswordRequest;
 import com.nayoung.telemed.users.dto.UserDTO;
 import com.nayoung.telemed.users.entity.User;
+import com.nayoung.telemed.users.mapper.UserMapper;
 import com.nayoung.telemed.users.repo.UserRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -32,9 +34,10 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService{
 
     private final UserRepo userRepo;
-    private final ModelMapper modelMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final NotificationService notificationService;
+    private final UserCache userCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     private final String uploadDir = "uploads/profile-pictures/"; // backend location for saving images
 
@@ -47,9 +50,19 @@ public class UserServiceImpl implements UserService{
             throw new NotFoundException("User is not authenticated");
         }
 
+        // AuthFilter already loaded the user, no need to query it again
+        if (authentication.getPrincipal() instanceof AuthUser authUser && !authUser.isClaimsOnly()) {
+            return authUser.getUser();
+        }
+
         String email = authentication.getName();
-        return userRepo.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        return userCache.get(email)
+                .orElseGet(() -> {
+                    User user = userRepo.findByEmail(email)
+                            .orElseThrow(() -> new NotFoundException("User not found"));
+                    userCache.put(user);
+                    return user;
+                });
     }
 
     // called from controller
@@ -57,7 +70,7 @@ public class UserServiceImpl implements UserService{
     public Response<UserDTO> getMyUserDetails() {
         User user = getCurrentUser();
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        UserDTO userDTO = UserMapper.toDTO(user);
 
         return success("User details retrieved successfully", userDTO);
     }
@@ -67,7 +80,7 @@ public class UserServiceImpl implements UserService{
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new BadRequestException("User not found with ID: " + userId));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        UserDTO userDTO = UserMapper.toDTO(user);
 
         return success("User details retrieved successfully", userDTO);
     }
@@ -75,7 +88,7 @@ public class UserServiceImpl implements UserService{
     @Override
     public Response<List<UserDTO>> getAllUsers() {
         List<UserDTO> userDTOS = userRepo.findAll().stream()
-                .map(user -> modelMapper.map(user, UserDTO.class))
+                .map(UserMapper::toDTO)
                 .toList();
 
         return success("All users retrieved successfully", userDTOS);
@@ -83,7 +96,8 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public Response<?> updatePassword(UpdatePasswordRequest updatePasswordRequest) {
-        User user = getCurrentUser();
+        // the current password and token version from the database, not from a cached copy that may be stale
+        User user = loadCurrentUser();
 
         String oldPassword = updatePasswordRequest.getOldPassword();
         String newPassword = updatePasswordRequest.getNewPassword();
@@ -93,12 +107,15 @@ public class UserServiceImpl implements UserService{
         }
 
         // Validate old password
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(oldPassword, user.getPassword())) {
             throw new BadRequestException("Old password not correct");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.encode(newPassword));
+        user.setTokenVersion(user.getTokenVersion() + 1); // revoke tokens issued with the old password
         userRepo.save(user);
+        userCache.evict(user.getEmail());
+        tokenRevocationRegistry.publish(user.getId(), user.getTokenVersion());
 
         // send password change confirmation email to user
         NotificationDTO passwordChangeEmail = NotificationDTO.builder()
@@ -116,7 +133,7 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public Response<?> uploadProfilePicture(MultipartFile file) {
-        User user = getCurrentUser();
+        User user = loadCurrentUser();
 
         try {
             Path uploadPath = Paths.get(uploadDir);
@@ -145,6 +162,7 @@ public class UserServiceImpl implements UserService{
 
             user.setProfilePictureUrl(fileUrl);
             userRepo.save(user);
+            userCache.evict(user.getEmail());
 
             return success("Profile picture uploaded successfully", fileUrl);
         } catch (IOException e) {
@@ -152,6 +170,12 @@ public class UserServiceImpl implements UserService{
         }
     }
 
+    private User loadCurrentUser() {
+        Long userId = getCurrentUser().getId();
+        return userRepo.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+    }
+
     private <T> Response<T> success(String message, T data) {
         return Response.<T>builder()
                 .statusCode(200)
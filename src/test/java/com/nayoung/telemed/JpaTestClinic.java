@@ -0,0 +1,58 @@
+package com.nayoung.telemed;
+
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.role.service.RoleRegistry;
+import com.nayoung.telemed.users.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persists users, doctors and patients for @DataJpaTest slices through the test's TestEntityManager,
+ * the way TestClinic does for tests that run against the full context.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class JpaTestClinic {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final TestEntityManager entityManager;
+
+    public Doctor doctor(String name) {
+        return entityManager.persist(Doctor.builder()
+                .firstName(name).lastName("Kim").licenseNumber("L-" + SEQUENCE.incrementAndGet())
+                .specialization(Specialization.CARDIOLOGY)
+                .user(user(name, RoleRegistry.DOCTOR))
+                .build());
+    }
+
+    public Patient patient(String name) {
+        return entityManager.persist(Patient.builder()
+                .firstName(name).lastName("Park")
+                .user(user(name, RoleRegistry.PATIENT))
+                .build());
+    }
+
+    public User user(String name, String roleName) {
+        return entityManager.persist(User.builder()
+                .name(name).email(name + "-" + SEQUENCE.incrementAndGet() + "@example.com").password("x")
+                .roles(new ArrayList<>(List.of(role(roleName))))
+                .build());
+    }
+
+    private Role role(String name) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT r FROM Role r WHERE r.name = :name", Role.class)
+                .setParameter("name", name)
+                .getResultStream().findFirst()
+                .orElseGet(() -> entityManager.persist(Role.builder().name(name).build()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.nayoung.telemed;
+
+import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.service.AppointmentService;
+import com.nayoung.telemed.consultation.dto.ConsultationSummaryDTO;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+import com.nayoung.telemed.consultation.service.ConsultationService;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.doctor.service.DoctorService;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.res.CursorPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.nayoung.telemed.support.QueryBudget.expectAtMost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// round trips of a request must not grow with the number of rows it returns
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class ServiceQueryBudgetTest {
+
+    private static final int PATIENTS = 20;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ConsultationService consultationService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private ConsultationRepo consultationRepo;
+
+    private Doctor doctor;
+    private Patient firstPatient;
+    private final List<Appointment> scheduled = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        doctor = clinic.doctor("budget-doctor");
+        for (int i = 0; i < 5; i++) {
+            clinic.doctor("listed-doctor" + i);
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < PATIENTS; i++) {
+            Patient patient = clinic.patient("budget-patient" + i);
+            if (firstPatient == null) {
+                firstPatient = patient;
+            }
+            boolean completed = i % 2 == 0;
+            Appointment appointment = appointmentRepo.save(Appointment.builder()
+                    .startTime(start.plusHours(2L * i)).endTime(start.plusHours(2L * i + 1))
+                    .status(completed ? AppointmentStatus.COMPLETED : AppointmentStatus.SCHEDULED)
+                    .doctor(doctor).patient(patient).build());
+            if (completed) {
+                consultationRepo.save(Consultation.builder()
+                        .consultationDate(appointment.getEndTime()).plan("plan " + i).assessment("assessment " + i)
+                        .appointment(appointment).build());
+            } else {
+                scheduled.add(appointment);
+            }
+        }
+        // a second completed visit of the first patient, so the history has more than one row
+        Appointment followUp = appointmentRepo.save(Appointment.builder()
+                .startTime(start.plusDays(30)).endTime(start.plusDays(30).plusHours(1))
+                .status(AppointmentStatus.COMPLETED).doctor(doctor).patient(firstPatient).build());
+        consultationRepo.save(Consultation.builder()
+                .consultationDate(followUp.getEndTime()).plan("follow up").assessment("follow-up assessment")
+                .appointment(followUp).build());
+    }
+
+    @AfterEach
+    void signOut() {
+        clinic.signOut();
+    }
+
+    @Test
+    void appointmentPageIsConstantInQueries() {
+        clinic.signIn(doctor.getUser());
+
+        CursorPage<AppointmentDTO> page = expectAtMost(4, "doctor appointment page", () ->
+                appointmentService.getMyAppointments(null, 50, null, null, null).getData());
+
+        assertEquals(PATIENTS + 1, page.getContent().size());
+    }
+
+    @Test
+    void cancellationLoadsParticipantsInOneGo() {
+        Appointment appointment = scheduled.getFirst();
+        clinic.signIn(appointment.getPatient().getUser());
+
+        expectAtMost(6, "appointment cancellation", () -> appointmentService.cancelAppointment(appointment.getId()));
+    }
+
+    @Test
+    void consultationHistoryPageIsConstantInQueries() {
+        clinic.signIn(firstPatient.getUser());
+
+        CursorPage<ConsultationSummaryDTO> history = expectAtMost(4, "consultation history", () ->
+                consultationService.getConsultationHistoryByPatientId(null, null, 10).getData());
+
+        assertEquals(2, history.getContent().size());
+        assertEquals("follow-up assessment", history.getContent().getFirst().getAssessmentSnippet());
+    }
+
+    // roles are read lazily by the mapper, in a web request inside the open session
+    @Test
+    void doctorListingIsConstantInQueries() {
+        expectAtMost(2, "doctor listing", () -> transactionTemplate.execute(status -> doctorService.getAllDoctors()));
+    }
+}
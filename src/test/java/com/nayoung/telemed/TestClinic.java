@@ -0,0 +1,86 @@
+package com.nayoung.telemed;
+
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.doctor.repo.DoctorRepo;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.patient.repo.PatientRepo;
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.role.repo.RoleRepo;
+import com.nayoung.telemed.role.service.RoleRegistry;
+import com.nayoung.telemed.security.AuthUser;
+import com.nayoung.telemed.users.entity.User;
+import com.nayoung.telemed.users.repo.UserRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates users, doctors and patients for tests that run against the full context, each with a unique email,
+ * and signs them in on the current thread.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestClinic {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final UserRepo userRepo;
+    private final RoleRepo roleRepo;
+    private final DoctorRepo doctorRepo;
+    private final PatientRepo patientRepo;
+    private final RoleRegistry roleRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public Doctor doctor(String name) {
+        User user = user(name, RoleRegistry.DOCTOR);
+        return doctorRepo.save(Doctor.builder()
+                .firstName(name).lastName("Kim").licenseNumber("L-" + SEQUENCE.incrementAndGet())
+                .specialization(Specialization.CARDIOLOGY)
+                .user(user)
+                .build());
+    }
+
+    public Patient patient(String name) {
+        User user = user(name, RoleRegistry.PATIENT);
+        return patientRepo.save(Patient.builder()
+                .firstName(name).lastName("Park")
+                .user(user)
+                .build());
+    }
+
+    // the role has to be managed by the same transaction as the user it is attached to
+    public User user(String name, String roleName) {
+        role(roleName);
+        return transactionTemplate.execute(status -> userRepo.save(User.builder()
+                .name(name).email(name + "-" + SEQUENCE.incrementAndGet() + "@example.com").password("x")
+                .roles(new ArrayList<>(List.of(roleRepo.findByName(roleName).orElseThrow())))
+                .build()));
+    }
+
+    public void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(authentication(user));
+    }
+
+    // for MockMvc requests, whose security filter chain replaces the thread's context
+    public Authentication authentication(User user) {
+        AuthUser authUser = AuthUser.builder().user(user).build();
+        return new UsernamePasswordAuthenticationToken(authUser, null, authUser.getAuthorities());
+    }
+
+    public void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private synchronized void role(String name) {
+        Role role = roleRepo.findByName(name).orElseGet(() -> roleRepo.save(Role.builder().name(name).build()));
+        roleRegistry.put(role);
+    }
+}
@@ -0,0 +1,85 @@
+package com.nayoung.telemed.analytics.service;
+
+import com.nayoung.telemed.JpaTestClinic;
+import com.nayoung.telemed.analytics.repo.AppointmentDailyStatsRepo;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({AppointmentStatsRecorder.class, JpaTestClinic.class})
+class AppointmentStatsRecorderTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JpaTestClinic clinic;
+
+    @Autowired
+    private AppointmentStatsRecorder statsRecorder;
+
+    @Autowired
+    private AppointmentDailyStatsRepo statsRepo;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = clinic.doctor("Min");
+        patient = clinic.patient("Ji");
+    }
+
+    @Test
+    void flushedDeltasMatchARebuildFromTheAppointments() {
+        Appointment first = appointment(9, AppointmentStatus.SCHEDULED);
+        Appointment second = appointment(11, AppointmentStatus.SCHEDULED);
+        statsRecorder.recordBooked(first);
+        statsRecorder.recordBooked(second);
+        statsRecorder.flush(); // inserts the row
+
+        second.setStatus(AppointmentStatus.CANCELLED);
+        statsRecorder.recordTransition(second, AppointmentStatus.SCHEDULED, AppointmentStatus.CANCELLED);
+        first.setStatus(AppointmentStatus.COMPLETED);
+        statsRecorder.recordTransition(first, AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED);
+        statsRecorder.flush(); // adds to it
+        entityManager.flush();
+
+        AppointmentDailyStatsRepo.StatsRow incremental = statsRepo.findDoctorStats(DAY, DAY).getFirst();
+        assertEquals(List.of(0L, 1L, 1L, 0L), counts(incremental));
+
+        assertEquals(1, statsRecorder.rebuild(DAY, DAY));
+        entityManager.clear();
+
+        List<AppointmentDailyStatsRepo.StatsRow> rebuilt = statsRepo.findDoctorStats(DAY, DAY);
+        assertEquals(1, rebuilt.size());
+        assertEquals(counts(incremental), counts(rebuilt.getFirst()));
+        assertEquals(Specialization.CARDIOLOGY, rebuilt.getFirst().getSpecialization());
+    }
+
+    private Appointment appointment(int hour, AppointmentStatus status) {
+        return entityManager.persist(Appointment.builder()
+                .startTime(DAY.atTime(hour, 0)).endTime(DAY.atTime(hour + 1, 0))
+                .status(status).doctor(doctor).patient(patient).build());
+    }
+
+    private static List<Long> counts(AppointmentDailyStatsRepo.StatsRow row) {
+        return List.of(row.getScheduled(), row.getCompleted(), row.getCancelled(), row.getNoShow());
+    }
+}
@@ -0,0 +1,51 @@
+package com.nayoung.telemed.appointment.mapper;
+
+import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.users.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AppointmentMapperTest {
+
+    @Test
+    void mapsAppointmentWithDoctorPatientAndUsers() {
+        Role doctorRole = Role.builder().id(2L).name("DOCTOR").build();
+        User doctorUser = User.builder().id(10L).name("Dr Kim").email("kim@example.com")
+                .password("secret").roles(List.of(doctorRole)).build();
+        User patientUser = User.builder().id(20L).name("Lee").email("lee@example.com").build();
+
+        Doctor doctor = Doctor.builder().id(1L).firstName("Min").lastName("Kim")
+                .specialization(Specialization.values()[0]).licenseNumber("L-1").user(doctorUser).build();
+        Patient patient = Patient.builder().id(3L).firstName("Ji").lastName("Lee").user(patientUser).build();
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+        Appointment appointment = Appointment.builder()
+                .id(100L).startTime(start).endTime(start.plusMinutes(60))
+                .status(AppointmentStatus.SCHEDULED).meetingLink("https://meet.jit.si/x")
+                .doctor(doctor).patient(patient).build();
+
+        AppointmentDTO dto = AppointmentMapper.toDTO(appointment);
+
+        assertEquals(100L, dto.getId());
+        assertEquals(1L, dto.getDoctorId());
+        assertEquals(start, dto.getStartTime());
+        assertEquals(AppointmentStatus.SCHEDULED, dto.getStatus());
+        assertEquals("L-1", dto.getDoctor().getLicenseNumber());
+        assertEquals("kim@example.com", dto.getDoctor().getUser().getEmail());
+        assertEquals(List.of(doctorRole), dto.getDoctor().getUser().getRoles());
+        assertNull(dto.getDoctor().getUser().getPassword());
+        assertEquals(20L, dto.getPatient().getUser().getId());
+        assertNull(dto.getPatient().getUser().getRoles());
+    }
+}
@@ -0,0 +1,93 @@
+package com.nayoung.telemed.appointment.mapper;
+
+import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.users.entity.User;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Per-object cost of mapping an appointment with its doctor, patient and users to AppointmentDTO: AppointmentMapper
+ * against ModelMapper configured as the application bean was before it was removed.
+ * Not a unit test, run its main method: java ... DtoMapperBenchmark [appointments]
+ */
+public final class DtoMapperBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private DtoMapperBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Appointment> appointments = appointments(count);
+
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE)
+                .setMatchingStrategy(MatchingStrategies.STANDARD);
+
+        Result reflective = measure(appointments, appointment -> modelMapper.map(appointment, AppointmentDTO.class));
+        Result explicit = measure(appointments, AppointmentMapper::toDTO);
+
+        System.out.printf("appointments: %,d, checksum %d%n", count, reflective.checksum() + explicit.checksum());
+        System.out.printf("ModelMapper:       %10.0f ns, %,8d bytes per object%n", reflective.nanosPerObject(), reflective.bytesPerObject());
+        System.out.printf("AppointmentMapper: %10.0f ns, %,8d bytes per object%n", explicit.nanosPerObject(), explicit.bytesPerObject());
+    }
+
+    // best of a few rounds, the first ones include JIT warm-up and ModelMapper building its type maps
+    private static Result measure(List<Appointment> appointments, Function<Appointment, AppointmentDTO> mapper) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (Appointment appointment : appointments) {
+                checksum += mapper.apply(appointment).getPatient().getUser().getId();
+            }
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+        }
+        return new Result((double) bestNanos / appointments.size(), bestBytes / appointments.size(), checksum);
+    }
+
+    private static List<Appointment> appointments(int count) {
+        Role doctorRole = Role.builder().id(2L).name("DOCTOR").build();
+        Role patientRole = Role.builder().id(1L).name("PATIENT").build();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User doctorUser = User.builder().id(2L * i).name("Dr Kim " + i).email("kim" + i + "@example.com")
+                    .password("hash").roles(List.of(doctorRole)).build();
+            User patientUser = User.builder().id(2L * i + 1).name("Lee " + i).email("lee" + i + "@example.com")
+                    .password("hash").roles(List.of(patientRole)).build();
+            Doctor doctor = Doctor.builder().id((long) i).firstName("Min").lastName("Kim")
+                    .specialization(Specialization.CARDIOLOGY).licenseNumber("L-" + i).user(doctorUser).build();
+            Patient patient = Patient.builder().id((long) i).firstName("Ji").lastName("Lee").user(patientUser).build();
+            appointments.add(Appointment.builder()
+                    .id((long) i).startTime(start.plusHours(i)).endTime(start.plusHours(i).plusMinutes(60))
+                    .status(AppointmentStatus.SCHEDULED).meetingLink("https://meet.jit.si/" + i)
+                    .purposeOfConsultation("Check-up").initialSymptoms("Headache")
+                    .doctor(doctor).patient(patient).build());
+        }
+        return appointments;
+    }
+
+    private record Result(double nanosPerObject, long bytesPerObject, long checksum) {
+    }
+}
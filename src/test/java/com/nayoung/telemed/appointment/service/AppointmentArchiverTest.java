@@ -0,0 +1,88 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.JpaTestClinic;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.entity.ArchivedAppointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.repo.ArchivedAppointmentRepo;
+import com.nayoung.telemed.consultation.entity.ArchivedConsultation;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.repo.ArchivedConsultationRepo;
+import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "appointment.archive.horizon-days=30")
+@Import({AppointmentArchiver.class, JpaTestClinic.class})
+class AppointmentArchiverTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JpaTestClinic clinic;
+
+    @Autowired
+    private AppointmentArchiver archiver;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private ArchivedAppointmentRepo archivedAppointmentRepo;
+
+    @Autowired
+    private ConsultationRepo consultationRepo;
+
+    @Autowired
+    private ArchivedConsultationRepo archivedConsultationRepo;
+
+    @Test
+    void movesOnlyFinishedAppointmentsPastTheHorizonWithTheirNotes() {
+        Doctor doctor = clinic.doctor("Min");
+        Patient patient = clinic.patient("Ji");
+
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(90);
+        Appointment old = appointment(doctor, patient, longAgo, AppointmentStatus.COMPLETED);
+        Appointment forgotten = appointment(doctor, patient, longAgo.plusHours(2), AppointmentStatus.SCHEDULED);
+        Appointment recent = appointment(doctor, patient, LocalDateTime.now().minusDays(2), AppointmentStatus.COMPLETED);
+        entityManager.persist(Consultation.builder().consultationDate(longAgo).plan("rest").appointment(old).build());
+        entityManager.persist(Consultation.builder().consultationDate(recent.getStartTime()).plan("recheck").appointment(recent).build());
+        entityManager.flush();
+
+        archiver.archive();
+        entityManager.clear();
+
+        assertFalse(appointmentRepo.existsById(old.getId()));
+        assertTrue(appointmentRepo.existsById(forgotten.getId())); // left for the no-show sweeper
+        assertTrue(appointmentRepo.existsById(recent.getId()));
+        assertTrue(consultationRepo.findByAppointmentId(old.getId()).isEmpty());
+
+        assertEquals(List.of(old.getId()), archivedAppointmentRepo
+                .findPatientAppointmentsPage(patient.getUser().getId(), null, null, null, null, PageRequest.of(0, 10))
+                .stream().map(ArchivedAppointment::getId).toList());
+        ArchivedConsultation notes = archivedConsultationRepo.findByAppointmentId(old.getId()).orElseThrow();
+        assertEquals("rest", notes.getPlan());
+        assertEquals(old.getId(), notes.toConsultation().getAppointment().getId());
+    }
+
+    private Appointment appointment(Doctor doctor, Patient patient, LocalDateTime start, AppointmentStatus status) {
+        return entityManager.persist(Appointment.builder()
+                .startTime(start).endTime(start.plusHours(1))
+                .status(status).doctor(doctor).patient(patient).build());
+    }
+}
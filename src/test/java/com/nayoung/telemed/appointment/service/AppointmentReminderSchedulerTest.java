@@ -0,0 +1,110 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.notification.service.NotificationOutbox;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class AppointmentReminderSchedulerTest {
+
+    private static final String DAY_BEFORE = "CareBridge: Your Appointment Starts in 24 hours";
+    private static final String HOUR_BEFORE = "CareBridge: Your Appointment Starts in 1 hour";
+
+    @Autowired
+    private AppointmentReminderScheduler reminderScheduler;
+
+    @MockitoSpyBean
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void defaultRetry() {
+        ReflectionTestUtils.setField(reminderScheduler, "retryMillis", 30_000L);
+    }
+
+    @Test
+    void claimingAnOffsetTwiceSendsItOnce() {
+        Appointment appointment = appointment("twice", LocalDateTime.now().plusDays(2));
+        AppointmentReminderScheduler.Reminder dayBefore = new AppointmentReminderScheduler.Reminder(appointment.getId(), 0);
+
+        assertEquals(1, reminderScheduler.dispatch(List.of(dayBefore, dayBefore)));
+        assertEquals(0, reminderScheduler.dispatch(List.of(dayBefore)));
+
+        assertEquals(List.of(DAY_BEFORE), subjectsSentTo(appointment.getPatient()));
+        assertEquals(1, remindersSent(appointment));
+    }
+
+    @Test
+    void bothOffsetsOfOneAppointmentInABatchAreSent() {
+        Appointment appointment = appointment("both", LocalDateTime.now().plusDays(2));
+
+        assertEquals(2, reminderScheduler.dispatch(List.of(
+                new AppointmentReminderScheduler.Reminder(appointment.getId(), 0),
+                new AppointmentReminderScheduler.Reminder(appointment.getId(), 1))));
+
+        assertEquals(List.of(HOUR_BEFORE, DAY_BEFORE), subjectsSentTo(appointment.getPatient()));
+        assertEquals(3, remindersSent(appointment));
+    }
+
+    @Test
+    void failedBatchGoesBackIntoTheWheel() throws Exception {
+        ReflectionTestUtils.setField(reminderScheduler, "retryMillis", 500L);
+        doThrow(new IllegalStateException("outbox down")).doCallRealMethod().when(notificationOutbox).enqueue(any(), any());
+        // the hour-before reminder comes due within a couple of ticks
+        Appointment appointment = appointment("retried", LocalDateTime.now().plusMinutes(60).plusSeconds(2));
+        reminderScheduler.schedule(appointment);
+
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (subjectsSentTo(appointment.getPatient()).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(List.of(HOUR_BEFORE), subjectsSentTo(appointment.getPatient()));
+        assertEquals(2, remindersSent(appointment));
+    }
+
+    private Appointment appointment(String name, LocalDateTime startTime) {
+        return appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(AppointmentStatus.SCHEDULED)
+                .doctor(clinic.doctor(name + "-doctor")).patient(clinic.patient(name + "-patient")).build());
+    }
+
+    private List<String> subjectsSentTo(Patient patient) {
+        return jdbcTemplate.queryForList("SELECT subject FROM notification_outbox WHERE recipient = ? ORDER BY subject",
+                String.class, patient.getUser().getEmail());
+    }
+
+    private int remindersSent(Appointment appointment) {
+        return jdbcTemplate.queryForObject("SELECT reminders_sent FROM appointments WHERE id = ?",
+                Integer.class, appointment.getId());
+    }
+}
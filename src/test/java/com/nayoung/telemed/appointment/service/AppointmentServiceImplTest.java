@@ -0,0 +1,372 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.dto.AppointmentSeriesDTO;
+import com.nayoung.telemed.appointment.dto.WaitlistEntryDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.repo.WaitlistEntryRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.RecurrenceFrequency;
+import com.nayoung.telemed.enums.WaitlistStatus;
+import com.nayoung.telemed.exceptions.BadRequestException;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.res.CursorPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class AppointmentServiceImplTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private WaitlistEntryRepo waitlistEntryRepo;
+
+    @Autowired
+    private BookingLocks bookingLocks;
+
+    @Autowired
+    private DoctorScheduleIndex doctorScheduleIndex;
+
+    @Autowired
+    private AppointmentArchiver archiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void signOut() {
+        clinic.signOut();
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotBookItOnce() throws Exception {
+        int patients = 8;
+        Doctor doctor = clinic.doctor("booked-doctor");
+        List<Patient> bookers = new ArrayList<>();
+        for (int i = 0; i < patients; i++) {
+            bookers.add(clinic.patient("booker" + i));
+        }
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(LocalTime.of(10, 0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(patients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (Patient patient : bookers) {
+                attempts.add(executor.submit(() -> {
+                    clinic.signIn(patient.getUser());
+                    start.await();
+                    try {
+                        appointmentService.bookAppointment(AppointmentDTO.builder()
+                                .doctorId(doctor.getId())
+                                .startTime(startTime)
+                                .purposeOfConsultation("Check-up")
+                                .build());
+                        return true;
+                    } catch (BadRequestException e) {
+                        return false;
+                    } finally {
+                        clinic.signOut();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int booked = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get(30, TimeUnit.SECONDS)) {
+                    booked++;
+                }
+            }
+            assertEquals(1, booked);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM appointments WHERE doctor_id = ? AND status = 'SCHEDULED'",
+                Integer.class, doctor.getId()));
+    }
+
+    @Test
+    void slotTakenInTheIndexIsRejectedWithoutTheDoctorsLock() throws Exception {
+        Doctor doctor = clinic.doctor("fast-path-doctor");
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(LocalTime.of(9, 0));
+        clinic.signIn(clinic.patient("fast-path-first").getUser());
+        appointmentService.bookAppointment(AppointmentDTO.builder()
+                .doctorId(doctor.getId()).startTime(startTime).purposeOfConsultation("Check-up").build());
+
+        // another booking of the doctor holds the lock until this test is done
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> holder = executor.submit(() -> bookingLocks.withDoctorLock(doctor.getId(), () -> {
+                locked.countDown();
+                try {
+                    return done.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(locked.await(30, TimeUnit.SECONDS));
+
+            clinic.signIn(clinic.patient("fast-path-second").getUser());
+            assertThrows(BadRequestException.class, () -> appointmentService.bookAppointment(AppointmentDTO.builder()
+                    .doctorId(doctor.getId()).startTime(startTime.plusMinutes(30)).purposeOfConsultation("Check-up").build()));
+
+            done.countDown();
+            assertTrue(holder.get(30, TimeUnit.SECONDS), "the rejected booking waited for the doctor's lock");
+        } finally {
+            done.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cancellingTwiceOffersTheSlotOnce() {
+        Doctor doctor = clinic.doctor("cancelled-doctor");
+        Patient patient = clinic.patient("cancelling-patient");
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(LocalTime.of(15, 0));
+        Appointment appointment = appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(AppointmentStatus.SCHEDULED)
+                .doctor(doctor).patient(patient).build());
+
+        Long first = joinWaitlist(clinic.patient("waiting-first"), doctor, startTime.toLocalDate());
+        Long second = joinWaitlist(clinic.patient("waiting-second"), doctor, startTime.toLocalDate());
+
+        clinic.signIn(patient.getUser());
+        appointmentService.cancelAppointment(appointment.getId());
+        assertThrows(BadRequestException.class, () -> appointmentService.cancelAppointment(appointment.getId()));
+
+        List<WaitlistStatus> statuses = List.of(
+                waitlistEntryRepo.findById(first).orElseThrow().getStatus(),
+                waitlistEntryRepo.findById(second).orElseThrow().getStatus());
+        assertEquals(1, statuses.stream().filter(WaitlistStatus.OFFERED::equals).count());
+        assertEquals(1, statuses.stream().filter(WaitlistStatus.WAITING::equals).count());
+    }
+
+    @Test
+    void completingOnlyMovesAScheduledAppointment() {
+        Doctor doctor = clinic.doctor("completing-doctor");
+        Patient patient = clinic.patient("completing-patient");
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(30).withNano(0); // inside the no-show grace period
+        Appointment completed = appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(AppointmentStatus.SCHEDULED)
+                .doctor(doctor).patient(patient).build());
+        Appointment swept = appointmentRepo.save(Appointment.builder()
+                .startTime(startTime.minusDays(1)).endTime(startTime.minusDays(1).plusMinutes(60))
+                .status(AppointmentStatus.SCHEDULED).doctor(doctor).patient(patient).build());
+        // the no-show sweep got there first
+        appointmentRepo.updateStatus(swept.getId(), AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW);
+
+        clinic.signIn(doctor.getUser());
+        appointmentService.completeAppointment(completed.getId());
+        assertThrows(BadRequestException.class, () -> appointmentService.completeAppointment(completed.getId()));
+        assertThrows(BadRequestException.class, () -> appointmentService.completeAppointment(swept.getId()));
+
+        assertEquals(AppointmentStatus.COMPLETED, appointmentRepo.findById(completed.getId()).orElseThrow().getStatus());
+        assertEquals(AppointmentStatus.NO_SHOW, appointmentRepo.findById(swept.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void seriesNeedsEitherOccurrencesOrAnEndDate() {
+        Doctor doctor = clinic.doctor("series-either-doctor");
+        Patient patient = clinic.patient("series-either-patient");
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(LocalTime.of(14, 0));
+        clinic.signIn(patient.getUser());
+
+        assertThrows(BadRequestException.class, () -> appointmentService.bookAppointmentSeries(
+                series(doctor, startTime, RecurrenceFrequency.WEEKLY).build()));
+        assertThrows(BadRequestException.class, () -> appointmentService.bookAppointmentSeries(
+                series(doctor, startTime, RecurrenceFrequency.WEEKLY)
+                        .occurrences(3).endDate(startTime.toLocalDate().plusWeeks(2)).build()));
+
+        assertEquals(0, appointmentsOf(patient));
+    }
+
+    @Test
+    void seriesIsCappedAtTheMaximumOccurrences() {
+        Doctor doctor = clinic.doctor("series-cap-doctor");
+        Patient patient = clinic.patient("series-cap-patient");
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(LocalTime.of(14, 0));
+        clinic.signIn(patient.getUser());
+
+        assertThrows(BadRequestException.class, () -> appointmentService.bookAppointmentSeries(
+                series(doctor, startTime, RecurrenceFrequency.WEEKLY).occurrences(27).build()));
+        // 27 weekly dates up to the end date
+        assertThrows(BadRequestException.class, () -> appointmentService.bookAppointmentSeries(
+                series(doctor, startTime, RecurrenceFrequency.WEEKLY).endDate(startTime.toLocalDate().plusWeeks(26)).build()));
+        assertEquals(0, appointmentsOf(patient));
+
+        assertEquals(26, appointmentService.bookAppointmentSeries(
+                series(doctor, startTime, RecurrenceFrequency.WEEKLY).endDate(startTime.toLocalDate().plusWeeks(25)).build())
+                .getData().size());
+    }
+
+    @Test
+    void seriesWithOneTakenOccurrenceBooksNone() {
+        Doctor doctor = clinic.doctor("series-conflict-doctor");
+        Patient patient = clinic.patient("series-conflict-patient");
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(LocalTime.of(14, 0));
+        LocalDateTime taken = startTime.plusWeeks(4).plusMinutes(30);
+        // booked on another node after this one loaded the day: only the check under the lock sees it
+        assertFalse(doctorScheduleIndex.hasConflict(doctor.getId(), taken.minusMinutes(60), taken.plusMinutes(60)));
+        appointmentRepo.save(Appointment.builder()
+                .startTime(taken).endTime(taken.plusMinutes(60)).status(AppointmentStatus.SCHEDULED)
+                .doctor(doctor).patient(clinic.patient("series-conflict-other")).build());
+
+        clinic.signIn(patient.getUser());
+        assertThrows(BadRequestException.class, () -> appointmentService.bookAppointmentSeries(
+                series(doctor, startTime, RecurrenceFrequency.BIWEEKLY).occurrences(4).build()));
+
+        assertEquals(0, appointmentsOf(patient));
+    }
+
+    @Test
+    void seriesIsInsertedTogetherAndReturnedWithItsIds() {
+        Doctor doctor = clinic.doctor("series-batch-doctor");
+        Patient patient = clinic.patient("series-batch-patient");
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(LocalTime.of(14, 0));
+        clinic.signIn(patient.getUser());
+
+        List<AppointmentDTO> booked = appointmentService.bookAppointmentSeries(
+                series(doctor, startTime, RecurrenceFrequency.BIWEEKLY).occurrences(3).build()).getData();
+
+        assertEquals(List.of(startTime, startTime.plusWeeks(2), startTime.plusWeeks(4)),
+                booked.stream().map(AppointmentDTO::getStartTime).toList());
+        String seriesId = booked.getFirst().getSeriesId();
+        String meetingLink = booked.getFirst().getMeetingLink();
+        for (AppointmentDTO appointment : booked) {
+            assertEquals(seriesId, appointment.getSeriesId());
+            assertEquals(meetingLink, appointment.getMeetingLink());
+            assertEquals(AppointmentStatus.SCHEDULED, appointment.getStatus());
+            assertEquals(appointment.getStartTime().plusMinutes(60), appointment.getEndTime());
+        }
+        assertEquals(booked.stream().map(AppointmentDTO::getId).sorted().toList(), jdbcTemplate.queryForList(
+                "SELECT id FROM appointments WHERE series_id = ? AND patient_id = ? ORDER BY id",
+                Long.class, seriesId, patient.getId()));
+    }
+
+    @Test
+    void cursorWalksEveryPageOfHotAndArchivedAppointmentsOnce() {
+        Doctor doctor = clinic.doctor("paging-doctor");
+        Patient patient = clinic.patient("paging-patient");
+        LocalDateTime longAgo = LocalDate.now().minusDays(400).atTime(LocalTime.of(9, 0));
+        LocalDateTime lastWeek = LocalDate.now().minusDays(7).atTime(LocalTime.of(9, 0));
+
+        // old and recent appointments alternate, so archived and hot ids interleave in every listing
+        List<Appointment> all = new ArrayList<>();
+        List<Appointment> completed = new ArrayList<>();
+        List<Appointment> archived = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            AppointmentStatus status = i == 2 ? AppointmentStatus.CANCELLED : AppointmentStatus.COMPLETED;
+            Appointment old = pastAppointment(doctor, patient, longAgo.plusDays(i), status);
+            Appointment recent = pastAppointment(doctor, patient, lastWeek.plusDays(i), status);
+            all.addAll(List.of(old, recent));
+            archived.add(old);
+            if (status == AppointmentStatus.COMPLETED) {
+                completed.addAll(List.of(old, recent));
+            }
+        }
+        LocalDateTime upcoming = LocalDate.now().plusDays(3).atTime(LocalTime.of(9, 0));
+        all.add(appointmentRepo.save(Appointment.builder()
+                .startTime(upcoming).endTime(upcoming.plusMinutes(60)).status(AppointmentStatus.SCHEDULED)
+                .doctor(doctor).patient(patient).build()));
+        archiver.archive();
+        assertFalse(appointmentRepo.existsById(archived.getFirst().getId()));
+
+        clinic.signIn(patient.getUser());
+        assertEquals(newestFirst(all), walk(null, null, null));
+        assertEquals(newestFirst(completed), walk(AppointmentStatus.COMPLETED, null, null));
+        assertEquals(newestFirst(archived),
+                walk(null, longAgo.toLocalDate(), longAgo.toLocalDate().plusDays(3)));
+    }
+
+    // follows nextCursor with pages of two, each page must continue exactly where the last one ended
+    private List<Long> walk(AppointmentStatus status, LocalDate from, LocalDate to) {
+        List<Long> ids = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<AppointmentDTO> page = appointmentService.getMyAppointments(cursor, 2, status, from, to).getData();
+            page.getContent().forEach(appointment -> ids.add(appointment.getId()));
+            pages++;
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertTrue(pages > 1, "a single page proves nothing about the cursor");
+        return ids;
+    }
+
+    private Appointment pastAppointment(Doctor doctor, Patient patient, LocalDateTime startTime, AppointmentStatus status) {
+        return appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(status)
+                .doctor(doctor).patient(patient).build());
+    }
+
+    private static List<Long> newestFirst(List<Appointment> appointments) {
+        return appointments.stream().map(Appointment::getId).sorted(Comparator.reverseOrder()).toList();
+    }
+
+    private static AppointmentSeriesDTO.AppointmentSeriesDTOBuilder series(Doctor doctor, LocalDateTime startTime,
+                                                                           RecurrenceFrequency frequency) {
+        return AppointmentSeriesDTO.builder()
+                .doctorId(doctor.getId()).startTime(startTime).frequency(frequency).purposeOfConsultation("Physiotherapy");
+    }
+
+    private int appointmentsOf(Patient patient) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointments WHERE patient_id = ?",
+                Integer.class, patient.getId());
+    }
+
+    private Long joinWaitlist(Patient patient, Doctor doctor, LocalDate date) {
+        clinic.signIn(patient.getUser());
+        try {
+            return waitlistService.joinWaitlist(WaitlistEntryDTO.builder()
+                    .doctorId(doctor.getId()).fromDate(date).toDate(date).purposeOfConsultation("Any time")
+                    .build()).getData().getId();
+        } finally {
+            clinic.signOut();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.dto.AvailableSlotDTO;
+import com.nayoung.telemed.doctor.repo.DoctorRepo;
+import com.nayoung.telemed.enums.Specialization;
+import com.nayoung.telemed.role.service.RoleRegistry;
+import com.nayoung.telemed.users.dto.RegistrationRequest;
+import com.nayoung.telemed.users.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class AvailabilityIndexTest {
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private DoctorRepo doctorRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void aNewlyRegisteredDoctorShowsUpInAnAlreadyLoadedSpecialization() {
+        clinic.doctor("availability-warmup"); // the DOCTOR role exists
+        List<Long> before = doctorIdsWithSlots(); // DERMATOLOGY is loaded before the doctor joins
+
+        // the request's open EntityManager, which the role references in register rely on
+        transactionTemplate.executeWithoutResult(status -> authService.register(RegistrationRequest.builder()
+                .name("availability-new").email("availability-new@example.com").password("password-1")
+                .roles(List.of(RoleRegistry.DOCTOR))
+                .specialization(Specialization.DERMATOLOGY).licenseNumber("L-availability-new")
+                .build()));
+        Long doctorId = doctorRepo.findBySpecialization(Specialization.DERMATOLOGY).stream()
+                .filter(doctor -> "L-availability-new".equals(doctor.getLicenseNumber()))
+                .findFirst().orElseThrow().getId();
+
+        assertFalse(before.contains(doctorId));
+        assertTrue(doctorIdsWithSlots().contains(doctorId));
+    }
+
+    @Test
+    void invalidatingEverythingDropsTheDoctorsToo() {
+        clinic.doctor("availability-cardiology");
+        availabilityIndex.findAvailableSlots(Specialization.CARDIOLOGY, LocalDate.now().plusDays(1).atStartOfDay(),
+                LocalDate.now().plusDays(2).atStartOfDay(), LocalTime.of(9, 0), LocalTime.of(10, 0), 60, 1);
+        assertFalse(doctors().isEmpty());
+
+        availabilityIndex.invalidateAll();
+
+        assertTrue(doctors().isEmpty());
+    }
+
+    private List<Long> doctorIdsWithSlots() {
+        LocalDateTime day = LocalDate.now().plusDays(30).atStartOfDay();
+        return availabilityIndex.findAvailableSlots(Specialization.DERMATOLOGY, day, day.plusDays(1),
+                        LocalTime.of(9, 0), LocalTime.of(10, 0), 60, 1000).stream()
+                .map(AvailableSlotDTO::getDoctorId)
+                .toList();
+    }
+
+    private Map<?, ?> doctors() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(availabilityIndex, "doctors");
+    }
+}
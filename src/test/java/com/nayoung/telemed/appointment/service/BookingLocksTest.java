@@ -0,0 +1,71 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingLocksTest {
+
+    private final BookingLocks bookingLocks = new BookingLocks(256, 200);
+
+    @Test
+    void distinctDoctorsHoldTheirLocksAtTheSameTime() throws Exception {
+        // each booking waits inside its lock until the other one is inside too
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(() -> bookingLocks.withDoctorLock(1L, () -> awaitOther(bothInside)));
+            Future<Boolean> second = executor.submit(() -> bookingLocks.withDoctorLock(2L, () -> awaitOther(bothInside)));
+
+            assertTrue(first.get(30, TimeUnit.SECONDS), "the first doctor's booking never saw the second one inside");
+            assertTrue(second.get(30, TimeUnit.SECONDS), "the second doctor's booking never saw the first one inside");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void secondBookingOfADoctorWaitsForTheFirst() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> holder = executor.submit(() -> bookingLocks.withDoctorLock(1L, () -> {
+                locked.countDown();
+                return awaitQuietly(done);
+            }));
+            assertTrue(locked.await(30, TimeUnit.SECONDS));
+
+            assertThrows(ServiceUnavailableException.class, () -> bookingLocks.withDoctorLock(1L, () -> null));
+
+            done.countDown();
+            assertTrue(holder.get(30, TimeUnit.SECONDS));
+            bookingLocks.withDoctorLock(1L, () -> null); // free again once the first booking is done
+        } finally {
+            done.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean awaitOther(CountDownLatch bothInside) {
+        bothInside.countDown();
+        return awaitQuietly(bothInside);
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
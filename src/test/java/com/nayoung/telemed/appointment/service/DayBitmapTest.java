@@ -0,0 +1,54 @@
+package com.nayoung.telemed.appointment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DayBitmapTest {
+
+    @Test
+    void matchesBruteForceMinuteArray() {
+        Random random = new Random(7);
+        DayBitmap bitmap = new DayBitmap();
+        int[] owners = new int[DayBitmap.MINUTES_PER_DAY];
+
+        for (int id = 1; id <= 20; id++) {
+            int from = random.nextInt(DayBitmap.MINUTES_PER_DAY - 60);
+            int to = from + 1 + random.nextInt(60);
+            bitmap.occupy((long) id, from, to);
+            for (int minute = from; minute < to; minute++) {
+                owners[minute]++;
+            }
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            int from = random.nextInt(DayBitmap.MINUTES_PER_DAY - 1);
+            int to = from + 1 + random.nextInt(DayBitmap.MINUTES_PER_DAY - from);
+            boolean expected = true;
+            for (int minute = from; minute < to; minute++) {
+                expected &= owners[minute] == 0;
+            }
+            assertEquals(expected, bitmap.isFree(from, to), "range " + from + "-" + to);
+        }
+    }
+
+    @Test
+    void releaseKeepsOverlappingAppointment() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.occupy(1L, 600, 660);
+        bitmap.occupy(2L, 630, 690);
+
+        bitmap.release(1L);
+
+        assertTrue(bitmap.isFree(600, 630));
+        assertFalse(bitmap.isFree(630, 690));
+
+        bitmap.release(2L);
+        assertTrue(bitmap.isEmpty());
+        assertTrue(bitmap.isFree(0, DayBitmap.MINUTES_PER_DAY));
+    }
+}
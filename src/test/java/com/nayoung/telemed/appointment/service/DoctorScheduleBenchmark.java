@@ -0,0 +1,123 @@
+package com.nayoung.telemed.appointment.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Cost of the booking conflict probe: DoctorSchedule in memory against the existsConflictingAppointment query on
+ * an in-memory H2 table with the same (doctor_id, status, start_time) index, at appointmentsPerDoctor scheduled
+ * slots. H2 in process leaves out the network round trip, so the query figure is a lower bound for MySQL.
+ * Not a unit test, run its main method: java ... DoctorScheduleBenchmark [appointmentsPerDoctor] [probes]
+ */
+public final class DoctorScheduleBenchmark {
+
+    private static final int DOCTORS = 5;
+    private static final int ROUNDS = 5;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    // what AppointmentRepo.existsConflictingAppointment generates, minus the join Hibernate leaves out
+    private static final String CONFLICT_QUERY = "SELECT COUNT(*) > 0 FROM appointments " +
+            "WHERE doctor_id = ? AND status = 'SCHEDULED' AND start_time < ? AND end_time > ?";
+
+    private DoctorScheduleBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int appointmentsPerDoctor = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int probes = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        DoctorSchedule schedule = new DoctorSchedule(System.currentTimeMillis());
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:schedule-benchmark")) {
+            load(connection, appointmentsPerDoctor, schedule);
+
+            LocalDateTime[] starts = probeStarts(appointmentsPerDoctor, probes);
+            long indexNanos = Long.MAX_VALUE;
+            long queryNanos = Long.MAX_VALUE;
+            int indexConflicts = 0;
+            int queryConflicts = 0;
+            // best of a few rounds, the first ones include JIT warm-up
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                indexConflicts = 0;
+                for (LocalDateTime probe : starts) {
+                    if (schedule.hasConflict(probe.minusMinutes(60), probe.plusMinutes(60))) {
+                        indexConflicts++;
+                    }
+                }
+                indexNanos = Math.min(indexNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                queryConflicts = 0;
+                try (PreparedStatement query = connection.prepareStatement(CONFLICT_QUERY)) {
+                    for (LocalDateTime probe : starts) {
+                        query.setLong(1, 1);
+                        query.setTimestamp(2, Timestamp.valueOf(probe.plusMinutes(60)));
+                        query.setTimestamp(3, Timestamp.valueOf(probe.minusMinutes(60)));
+                        try (ResultSet rs = query.executeQuery()) {
+                            rs.next();
+                            if (rs.getBoolean(1)) {
+                                queryConflicts++;
+                            }
+                        }
+                    }
+                }
+                queryNanos = Math.min(queryNanos, System.nanoTime() - start);
+            }
+
+            if (indexConflicts != queryConflicts) {
+                throw new IllegalStateException("Index found " + indexConflicts + " conflicts, the query " + queryConflicts);
+            }
+            System.out.printf("%,d scheduled appointments per doctor, %,d probes, %,d conflicts%n",
+                    appointmentsPerDoctor, probes, indexConflicts);
+            System.out.printf("DoctorSchedule: %10.3f us per probe%n", indexNanos / 1000.0 / probes);
+            System.out.printf("H2 query:       %10.3f us per probe%n", queryNanos / 1000.0 / probes);
+        }
+    }
+
+    // hourly slots with gaps, so probes find a mix of free and taken times
+    private static void load(Connection connection, int appointmentsPerDoctor, DoctorSchedule schedule) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE appointments (id BIGINT PRIMARY KEY, doctor_id BIGINT NOT NULL, " +
+                    "status VARCHAR(20) NOT NULL, start_time TIMESTAMP NOT NULL, end_time TIMESTAMP NOT NULL)");
+            ddl.execute("CREATE INDEX idx_appointment_doctor_status_start ON appointments (doctor_id, status, start_time)");
+        }
+
+        Random random = new Random(42);
+        long id = 0;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO appointments VALUES (?, ?, ?, ?, ?)")) {
+            for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+                for (int i = 0; i < appointmentsPerDoctor; i++) {
+                    LocalDateTime start = FIRST_SLOT.plusHours(3L * i);
+                    // a few cancelled rows, the index leaves them out and the query filters them
+                    String status = random.nextInt(10) == 0 ? "CANCELLED" : "SCHEDULED";
+                    insert.setLong(1, ++id);
+                    insert.setLong(2, doctorId);
+                    insert.setString(3, status);
+                    insert.setTimestamp(4, Timestamp.valueOf(start));
+                    insert.setTimestamp(5, Timestamp.valueOf(start.plusMinutes(60)));
+                    insert.addBatch();
+                    if (doctorId == 1 && status.equals("SCHEDULED")) {
+                        schedule.add(id, start, start.plusMinutes(60));
+                    }
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static LocalDateTime[] probeStarts(int appointmentsPerDoctor, int probes) {
+        Random random = new Random(7);
+        LocalDateTime[] starts = new LocalDateTime[probes];
+        for (int i = 0; i < probes; i++) {
+            starts[i] = FIRST_SLOT.plusMinutes(30L * random.nextInt(appointmentsPerDoctor * 6));
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,70 @@
+package com.nayoung.telemed.appointment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorScheduleTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Test
+    void matchesBruteForceOverlapCheckAtTenThousandAppointments() {
+        Random random = new Random(42);
+        DoctorSchedule schedule = new DoctorSchedule(System.currentTimeMillis());
+        List<DoctorSchedule.Slot> all = new ArrayList<>();
+
+        for (long id = 1; id <= 10_000; id++) {
+            LocalDateTime start = BASE.plusMinutes(random.nextInt(60 * 24 * 365));
+            LocalDateTime end = start.plusMinutes(60);
+            schedule.add(id, start, end);
+            all.add(new DoctorSchedule.Slot(id, start, end));
+        }
+
+        // drop a slice, as cancellations would
+        for (long id = 1; id <= 10_000; id += 7) {
+            schedule.remove(id);
+        }
+        all.removeIf(slot -> (slot.appointmentId() - 1) % 7 == 0);
+
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime start = BASE.plusMinutes(random.nextInt(60 * 24 * 365));
+            LocalDateTime checkStart = start.minusMinutes(60);
+            LocalDateTime end = start.plusMinutes(60);
+
+            boolean expected = all.stream()
+                    .anyMatch(slot -> slot.start().isBefore(end) && slot.end().isAfter(checkStart));
+
+            assertEquals(expected, schedule.hasConflict(checkStart, end), "probe at " + start);
+        }
+    }
+
+    @Test
+    void adjacentSlotsDoNotConflict() {
+        DoctorSchedule schedule = new DoctorSchedule(System.currentTimeMillis());
+        schedule.add(1L, BASE, BASE.plusMinutes(60));
+
+        assertFalse(schedule.hasConflict(BASE.plusMinutes(60), BASE.plusMinutes(120)));
+        assertFalse(schedule.hasConflict(BASE.minusMinutes(60), BASE));
+        assertTrue(schedule.hasConflict(BASE.plusMinutes(59), BASE.plusMinutes(119)));
+    }
+
+    @Test
+    void pruneDropsOnlyEndedSlots() {
+        DoctorSchedule schedule = new DoctorSchedule(System.currentTimeMillis());
+        schedule.add(1L, BASE, BASE.plusMinutes(60));
+        schedule.add(2L, BASE.plusHours(3), BASE.plusHours(4));
+
+        schedule.pruneEndedBefore(BASE.plusHours(2));
+
+        assertEquals(1, schedule.size());
+        assertTrue(schedule.hasConflict(BASE.plusHours(3), BASE.plusHours(4)));
+    }
+}
@@ -0,0 +1,72 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class NoShowSweeperTest {
+
+    @Autowired
+    private NoShowSweeper sweeper;
+
+    @Autowired
+    private DoctorScheduleIndex doctorScheduleIndex;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sweptAppointmentsLeaveTheIndexAndBumpTheCalendars() {
+        Doctor doctor = clinic.doctor("sweep-doctor");
+        Patient patient = clinic.patient("sweep-patient");
+        Patient other = clinic.patient("sweep-other");
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        // a long session past the grace period that still runs, so the index keeps it
+        Appointment missed = save(doctor, patient, now.minusMinutes(150), now.plusMinutes(60), AppointmentStatus.SCHEDULED);
+        Appointment completed = save(doctor, other, now.minusMinutes(400), now.minusMinutes(340), AppointmentStatus.COMPLETED);
+        assertTrue(doctorScheduleIndex.hasConflict(doctor.getId(), now, now.plusMinutes(30)));
+
+        sweeper.markNoShows();
+
+        assertEquals(AppointmentStatus.NO_SHOW, appointmentRepo.findById(missed.getId()).orElseThrow().getStatus());
+        assertEquals(AppointmentStatus.COMPLETED, appointmentRepo.findById(completed.getId()).orElseThrow().getStatus());
+        assertFalse(doctorScheduleIndex.hasConflict(doctor.getId(), now, now.plusMinutes(30)));
+        assertEquals(1, scheduleVersion(doctor.getUser().getId()));
+        assertEquals(1, scheduleVersion(patient.getUser().getId()));
+        assertEquals(0, scheduleVersion(other.getUser().getId()));
+    }
+
+    private Appointment save(Doctor doctor, Patient patient, LocalDateTime start, LocalDateTime end, AppointmentStatus status) {
+        return appointmentRepo.save(Appointment.builder()
+                .startTime(start).endTime(end).status(status).doctor(doctor).patient(patient).build());
+    }
+
+    private long scheduleVersion(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT schedule_version FROM users WHERE id = ?", Long.class, userId);
+    }
+}
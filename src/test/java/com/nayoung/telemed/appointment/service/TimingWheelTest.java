@@ -0,0 +1,78 @@
+package com.nayoung.telemed.appointment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_123_000L;
+
+    @Test
+    void firesEveryEntryExactlyAtItsTickAcrossAllLevels() {
+        Random random = new Random(11);
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 4, START);
+        Map<Long, Long> expirations = new HashMap<>();
+        Map<Long, TimingWheel.Entry<Long>> entries = new HashMap<>();
+
+        // spread over two days, which reaches the third level
+        for (long id = 0; id < 100_000; id++) {
+            long expiration = START + TICK + random.nextLong(2 * 24 * 3600 * TICK);
+            expirations.put(id, expiration / TICK);
+            entries.put(id, wheel.schedule(expiration, id));
+        }
+        for (long id = 0; id < 100_000; id += 3) {
+            assertTrue(wheel.cancel(entries.get(id)));
+            expirations.remove(id);
+        }
+        assertEquals(expirations.size(), wheel.size());
+
+        List<Long> fired = new ArrayList<>();
+        long now = START;
+        while (wheel.size() > 0) {
+            now += TICK * (1 + random.nextInt(90)); // uneven steps, as a delayed scheduler would advance
+            for (Long id : wheel.advanceTo(now)) {
+                long expected = expirations.get(id);
+                assertTrue(expected <= now / TICK, "fired early: " + id);
+                assertTrue(expected > (now / TICK) - 90, "fired late: " + id);
+                fired.add(id);
+            }
+        }
+
+        assertEquals(expirations.size(), fired.size());
+        assertEquals(expirations.size(), fired.stream().distinct().count());
+        assertFalse(wheel.cancel(entries.get(1L)));
+    }
+
+    @Test
+    void firesInExpirationOrderWhenAdvancedTickByTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 3, START);
+        for (long seconds : new long[]{4_000, 3, 64, 65, 4_095, 4_096, 63}) {
+            wheel.schedule(START + seconds * TICK, seconds);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = START; now <= START + 5_000 * TICK; now += TICK) {
+            fired.addAll(wheel.advanceTo(now));
+        }
+
+        assertEquals(List.of(3L, 63L, 64L, 65L, 4_000L, 4_095L, 4_096L), fired);
+    }
+
+    @Test
+    void rejectsDueEntries() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 2, START);
+        assertNull(wheel.schedule(START, 1L));
+        assertEquals(0, wheel.size());
+    }
+}
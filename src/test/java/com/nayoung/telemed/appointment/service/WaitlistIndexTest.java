@@ -0,0 +1,45 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.enums.Specialization;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WaitlistIndexTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void earliestEntryCoveringTheDayWinsAcrossDoctorAndSpecialization() {
+        WaitlistIndex index = new WaitlistIndex();
+        index.add(candidate(5L, 1L, null, MONDAY, MONDAY.plusDays(4)));
+        index.add(candidate(3L, null, Specialization.CARDIOLOGY, MONDAY.plusDays(1), MONDAY.plusDays(2)));
+        index.add(candidate(7L, 2L, null, MONDAY, MONDAY.plusDays(4))); // another doctor
+
+        assertEquals(5L, index.best(1L, Specialization.CARDIOLOGY, MONDAY).entryId());
+        assertEquals(3L, index.best(1L, Specialization.CARDIOLOGY, MONDAY.plusDays(1)).entryId());
+        assertEquals(5L, index.best(1L, Specialization.DERMATOLOGY, MONDAY.plusDays(1)).entryId());
+        assertNull(index.best(1L, Specialization.CARDIOLOGY, MONDAY.plusDays(5)));
+    }
+
+    @Test
+    void removedEntriesAreGoneFromEveryDay() {
+        WaitlistIndex index = new WaitlistIndex();
+        index.add(candidate(1L, 1L, null, MONDAY, MONDAY.plusDays(2)));
+        index.add(candidate(2L, 1L, null, MONDAY.plusDays(2), MONDAY.plusDays(2)));
+
+        index.remove(1L);
+
+        assertNull(index.best(1L, null, MONDAY));
+        assertEquals(2L, index.best(1L, null, MONDAY.plusDays(2)).entryId());
+        assertEquals(1, index.size());
+    }
+
+    private static WaitlistIndex.Candidate candidate(Long id, Long doctorId, Specialization specialization,
+                                                     LocalDate from, LocalDate to) {
+        return new WaitlistIndex.Candidate(id, doctorId, specialization, from, to);
+    }
+}
@@ -0,0 +1,153 @@
+package com.nayoung.telemed.appointment.service;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.dto.WaitlistEntryDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.repo.WaitlistEntryRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.WaitlistStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class WaitlistServiceImplTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @MockitoSpyBean
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private WaitlistMatcher waitlistMatcher;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private WaitlistEntryRepo waitlistEntryRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void signOut() {
+        clinic.signOut();
+    }
+
+    @Test
+    void acceptedOfferBooksTheSlot() {
+        FreedSlot slot = freeSlot("accepted");
+
+        clinic.signIn(slot.offeredPatient().getUser());
+        waitlistService.acceptOffer(slot.offered());
+
+        assertEquals(WaitlistStatus.BOOKED, statusOf(slot.offered()));
+        assertEquals(WaitlistStatus.WAITING, statusOf(slot.waiting()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM appointments WHERE patient_id = ? AND start_time = ? AND status = 'SCHEDULED'",
+                Integer.class, slot.offeredPatient().getId(), slot.startTime()));
+    }
+
+    @Test
+    void failedAcceptPutsTheEntryBackAndPassesTheSlotOn() {
+        FreedSlot slot = freeSlot("failed");
+        doThrow(new IllegalStateException("booking failed")).when(appointmentService).bookAppointment(any());
+
+        clinic.signIn(slot.offeredPatient().getUser());
+        assertThrows(IllegalStateException.class, () -> waitlistService.acceptOffer(slot.offered()));
+
+        assertEquals(WaitlistStatus.WAITING, statusOf(slot.offered()));
+        assertEquals(WaitlistStatus.OFFERED, statusOf(slot.waiting()));
+    }
+
+    @Test
+    void declinedOfferGoesToTheNextCandidate() {
+        FreedSlot slot = freeSlot("declined");
+
+        clinic.signIn(slot.offeredPatient().getUser());
+        waitlistService.leaveWaitlist(slot.offered());
+
+        assertEquals(WaitlistStatus.CANCELLED, statusOf(slot.offered()));
+        assertEquals(WaitlistStatus.OFFERED, statusOf(slot.waiting()));
+    }
+
+    @Test
+    void lapsedOfferGoesToTheNextCandidate() {
+        FreedSlot slot = freeSlot("lapsed");
+        jdbcTemplate.update("UPDATE waitlist_entries SET offer_expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), slot.offered());
+
+        waitlistMatcher.expireOffers();
+
+        assertEquals(WaitlistStatus.EXPIRED, statusOf(slot.offered()));
+        assertEquals(WaitlistStatus.OFFERED, statusOf(slot.waiting()));
+    }
+
+    // two patients wait for the doctor, the booked patient cancels and one of them gets the offer
+    private FreedSlot freeSlot(String name) {
+        Doctor doctor = clinic.doctor(name + "-doctor");
+        Patient booked = clinic.patient(name + "-booked");
+        LocalDateTime startTime = LocalDate.now().plusDays(3).atTime(LocalTime.of(11, 0));
+        Appointment appointment = appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(AppointmentStatus.SCHEDULED)
+                .doctor(doctor).patient(booked).build());
+
+        Patient firstPatient = clinic.patient(name + "-first");
+        Patient secondPatient = clinic.patient(name + "-second");
+        Long first = joinWaitlist(firstPatient, doctor, startTime.toLocalDate());
+        Long second = joinWaitlist(secondPatient, doctor, startTime.toLocalDate());
+
+        clinic.signIn(booked.getUser());
+        appointmentService.cancelAppointment(appointment.getId());
+        clinic.signOut();
+
+        assertEquals(List.of(WaitlistStatus.WAITING, WaitlistStatus.OFFERED),
+                List.of(statusOf(first), statusOf(second)).stream().sorted().toList());
+        return statusOf(first) == WaitlistStatus.OFFERED
+                ? new FreedSlot(startTime, first, firstPatient, second)
+                : new FreedSlot(startTime, second, secondPatient, first);
+    }
+
+    private Long joinWaitlist(Patient patient, Doctor doctor, LocalDate date) {
+        clinic.signIn(patient.getUser());
+        try {
+            return waitlistService.joinWaitlist(WaitlistEntryDTO.builder()
+                    .doctorId(doctor.getId()).fromDate(date).toDate(date).purposeOfConsultation("Any time")
+                    .build()).getData().getId();
+        } finally {
+            clinic.signOut();
+        }
+    }
+
+    private WaitlistStatus statusOf(Long entryId) {
+        return waitlistEntryRepo.findById(entryId).orElseThrow().getStatus();
+    }
+
+    private record FreedSlot(LocalDateTime startTime, Long offered, Patient offeredPatient, Long waiting) {
+    }
+}
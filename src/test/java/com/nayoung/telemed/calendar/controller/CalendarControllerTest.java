@@ -0,0 +1,139 @@
+package com.nayoung.telemed.calendar.controller;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.dto.AppointmentDTO;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.appointment.service.AppointmentService;
+import com.nayoung.telemed.calendar.service.CalendarService;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class CalendarControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @AfterEach
+    void signOut() {
+        clinic.signOut();
+    }
+
+    @Test
+    void feedIsNotModifiedUntilTheScheduleChanges() throws Exception {
+        Doctor doctor = clinic.doctor("feed-doctor");
+        Patient patient = clinic.patient("feed-patient");
+        clinic.signIn(patient.getUser());
+        String feedUrl = calendarService.rotateFeedToken().getData();
+        String path = "/api/calendar/feed/" + feedUrl.substring(feedUrl.lastIndexOf('/') + 1);
+
+        String etag = fetchFeed(path);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        clinic.signIn(patient.getUser()); // the security filter chain of the feed requests cleared it
+        appointmentService.bookAppointment(AppointmentDTO.builder()
+                .doctorId(doctor.getId())
+                .startTime(LocalDate.now().plusDays(3).atTime(LocalTime.of(14, 0)))
+                .purposeOfConsultation("Follow-up")
+                .build());
+
+        MvcResult changed = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(changed))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.contains("Follow-up"), body);
+        assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void finishedAppointmentsAreConfirmedOrCalledOff() throws Exception {
+        Doctor doctor = clinic.doctor("feed-status-doctor");
+        Patient patient = clinic.patient("feed-status-patient");
+        pastAppointment(doctor, patient, 2, AppointmentStatus.COMPLETED, "Seen and treated");
+        pastAppointment(doctor, patient, 1, AppointmentStatus.NO_SHOW, "Nobody came");
+        clinic.signIn(patient.getUser());
+        String feedUrl = calendarService.rotateFeedToken().getData();
+
+        MvcResult started = mockMvc.perform(get("/api/calendar/feed/" + feedUrl.substring(feedUrl.lastIndexOf('/') + 1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("REFRESH-INTERVAL;VALUE=DURATION:PT15M"), body);
+        assertEquals("STATUS:CONFIRMED", statusOf(body, "Seen and treated"));
+        assertEquals("STATUS:CANCELLED", statusOf(body, "Nobody came"));
+    }
+
+    private void pastAppointment(Doctor doctor, Patient patient, int daysAgo, AppointmentStatus status, String purpose) {
+        LocalDateTime startTime = LocalDate.now().minusDays(daysAgo).atTime(LocalTime.of(10, 0));
+        appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(status).purposeOfConsultation(purpose)
+                .doctor(doctor).patient(patient).build());
+    }
+
+    // the STATUS line of the event with this description
+    private static String statusOf(String body, String description) {
+        String event = body.substring(body.indexOf("DESCRIPTION:" + description));
+        return event.substring(event.indexOf("STATUS:"), event.indexOf("\r\n", event.indexOf("STATUS:")));
+    }
+
+    private String fetchFeed(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/calendar;charset=UTF-8"));
+        String etag = started.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
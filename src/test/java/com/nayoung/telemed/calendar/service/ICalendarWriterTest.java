@@ -0,0 +1,45 @@
+package com.nayoung.telemed.calendar.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ICalendarWriterTest {
+
+    @Test
+    void escapesText() throws IOException {
+        StringWriter out = new StringWriter();
+        ICalendarWriter writer = new ICalendarWriter(out);
+
+        writer.text("DESCRIPTION", "Follow-up; bring labs, scans\nand notes \\ list");
+        writer.flush();
+
+        assertEquals("DESCRIPTION:Follow-up\\; bring labs\\, scans\\nand notes \\\\ list\r\n", out.toString());
+    }
+
+    @Test
+    void foldsLongLinesAtSeventyFiveOctetsWithoutSplittingCharacters() throws IOException {
+        StringWriter out = new StringWriter();
+        ICalendarWriter writer = new ICalendarWriter(out);
+
+        writer.text("SUMMARY", "상담 ".repeat(40));
+        writer.flush();
+
+        String[] lines = out.toString().split("\r\n");
+        assertTrue(lines.length > 1);
+        StringBuilder unfolded = new StringBuilder(lines[0]);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].getBytes(StandardCharsets.UTF_8).length <= 75, "line " + i + " too long");
+            if (i > 0) {
+                assertTrue(lines[i].startsWith(" "));
+                unfolded.append(lines[i].substring(1));
+            }
+        }
+        assertEquals("SUMMARY:" + "상담 ".repeat(40), unfolded.toString());
+    }
+}
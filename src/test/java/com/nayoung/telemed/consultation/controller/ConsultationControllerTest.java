@@ -0,0 +1,101 @@
+package com.nayoung.telemed.consultation.controller;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import com.nayoung.telemed.role.service.RoleRegistry;
+import com.nayoung.telemed.users.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class ConsultationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private ConsultationRepo consultationRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Test
+    void notesAreOnlyReadByTheAppointmentsParticipants() throws Exception {
+        Doctor doctor = clinic.doctor("notes-doctor");
+        Patient patient = clinic.patient("notes-patient");
+        Appointment appointment = consultation(doctor, patient);
+        String path = "/api/consultations/appointment/" + appointment.getId();
+
+        expectAllowed(path, patient.getUser());
+        expectAllowed(path, doctor.getUser());
+        expectAllowed(path, clinic.user("notes-admin", RoleRegistry.ADMIN));
+        expectRefused(path, clinic.patient("notes-other-patient").getUser());
+        expectRefused(path, clinic.doctor("notes-other-doctor").getUser());
+    }
+
+    @Test
+    void historyIsOnlyReadByThePatientAndTheirDoctors() throws Exception {
+        Doctor doctor = clinic.doctor("history-doctor");
+        Patient patient = clinic.patient("history-patient");
+        consultation(doctor, patient);
+        String path = "/api/consultations/history?patientId=" + patient.getId();
+
+        expectAllowed("/api/consultations/history", patient.getUser());
+        expectAllowed(path, patient.getUser());
+        expectAllowed(path, doctor.getUser());
+        expectAllowed(path, clinic.user("history-admin", RoleRegistry.ADMIN));
+        expectRefused(path, clinic.patient("history-other-patient").getUser());
+        expectRefused(path, clinic.doctor("history-other-doctor").getUser());
+    }
+
+    private void expectAllowed(String path, User user) throws Exception {
+        mockMvc.perform(get(path).with(authentication(clinic.authentication(user))))
+                .andExpect(status().isOk());
+    }
+
+    private void expectRefused(String path, User user) throws Exception {
+        mockMvc.perform(get(path).with(authentication(clinic.authentication(user))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("You do not have permission to view")));
+    }
+
+    private Appointment consultation(Doctor doctor, Patient patient) {
+        LocalDateTime startTime = LocalDateTime.now().minusDays(1).withNano(0);
+        Appointment appointment = appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(AppointmentStatus.COMPLETED)
+                .doctor(doctor).patient(patient).build());
+        consultationRepo.save(Consultation.builder()
+                .consultationDate(appointment.getEndTime())
+                .subjectiveNotes("Persistent cough")
+                .assessment("Bronchitis")
+                .plan("Rest and fluids")
+                .appointment(appointment)
+                .build());
+        return appointment;
+    }
+}
@@ -0,0 +1,79 @@
+package com.nayoung.telemed.consultation.entity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Stored size and codec cost of NoteCodec on a synthetic corpus, next to deflate without the dictionary.
+ * Not a unit test, run its main method: java ... NoteCodecBenchmark [notes]
+ */
+public final class NoteCodecBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private NoteCodecBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int notes = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        List<String> fields = new ArrayList<>();
+        for (String[] note : SyntheticNotes.corpus(notes, 42)) {
+            fields.addAll(List.of(note));
+        }
+
+        long plainBytes = 0;
+        long withoutDictionary = 0;
+        for (String field : fields) {
+            byte[] utf8 = field.getBytes(StandardCharsets.UTF_8);
+            plainBytes += utf8.length;
+            withoutDictionary += Math.min(utf8.length, NoteCodec.MARKER.length() + deflatedBase64Length(utf8));
+        }
+
+        List<String> stored = new ArrayList<>(fields.size());
+        long encodeNanos = Long.MAX_VALUE;
+        long decodeNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        // best of a few rounds, the first ones include JIT warm-up
+        for (int round = 0; round < ROUNDS; round++) {
+            stored.clear();
+            long start = System.nanoTime();
+            for (String field : fields) {
+                stored.add(NoteCodec.encode(field));
+            }
+            encodeNanos = Math.min(encodeNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (String value : stored) {
+                checksum += NoteCodec.decode(value).length();
+            }
+            decodeNanos = Math.min(decodeNanos, System.nanoTime() - start);
+        }
+
+        long storedBytes = stored.stream().mapToLong(String::length).sum();
+        System.out.printf("notes: %d (%d fields), checksum %d%n", notes, fields.size(), checksum);
+        System.out.printf("plain:                     %,12d bytes%n", plainBytes);
+        System.out.printf("deflate, no dictionary:    %,12d bytes (%.1f%%)%n", withoutDictionary, 100.0 * withoutDictionary / plainBytes);
+        System.out.printf("NoteCodec:                 %,12d bytes (%.1f%%)%n", storedBytes, 100.0 * storedBytes / plainBytes);
+        System.out.printf("encode: %.2f us per note, decode: %.2f us per note%n",
+                encodeNanos / 1000.0 / notes, decodeNanos / 1000.0 / notes);
+    }
+
+    private static int deflatedBase64Length(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            byte[] out = new byte[utf8.length + 64];
+            int size = Integer.BYTES; // same length prefix as NoteCodec
+            while (!deflater.finished()) {
+                size += deflater.deflate(out, 0, out.length);
+            }
+            return Base64.getEncoder().encodeToString(new byte[size]).length();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.nayoung.telemed.consultation.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteCodecTest {
+
+    @Test
+    void roundTripsAndReadsPlainTextAsItIs() {
+        String note = "Patient reports intermittent headaches for 3 days. Denies fever or chills. 환자는 두통을 호소함.";
+        String stored = NoteCodec.encode(note);
+
+        assertTrue(NoteCodec.isCompressed(stored));
+        assertEquals(note, NoteCodec.decode(stored));
+        assertEquals("rest, fluids", NoteCodec.decode("rest, fluids")); // legacy row
+        assertEquals("rest, fluids", NoteCodec.encode("rest, fluids")); // too short to pay off
+        assertNull(NoteCodec.decode(NoteCodec.encode(null)));
+    }
+
+    @Test
+    void plainTextStartingWithTheMarkerIsStillCompressed() {
+        String note = NoteCodec.MARKER + "x";
+
+        String stored = NoteCodec.encode(note);
+
+        assertTrue(NoteCodec.isCompressed(stored));
+        assertEquals(note, NoteCodec.decode(stored));
+    }
+
+    @Test
+    void shrinksClinicalNotes() {
+        long plain = 0;
+        long stored = 0;
+        for (String[] note : SyntheticNotes.corpus(500, 7)) {
+            for (String field : note) {
+                String encoded = NoteCodec.encode(field);
+                assertEquals(field, NoteCodec.decode(encoded));
+                plain += field.getBytes(StandardCharsets.UTF_8).length;
+                stored += encoded.length();
+            }
+        }
+
+        assertTrue(stored * 3 < plain * 2, "stored " + stored + " of " + plain + " bytes");
+        assertFalse(NoteCodec.isCompressed(NoteCodec.encode("Follow up in 2 weeks.")));
+    }
+}
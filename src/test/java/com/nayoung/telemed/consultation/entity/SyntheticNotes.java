@@ -0,0 +1,72 @@
+package com.nayoung.telemed.consultation.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// reproducible SOAP notes in the style of real ones, for NoteCodec tests and NoteCodecBenchmark
+final class SyntheticNotes {
+
+    private static final String[] COMPLAINTS = {
+            "intermittent headaches", "a dry cough", "lower back pain", "fatigue", "burning on urination",
+            "chest tightness on exertion", "heartburn after meals", "knee pain when climbing stairs",
+            "nasal congestion and sneezing", "difficulty sleeping", "dizziness when standing up", "a sore throat"};
+    private static final String[] HISTORY = {
+            "Denies fever or chills.", "No chest pain or shortness of breath.", "Denies nausea and vomiting.",
+            "Reports good adherence to medications.", "Has been taking ibuprofen with partial relief.",
+            "Non-smoker, drinks alcohol socially.", "Family history of hypertension in both parents.",
+            "Symptoms are worse in the morning.", "Missed several doses of the evening medication.",
+            "Works night shifts and reports increased stress."};
+    private static final String[] EXAM = {
+            "Alert and oriented, in no acute distress.", "Lungs clear to auscultation bilaterally.",
+            "Heart regular rate and rhythm, no murmurs.", "Abdomen soft, non-tender.",
+            "Mild tenderness over the lumbar paraspinal muscles.", "Oropharynx erythematous without exudate.",
+            "Trace edema of both ankles.", "Neurological exam grossly intact.", "Skin warm and dry, no rash."};
+    private static final String[] ASSESSMENTS = {
+            "Essential hypertension, not at goal.", "Type 2 diabetes mellitus, HbA1c improving.",
+            "Acute viral upper respiratory infection.", "Mechanical low back pain without red flags.",
+            "Uncomplicated urinary tract infection.", "Gastroesophageal reflux disease.",
+            "Allergic rhinitis, seasonal.", "Insomnia related to shift work.", "Osteoarthritis of the right knee.",
+            "Orthostatic hypotension, likely medication related."};
+    private static final String[] PLANS = {
+            "Increase lisinopril to 20 mg daily.", "Continue metformin 1000 mg twice daily.",
+            "Supportive care, fluids and rest.", "Physical therapy referral, heat and stretching.",
+            "Nitrofurantoin 100 mg twice daily for 5 days.", "Omeprazole 20 mg before breakfast for 8 weeks.",
+            "Cetirizine 10 mg daily as needed.", "Sleep hygiene counselling, reassess in a month.",
+            "Recheck blood pressure at home twice daily and log readings.",
+            "Labs before the next visit: basic metabolic panel and lipid panel.",
+            "Follow up in 2 weeks, sooner if symptoms worsen.", "Patient verbalized understanding of the plan."};
+
+    private SyntheticNotes() {
+    }
+
+    // subjective, objective, assessment and plan of each note
+    static List<String[]> corpus(int notes, long seed) {
+        Random random = new Random(seed);
+        List<String[]> corpus = new ArrayList<>(notes);
+        for (int i = 0; i < notes; i++) {
+            String subjective = (30 + random.nextInt(50)) + "-year-old presents with " + pick(random, COMPLAINTS)
+                    + " for " + (1 + random.nextInt(14)) + " days. " + sentences(random, HISTORY, 2 + random.nextInt(4));
+            String objective = "BP " + (110 + random.nextInt(60)) + "/" + (65 + random.nextInt(35))
+                    + " mmHg, HR " + (55 + random.nextInt(50)) + " bpm, SpO2 " + (93 + random.nextInt(7))
+                    + "% on room air, temperature " + (36 + random.nextInt(20) / 10.0) + " °C. "
+                    + sentences(random, EXAM, 2 + random.nextInt(4));
+            String assessment = sentences(random, ASSESSMENTS, 1 + random.nextInt(3));
+            String plan = sentences(random, PLANS, 2 + random.nextInt(5));
+            corpus.add(new String[]{subjective, objective, assessment, plan});
+        }
+        return corpus;
+    }
+
+    private static String sentences(Random random, String[] pool, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(pick(random, pool));
+        }
+        return text.toString();
+    }
+
+    private static String pick(Random random, String[] pool) {
+        return pool[random.nextInt(pool.length)];
+    }
+}
@@ -0,0 +1,84 @@
+package com.nayoung.telemed.consultation.service;
+
+import com.nayoung.telemed.JpaTestClinic;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.entity.NoteCodec;
+import com.nayoung.telemed.consultation.mapper.ConsultationMapper;
+import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ConsultationNoteCompactor.class, JpaTestClinic.class})
+class ConsultationNoteCompactorTest {
+
+    private static final String ASSESSMENT = "Essential hypertension, not at goal despite lisinopril 10 mg daily. "
+            + "Home readings average 152/94 mmHg. No signs of end organ damage.";
+    private static final String PLAN = "Increase lisinopril to 20 mg daily. Recheck blood pressure at home twice daily "
+            + "and log readings. Follow up in 2 weeks, sooner if symptoms worsen.";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JpaTestClinic clinic;
+
+    @Autowired
+    private ConsultationNoteCompactor compactor;
+
+    @Autowired
+    private ConsultationRepo consultationRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compressesLegacyRowsAndFillsTheirSnippets() {
+        Doctor doctor = clinic.doctor("Min");
+        Patient patient = clinic.patient("Ji");
+        Appointment appointment = entityManager.persist(Appointment.builder()
+                .startTime(LocalDateTime.now().minusDays(3)).endTime(LocalDateTime.now().minusDays(3).plusHours(1))
+                .status(AppointmentStatus.COMPLETED).doctor(doctor).patient(patient).build());
+        Consultation consultation = entityManager.persist(Consultation.builder()
+                .consultationDate(appointment.getEndTime()).appointment(appointment).build());
+        entityManager.flush();
+        // as written before compression existed
+        jdbcTemplate.update("UPDATE consultations SET assessment = ?, plan = ?, assessment_snippet = NULL, note_format = NULL WHERE id = ?",
+                ASSESSMENT, PLAN, consultation.getId());
+        entityManager.clear();
+
+        assertEquals(ASSESSMENT, consultationRepo.findById(consultation.getId()).orElseThrow().getAssessment());
+
+        compactor.compact();
+        entityManager.clear();
+
+        Map<String, Object> stored = jdbcTemplate.queryForMap(
+                "SELECT assessment, plan, assessment_snippet, note_format FROM consultations WHERE id = ?", consultation.getId());
+        assertTrue(NoteCodec.isCompressed(String.valueOf(stored.get("assessment"))));
+        assertTrue(NoteCodec.isCompressed(String.valueOf(stored.get("plan"))));
+        assertEquals(NoteCodec.FORMAT, ((Number) stored.get("note_format")).intValue());
+
+        Consultation read = consultationRepo.findById(consultation.getId()).orElseThrow();
+        assertEquals(ASSESSMENT, read.getAssessment());
+        assertEquals(PLAN, read.getPlan());
+        assertEquals(ASSESSMENT, consultationRepo.findIndexedNotesByIdIn(List.of(consultation.getId())).getFirst().getAssessment());
+        assertEquals(ConsultationMapper.assessmentSnippet(ASSESSMENT),
+                consultationRepo.findHistoryPage(patient.getId(), null, null, PageRequest.of(0, 1)).getFirst().getAssessmentSnippet());
+    }
+}
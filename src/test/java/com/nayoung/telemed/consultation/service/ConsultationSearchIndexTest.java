@@ -0,0 +1,139 @@
+package com.nayoung.telemed.consultation.service;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.appointment.entity.Appointment;
+import com.nayoung.telemed.appointment.repo.AppointmentRepo;
+import com.nayoung.telemed.consultation.entity.Consultation;
+import com.nayoung.telemed.consultation.repo.ConsultationRepo;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import com.nayoung.telemed.enums.AppointmentStatus;
+import com.nayoung.telemed.enums.ConsultationNoteField;
+import com.nayoung.telemed.patient.entity.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class ConsultationSearchIndexTest {
+
+    @Autowired
+    private ConsultationSearchIndex searchIndex;
+
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    private ConsultationRepo consultationRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @BeforeEach
+    void awaitIndexThread() throws Exception {
+        searchIndex.maintainNow().get(); // opening the index at startup runs first
+    }
+
+    @Test
+    void ranksNotesMatchingEveryTermByBm25() {
+        Doctor doctor = clinic.doctor("ranking-doctor");
+        Patient patient = clinic.patient("ranking-patient");
+        Consultation once = indexed(doctor, patient, "Wheezing at night and a low fever",
+                "Lungs mostly clear on auscultation, mild expiratory sounds, oxygen saturation normal at rest");
+        Consultation twice = indexed(doctor, patient, "Wheezing, more wheezing after exercise", "Reactive airways");
+        indexed(doctor, patient, "Sore throat", "Pharyngitis");
+
+        assertEquals(List.of(twice.getId(), once.getId()), ids(searchIndex.search("wheezing", doctor.getId(), null, null, 10)));
+        assertEquals(List.of(once.getId()), ids(searchIndex.search("wheezing fever", doctor.getId(), null, null, 10)));
+        assertEquals(List.of(twice.getId()), ids(searchIndex.search("wheezing", doctor.getId(), null, null, 1)));
+    }
+
+    @Test
+    void filtersBySectionAndByWhoMaySee() {
+        Doctor doctor = clinic.doctor("filter-doctor");
+        Patient first = clinic.patient("filter-first");
+        Patient second = clinic.patient("filter-second");
+        Consultation inPlan = indexed(doctor, first, "Sprained ankle", "Ibuprofen 400 mg as needed");
+        Consultation inAssessment = indexed(doctor, second, "Gastritis from ibuprofen use", "Stop NSAIDs");
+
+        assertEquals(List.of(inPlan.getId()),
+                ids(searchIndex.search("ibuprofen", doctor.getId(), null, ConsultationNoteField.PLAN, 10)));
+        assertEquals(List.of(inAssessment.getId()),
+                ids(searchIndex.search("ibuprofen", doctor.getId(), null, ConsultationNoteField.ASSESSMENT, 10)));
+        assertEquals(List.of(inAssessment.getId()),
+                ids(searchIndex.search("ibuprofen", doctor.getId(), second.getId(), null, 10)));
+        assertEquals(List.of(), searchIndex.search("ibuprofen", clinic.doctor("filter-other").getId(), null, null, 10));
+    }
+
+    @Test
+    void catchesUpOnNotesItWasNotGiven() throws Exception {
+        Doctor doctor = clinic.doctor("catch-up-doctor");
+        Consultation missed = saved(doctor, clinic.patient("catch-up-patient"), "Shingles", "Valacyclovir for 7 days");
+        assertEquals(List.of(), searchIndex.search("valacyclovir", doctor.getId(), null, null, 10));
+
+        searchIndex.maintainNow().get();
+
+        assertEquals(List.of(missed.getId()), ids(searchIndex.search("valacyclovir", doctor.getId(), null, null, 10)));
+    }
+
+    @Test
+    void rebuildReadsEveryNoteAgainIntoOwnerOnlyFiles() throws Exception {
+        Doctor doctor = clinic.doctor("rebuild-doctor");
+        Patient patient = clinic.patient("rebuild-patient");
+        Consultation indexed = indexed(doctor, patient, "Migraine with aura", "Sumatriptan at onset");
+        Consultation missed = saved(doctor, patient, "Migraine without aura", "Sleep diary");
+
+        searchIndex.rebuild().get();
+
+        assertEquals(List.of(indexed.getId(), missed.getId()).stream().sorted().toList(),
+                ids(searchIndex.search("migraine", doctor.getId(), null, null, 10)).stream().sorted().toList());
+
+        Path directory = (Path) ReflectionTestUtils.getField(searchIndex, "directory");
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> written = files.toList();
+            assertFalse(written.isEmpty());
+            for (Path file : written) {
+                assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)), file.toString());
+            }
+        }
+    }
+
+    private Consultation indexed(Doctor doctor, Patient patient, String assessment, String plan) {
+        Consultation consultation = saved(doctor, patient, assessment, plan);
+        searchIndex.indexAfterCommit(consultation);
+        return consultation;
+    }
+
+    private Consultation saved(Doctor doctor, Patient patient, String assessment, String plan) {
+        LocalDateTime startTime = LocalDateTime.now().minusDays(1).withNano(0);
+        Appointment appointment = appointmentRepo.save(Appointment.builder()
+                .startTime(startTime).endTime(startTime.plusMinutes(60)).status(AppointmentStatus.COMPLETED)
+                .doctor(doctor).patient(patient).build());
+        return consultationRepo.save(Consultation.builder()
+                .consultationDate(appointment.getEndTime())
+                .assessment(assessment)
+                .plan(plan)
+                .appointment(appointment)
+                .build());
+    }
+
+    private static List<Long> ids(List<ConsultationSearchIndex.Hit> hits) {
+        return hits.stream().map(ConsultationSearchIndex.Hit::consultationId).toList();
+    }
+}
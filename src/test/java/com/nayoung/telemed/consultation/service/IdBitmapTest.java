@@ -0,0 +1,43 @@
+package com.nayoung.telemed.consultation.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdBitmapTest {
+
+    @Test
+    void holdsIdsBeyondTheIntRange() {
+        IdBitmap ids = new IdBitmap();
+        long large = 3L * Integer.MAX_VALUE;
+
+        ids.set(7);
+        ids.set(large);
+        ids.set(large);
+
+        assertTrue(ids.get(7));
+        assertTrue(ids.get(large));
+        assertFalse(ids.get(large + 1));
+        assertFalse(ids.get(large - (1L << 32))); // same low bits, other block
+        assertEquals(2, ids.cardinality());
+    }
+
+    @Test
+    void orAddsTheOtherIdsOnce() {
+        IdBitmap ids = new IdBitmap();
+        ids.set(1);
+        ids.set(70_000);
+        IdBitmap other = new IdBitmap();
+        other.set(70_000);
+        other.set(Long.MAX_VALUE);
+
+        ids.or(other);
+
+        assertTrue(ids.get(1));
+        assertTrue(ids.get(70_000));
+        assertTrue(ids.get(Long.MAX_VALUE));
+        assertEquals(3, ids.cardinality());
+    }
+}
@@ -0,0 +1,99 @@
+package com.nayoung.telemed.consultation.service;
+
+import com.nayoung.telemed.enums.ConsultationNoteField;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenSegmentReadsBackLikeTheBuffer() throws IOException {
+        SegmentBuffer buffer = new SegmentBuffer();
+        buffer.add(note(11, 1, 100, "Headache since Monday", "BP 150/95", "Hypertension, stage 2", "Start amlodipine"));
+        buffer.add(note(12, 2, 200, "Cough", null, "Viral infection", "Rest, fluids; recheck if hypertension symptoms"));
+
+        Path path = directory.resolve("00000000" + SegmentFile.EXTENSION);
+        SegmentFile.write(path, buffer);
+        SegmentFile segment = SegmentFile.open(path);
+
+        assertEquals(2, segment.docCount());
+        assertEquals(buffer.totalLength(), segment.totalLength());
+        assertEquals(12, segment.consultationId(1));
+        assertEquals(2, segment.doctorId(1));
+        assertEquals(200, segment.patientId(1));
+
+        IndexSegment.PostingCursor cursor = segment.postings("hypertension");
+        assertEquals(2, cursor.docFreq());
+        assertTrue(cursor.next());
+        assertEquals(0, cursor.doc());
+        assertEquals(1 << ConsultationNoteField.ASSESSMENT.ordinal(), cursor.fields());
+        assertTrue(cursor.next());
+        assertEquals(1 << ConsultationNoteField.PLAN.ordinal(), cursor.fields());
+        assertFalse(cursor.next());
+
+        assertNull(segment.postings("the"));
+        assertNull(segment.postings("diabetes"));
+    }
+
+    @Test
+    void mergeRebasesDocumentsAndKeepsPostingsInOrder() throws IOException {
+        SegmentBuffer first = new SegmentBuffer();
+        SegmentBuffer second = new SegmentBuffer();
+        for (int i = 0; i < 50; i++) {
+            SegmentBuffer target = i < 25 ? first : second;
+            target.add(note(i + 1, 1, 100, i % 5 == 0 ? "chest pain" : "follow up", null, "stable " + i, null));
+        }
+        Path a = directory.resolve("00000001" + SegmentFile.EXTENSION);
+        Path b = directory.resolve("00000002" + SegmentFile.EXTENSION);
+        SegmentFile.write(a, first);
+        SegmentFile.write(b, second);
+
+        Path merged = directory.resolve("00000003" + SegmentFile.EXTENSION);
+        SegmentFile.merge(merged, List.of(SegmentFile.open(a), SegmentFile.open(b)));
+        SegmentFile segment = SegmentFile.open(merged);
+
+        assertEquals(50, segment.docCount());
+        assertEquals(first.totalLength() + second.totalLength(), segment.totalLength());
+        IndexSegment.PostingCursor cursor = segment.postings("chest");
+        assertEquals(10, cursor.docFreq());
+        assertTrue(cursor.advance(26));
+        assertEquals(30, cursor.doc());
+        assertEquals(31, segment.consultationId(cursor.doc()));
+        assertTrue(cursor.next());
+        assertEquals(35, cursor.doc());
+        assertFalse(cursor.advance(46));
+    }
+
+    @Test
+    void rejectsATruncatedFile() throws IOException {
+        SegmentBuffer buffer = new SegmentBuffer();
+        buffer.add(note(1, 1, 1, "dizziness", null, null, null));
+        Path path = directory.resolve("00000004" + SegmentFile.EXTENSION);
+        SegmentFile.write(path, buffer);
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> SegmentFile.open(path));
+    }
+
+    private static IndexedNote note(long id, long doctorId, long patientId,
+                                    String subjective, String objective, String assessment, String plan) {
+        return new IndexedNote(id, doctorId, patientId, subjective, objective, assessment, plan);
+    }
+}
@@ -0,0 +1,71 @@
+package com.nayoung.telemed.doctor.repo;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.doctor.entity.Doctor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class DoctorRepoTest {
+
+    @Autowired
+    private DoctorRepo doctorRepo;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void doctorRowStaysLockedUntilTheBookingTransactionEnds() throws Exception {
+        Long doctorId = clinic.doctor("row-lock-doctor").getId();
+
+        // a booking transaction on another node holds the doctor's row until this test is done
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> holder = executor.submit(() -> transactionTemplate.execute(status -> {
+                doctorRepo.findWithLockById(doctorId).orElseThrow();
+                locked.countDown();
+                try {
+                    return done.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(locked.await(30, TimeUnit.SECONDS));
+
+            assertThrows(PessimisticLockingFailureException.class, () -> transactionTemplate.execute(status ->
+                    doctorRepo.findWithLockById(doctorId)));
+
+            done.countDown();
+            assertTrue(holder.get(30, TimeUnit.SECONDS));
+            // free again once the first transaction ends
+            Doctor doctor = transactionTemplate.execute(status -> doctorRepo.findWithLockById(doctorId).orElseThrow());
+            assertEquals(doctorId, doctor.getId());
+        } finally {
+            done.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nayoung.telemed.notification.repo;
+
+import com.nayoung.telemed.enums.NotificationType;
+import com.nayoung.telemed.enums.OutboxStatus;
+import com.nayoung.telemed.notification.entity.OutboxMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class OutboxMessageRepoTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxMessageRepo outboxMessageRepo;
+
+    @Test
+    void aDueRowIsLeasedByOneRelayOnlyUntilItsLeaseRunsOut() {
+        LocalDateTime now = LocalDateTime.now();
+        Long id = entityManager.persistAndFlush(message(now.minusSeconds(1))).getId();
+        entityManager.persistAndFlush(message(now.plusMinutes(5))); // retry not due yet
+
+        List<Long> dueIds = outboxMessageRepo.findDueIds(now, PageRequest.of(0, 10));
+        assertEquals(List.of(id), dueIds);
+
+        assertEquals(1, outboxMessageRepo.lease(dueIds, "relay-a", now.plusMinutes(2), now));
+        assertEquals(0, outboxMessageRepo.lease(dueIds, "relay-b", now.plusMinutes(2), now));
+        entityManager.clear();
+
+        assertTrue(outboxMessageRepo.findDueIds(now.plusMinutes(1), PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, outboxMessageRepo.findByLeaseOwnerAndStatus("relay-a", OutboxStatus.PENDING).getFirst().getAttempts());
+
+        // relay-a died: once the lease is over, another relay takes the row
+        LocalDateTime later = now.plusMinutes(3);
+        assertEquals(1, outboxMessageRepo.lease(List.of(id), "relay-b", later.plusMinutes(2), later));
+        assertEquals(0, outboxMessageRepo.markSent(List.of(id), "relay-a", later));
+        assertEquals(1, outboxMessageRepo.markSent(List.of(id), "relay-b", later));
+        entityManager.clear();
+
+        assertEquals(OutboxStatus.SENT, outboxMessageRepo.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void aLeaseIsRenewedOnlyWhileItsOwnerStillHoldsIt() {
+        LocalDateTime now = LocalDateTime.now();
+        Long id = entityManager.persistAndFlush(message(now.minusSeconds(1))).getId();
+        outboxMessageRepo.lease(List.of(id), "relay-a", now.plusMinutes(2), now);
+
+        // still held: renewing pushes the lease out, so a long batch keeps its later rows
+        LocalDateTime later = now.plusMinutes(1);
+        assertEquals(1, outboxMessageRepo.renewLease(id, "relay-a", later.plusMinutes(2), later));
+        assertEquals(0, outboxMessageRepo.renewLease(id, "relay-b", later.plusMinutes(2), later));
+        assertTrue(outboxMessageRepo.findDueIds(now.plusMinutes(2).plusSeconds(30), PageRequest.of(0, 10)).isEmpty());
+
+        // ran out and taken over: the first relay must not send it any more
+        LocalDateTime expired = now.plusMinutes(4);
+        assertEquals(0, outboxMessageRepo.renewLease(id, "relay-a", expired.plusMinutes(2), expired));
+        assertEquals(1, outboxMessageRepo.lease(List.of(id), "relay-b", expired.plusMinutes(2), expired));
+        assertEquals(0, outboxMessageRepo.renewLease(id, "relay-a", expired.plusMinutes(2), expired));
+    }
+
+    private static OutboxMessage message(LocalDateTime availableAt) {
+        return OutboxMessage.builder()
+                .recipient("patient@example.com")
+                .subject("CareBridge: Your Appointment is Confirmed")
+                .templateName("patient-appointment")
+                .type(NotificationType.EMAIL)
+                .status(OutboxStatus.PENDING)
+                .availableAt(availableAt)
+                .createdAt(availableAt)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.nayoung.telemed.role.service;
+
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.users.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(RoleRegistry.class)
+class RoleRegistryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Test
+    void removedRolesGrantNothing() {
+        Role doctor = entityManager.persist(Role.builder().name(RoleRegistry.DOCTOR).build());
+        Role patient = entityManager.persist(Role.builder().name(RoleRegistry.PATIENT).build());
+        roleRegistry.reload();
+
+        // roles as they arrive from token claims, by name only
+        List<Role> claimed = List.of(Role.builder().name(RoleRegistry.DOCTOR).build(),
+                Role.builder().name(RoleRegistry.PATIENT).build());
+        User user = User.builder().roles(claimed).build();
+
+        assertTrue(roleRegistry.hasRole(user, RoleRegistry.DOCTOR));
+        List<GrantedAuthority> authorities = roleRegistry.authoritiesOf(claimed);
+        assertEquals(2, authorities.size());
+        assertSame(authorities.getFirst(), roleRegistry.authoritiesOf(claimed).getFirst());
+
+        roleRegistry.remove(doctor.getId());
+
+        assertFalse(roleRegistry.hasRole(user, RoleRegistry.DOCTOR));
+        assertTrue(roleRegistry.hasRole(user, RoleRegistry.PATIENT));
+        assertEquals(List.of(patient.getName()),
+                roleRegistry.authoritiesOf(claimed).stream().map(GrantedAuthority::getAuthority).toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.nayoung.telemed.security;
+
+import com.nayoung.telemed.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void hashesOnTheCallerAndRejectsWhenEveryPermitIsHeldTooLong() throws Exception {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingService service = service(new BlockingEncoder(hashing, release), 1, 10, 100);
+
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = callers.submit(() -> service.encode("secret"));
+            assertTrue(hashing.await(5, TimeUnit.SECONDS));
+
+            // the only permit is taken, the next caller gives up after the timeout
+            assertThrows(ServiceUnavailableException.class, () -> service.encode("other"));
+
+            release.countDown();
+            assertEquals("hash:secret", first.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:again", service.encode("again"));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static PasswordHashingService service(PasswordEncoder encoder, int concurrency, int queueCapacity, long timeoutMillis) {
+        PasswordHashingService service = new PasswordHashingService(encoder);
+        ReflectionTestUtils.setField(service, "concurrency", concurrency);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "timeoutMillis", timeoutMillis);
+        ReflectionTestUtils.setField(service, "retryAfterSeconds", 1L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    // holds the first hash until released, the ones after it return at once
+    private record BlockingEncoder(CountDownLatch hashing, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (hashing.getCount() > 0) {
+                hashing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.nayoung.telemed.security;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput of RateLimiter.tryAcquire on distinct keys, one thread against several. There is no global lock, so
+ * the parallel figure should be a multiple of the single-threaded one on a multi-core machine.
+ * Not a unit test, run its main method: java ... RateLimiterBenchmark [threads] [opsPerThread]
+ */
+public final class RateLimiterBenchmark {
+
+    private static final RateLimiter.Limit LIMIT = new RateLimiter.Limit(100, Duration.ofMinutes(1));
+    private static final int ROUNDS = 5;
+
+    private RateLimiterBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        double single = 0;
+        double parallel = 0;
+        // best of a few rounds, the first ones include JIT warm-up
+        for (int round = 0; round < ROUNDS; round++) {
+            single = Math.max(single, measureThroughput(1, opsPerThread));
+            parallel = Math.max(parallel, measureThroughput(threads, opsPerThread));
+        }
+
+        System.out.printf("1 thread:   %,15.0f ops/s%n", single);
+        System.out.printf("%d threads: %,15.0f ops/s (%.1fx)%n", threads, parallel, parallel / single);
+    }
+
+    private static double measureThroughput(int threads, int opsPerThread) throws Exception {
+        RateLimiter limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "maxBuckets", 1_000_000);
+        String[][] keys = new String[threads][64];
+        for (int t = 0; t < threads; t++) {
+            for (int k = 0; k < keys[t].length; k++) {
+                keys[t][k] = "ip:" + t + "-" + k;
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                String[] ownKeys = keys[t];
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        limiter.tryAcquire(ownKeys[i & 63], LIMIT, System.nanoTime());
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return threads * (double) opsPerThread / ((System.nanoTime() - begin) / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.nayoung.telemed.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final RateLimiter.Limit LIMIT = new RateLimiter.Limit(100, Duration.ofMinutes(1));
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "maxBuckets", 1_000_000);
+    }
+
+    @Test
+    void hotKeyNeverAdmitsMoreThanCapacityUnderContention() throws Exception {
+        long now = System.nanoTime();
+        AtomicInteger admitted = new AtomicInteger();
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < 10_000; i++) {
+                if (rateLimiter.tryAcquire("login|ip:10.0.0.1", LIMIT, now) == 0) {
+                    admitted.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(100, admitted.get());
+    }
+
+    @Test
+    void distinctKeysAreLimitedIndependently() throws Exception {
+        long now = System.nanoTime();
+        int keysPerThread = 500;
+        AtomicInteger admitted = new AtomicInteger();
+
+        runConcurrently(THREADS, thread -> {
+            for (int key = 0; key < keysPerThread; key++) {
+                for (int i = 0; i < 150; i++) {
+                    if (rateLimiter.tryAcquire("login|ip:" + thread + "-" + key, LIMIT, now) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        assertEquals(THREADS * keysPerThread * 100, admitted.get());
+    }
+
+    @Test
+    void tokensRefillOverTime() {
+        long now = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("key", LIMIT, now));
+        }
+
+        long wait = rateLimiter.tryAcquire("key", LIMIT, now);
+        assertTrue(wait > 0);
+        assertEquals(0, rateLimiter.tryAcquire("key", LIMIT, now + wait));
+    }
+
+    @Test
+    void idleBucketsAreSwept() {
+        long now = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            rateLimiter.tryAcquire("ip:" + i, LIMIT, now);
+        }
+        assertEquals(1_000, rateLimiter.bucketCount());
+
+        rateLimiter.sweep(now + Duration.ofMinutes(1).toNanos());
+
+        assertEquals(0, rateLimiter.bucketCount());
+    }
+
+    private void runConcurrently(int threads, ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,48 @@
+package com.nayoung.telemed.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.function.Supplier;
+
+/**
+ * Fails a test when a block of code sends more SQL statements than allowed. Statements are counted per thread by
+ * this StatementInspector, which the test profile registers with Hibernate, so background jobs and async sends
+ * running meanwhile are not counted. Wrap whole service calls: that is where a request's round trips add up.
+ */
+public final class QueryBudget implements StatementInspector {
+
+    private static final ThreadLocal<long[]> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        return sql;
+    }
+
+    public static <T> T expectAtMost(int maxStatements, String description, Supplier<T> action) {
+        long[] statements = new long[1];
+        STATEMENTS.set(statements);
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            STATEMENTS.remove();
+        }
+
+        if (statements[0] > maxStatements) {
+            throw new AssertionError(description + " sent " + statements[0]
+                    + " SQL statements, budget is " + maxStatements);
+        }
+        return result;
+    }
+
+    public static void expectAtMost(int maxStatements, String description, Runnable action) {
+        expectAtMost(maxStatements, description, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.nayoung.telemed.users.service;
+
+import com.nayoung.telemed.role.entity.Role;
+import com.nayoung.telemed.users.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCacheTest {
+
+    private final UserCache userCache = new UserCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userCache, "maxSize", 100);
+        ReflectionTestUtils.setField(userCache, "ttlMillis", 60_000L);
+        ReflectionTestUtils.invokeMethod(userCache, "init");
+    }
+
+    @Test
+    void changingAUserHandedOutLeavesTheCachedOneAlone() {
+        User loaded = User.builder()
+                .id(7L).name("Ji Park").email("ji@example.com").password("hash-1").tokenVersion(2)
+                .roles(new ArrayList<>(List.of(Role.builder().id(1L).name("PATIENT").build())))
+                .build();
+        userCache.put(loaded);
+        loaded.setPassword("changed after caching");
+
+        User first = userCache.get("ji@example.com").orElseThrow();
+        first.setPassword("hash-2");
+        first.setTokenVersion(3);
+        first.getRoles().getFirst().setName("ADMIN");
+        first.getRoles().add(Role.builder().id(2L).name("DOCTOR").build());
+
+        User second = userCache.get("ji@example.com").orElseThrow();
+        assertNotSame(first, second);
+        assertEquals("hash-1", second.getPassword());
+        assertEquals(2, second.getTokenVersion());
+        assertEquals(List.of("PATIENT"), second.getRoles().stream().map(Role::getName).toList());
+
+        userCache.evict("ji@example.com");
+        assertTrue(userCache.get("ji@example.com").isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package com.nayoung.telemed.users.service;
+
+import com.nayoung.telemed.TestClinic;
+import com.nayoung.telemed.users.dto.BulkImportError;
+import com.nayoung.telemed.users.dto.BulkImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClinic.class)
+class UserImportServiceImplTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private TestClinic clinic;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void smallChunks() {
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 3);
+        // the roles an import may name have to exist already
+        clinic.doctor("import-existing-doctor");
+    }
+
+    @AfterEach
+    void defaultChunks() {
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 500);
+    }
+
+    @Test
+    void importsChunkByChunkAndReportsBadRowsByLine() {
+        String existing = clinic.patient("import-existing-patient").getUser().getEmail();
+        String csv = String.join("\n",
+                "name,email,password,roles,specialization,licenseNumber",
+                // chunk 1
+                "Ada Import,import-ada@example.com,secret1,,,",
+                "Ben Import,import-ben@example.com,secret2,DOCTOR,CARDIOLOGY,L-900",
+                "No Password,import-nopass@example.com,,,,",
+                // chunk 2
+                "Already There," + existing + ",secret3,,,",
+                "Cleo Import,import-cleo@example.com,secret4,PATIENT,,",
+                "Cleo Again,import-cleo@example.com,secret5,PATIENT,,",
+                // chunk 3: the too long name fails the batch, the chunk is retried row by row
+                "Dan Import,import-dan@example.com,secret6,NURSE,,",
+                "x".repeat(300) + ",import-long@example.com,secret7,,,",
+                "Eve Import,import-eve@example.com,secret8,,,");
+
+        BulkImportResult result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "text/csv").getData();
+
+        assertEquals(9, result.getTotalRows());
+        assertEquals(4, result.getImported());
+        assertEquals(5, result.getFailed());
+        assertEquals(List.of(
+                "4 Password is required",
+                "5 User with email already exists",
+                "7 Duplicate email in import file",
+                "8 Unknown role: NURSE",
+                "9 Rejected by database constraint"), result.getErrors().stream().map(UserImportServiceImplTest::line).sorted().toList());
+
+        List<String> imported = List.of("import-ada@example.com", "import-ben@example.com",
+                "import-cleo@example.com", "import-eve@example.com");
+        for (String email : imported) {
+            assertEquals(1, count("SELECT COUNT(*) FROM users WHERE email = ?", email), email);
+            assertEquals(1, count("SELECT COUNT(*) FROM notification_outbox WHERE recipient = ?", email), email);
+        }
+        assertEquals(1, count("SELECT COUNT(*) FROM patients p JOIN users u ON u.id = p.user_id WHERE u.email = ?",
+                "import-eve@example.com"));
+        assertEquals(1, count("SELECT COUNT(*) FROM doctors d JOIN users u ON u.id = d.user_id "
+                + "WHERE u.email = ? AND d.license_number = 'L-900' AND d.specialization = 'CARDIOLOGY'", "import-ben@example.com"));
+        assertEquals(0, count("SELECT COUNT(*) FROM users WHERE email IN ('import-nopass@example.com', "
+                + "'import-dan@example.com', 'import-long@example.com')", null));
+        assertEquals(0, count("SELECT COUNT(*) FROM notification_outbox WHERE recipient = ?", "import-long@example.com"));
+    }
+
+    private int count(String sql, String email) {
+        return email == null
+                ? jdbcTemplate.queryForObject(sql, Integer.class)
+                : jdbcTemplate.queryForObject(sql, Integer.class, email);
+    }
+
+    private static String line(BulkImportError error) {
+        return error.getLineNumber() + " " + error.getMessage();
+    }
+}